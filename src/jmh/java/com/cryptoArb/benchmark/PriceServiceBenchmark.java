@@ -0,0 +1,138 @@
+package com.cryptoArb.benchmark;
+
+import com.cryptoArb.domain.ConsolidatedPrice;
+import com.cryptoArb.domain.CurrencyPair;
+import com.cryptoArb.domain.Exchange;
+import com.cryptoArb.domain.PriceTick;
+import com.cryptoArb.service.ParallelConsolidationEngine;
+import com.cryptoArb.service.PriceService;
+import org.openjdk.jmh.annotations.*;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * JMH benchmarks for the PriceService aggregation and filter paths.
+ *
+ * Unlike BenchmarkRunner (one cold System.nanoTime run), JMH warms up the JIT,
+ * forks fresh JVMs and consumes every result, so dead-code elimination cannot
+ * make a path look free.
+ *
+ * Build and run (add "-prof gc" for bytes allocated per operation):
+ * <pre>
+ *   mvn -Pjmh package -DskipTests
+ *   java -jar target/benchmarks.jar PriceServiceBenchmark -prof gc
+ *   java -jar target/benchmarks.jar PriceServiceBenchmark -p tickCount=1000000 -p parallelism=8
+ * </pre>
+ *
+ * The parallel benchmark runs inside a dedicated ForkJoinPool of 'parallelism' threads,
+ * so the thread count is a real parameter instead of whatever the common pool has.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 2, jvmArgsAppend = {"-Xms2g", "-Xmx2g"})
+public class PriceServiceBenchmark {
+
+    @Param({"10000", "1000000"})
+    public int tickCount;
+
+    @Param({"4", "100"})
+    public int pairCount;
+
+    @Param({"4", "16"})
+    public int exchangeCount;
+
+    @Param({"1", "4"})
+    public int parallelism;
+
+    private final PriceService priceService = new PriceService();
+
+    private List<PriceTick> ticks;
+    private CurrencyPair hotPair;
+    private Exchange hotExchange;
+    private Instant now;
+    private Duration maxAge;
+    private ForkJoinPool pool;
+    private ParallelConsolidationEngine engine;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        // A fixed seed keeps the data identical across forks and runs
+        Random random = new Random(42);
+
+        List<CurrencyPair> pairs = new ArrayList<>();
+        for (int i = 0; i < pairCount; i++) {
+            pairs.add(new CurrencyPair("C" + i, "USD"));
+        }
+        List<Exchange> exchanges = new ArrayList<>();
+        for (int i = 0; i < exchangeCount; i++) {
+            exchanges.add(new Exchange("exchange-" + i));
+        }
+
+        now = Instant.parse("2025-01-01T12:00:00Z");
+        maxAge = Duration.ofMinutes(30);
+        ticks = new ArrayList<>(tickCount);
+        for (int i = 0; i < tickCount; i++) {
+            BigDecimal bid = BigDecimal.valueOf(50_000_00 + random.nextInt(10_000), 2);
+            ticks.add(new PriceTick(
+                    pairs.get(random.nextInt(pairCount)),
+                    exchanges.get(random.nextInt(exchangeCount)),
+                    now.minusSeconds(random.nextInt(3600)),
+                    bid,
+                    bid.add(new BigDecimal("0.50"))));
+        }
+
+        hotPair = pairs.get(0);
+        hotExchange = exchanges.get(0);
+        pool = new ForkJoinPool(parallelism);
+        engine = new ParallelConsolidationEngine(parallelism);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        pool.shutdown();
+        engine.close();
+    }
+
+    @Benchmark
+    public Map<CurrencyPair, ConsolidatedPrice> aggregatePrices() {
+        return priceService.aggregatePrices(ticks);
+    }
+
+    @Benchmark
+    public Map<CurrencyPair, ConsolidatedPrice> aggregatePricesParallel() {
+        // A parallel stream started from inside a ForkJoinPool runs on that pool
+        return pool.submit(() -> priceService.aggregatePricesParallel(ticks)).join();
+    }
+
+    @Benchmark
+    public Map<CurrencyPair, ConsolidatedPrice> aggregatePricesSharded() {
+        return engine.aggregate(ticks);
+    }
+
+    @Benchmark
+    public List<PriceTick> filter() {
+        return priceService.filter(ticks, tick -> hotExchange.equals(tick.exchange()));
+    }
+
+    @Benchmark
+    public List<PriceTick> filterStaleTicks() {
+        return priceService.filterStaleTicks(ticks, now, maxAge);
+    }
+
+    @Benchmark
+    public Optional<ConsolidatedPrice> getConsolidatedPriceForPair() {
+        return priceService.getConsolidatedPriceForPair(ticks, hotPair);
+    }
+}
@@ -3,7 +3,10 @@ package com.cryptoArb;
 import com.cryptoArb.domain.CurrencyPair;
 import com.cryptoArb.domain.Exchange;
 import com.cryptoArb.domain.PriceTick;
+import com.cryptoArb.domain.TickBatch;
+import com.cryptoArb.service.ParallelConsolidationEngine;
 import com.cryptoArb.service.PriceService;
+import com.cryptoArb.service.TickBatchKernels;
 
 import java.math.BigDecimal;
 import java.time.Instant;
@@ -93,9 +96,39 @@ public class BenchmarkRunner {
         System.out.println("PARALLEL aggregation took: " + durationParallel + " ms");
 
 
-        // --- 3. Log Results ---
+        // --- 3. Run Columnar Benchmark ---
+        // The conversion to columns is done once, up front, like a feed handler would
+        TickBatch batch = TickBatch.of(ticks);
+        System.out.println("\nRunning COLUMNAR aggregation...");
+        long startTimeColumnar = System.nanoTime();
+
+        TickBatchKernels.aggregate(batch);
+
+        long endTimeColumnar = System.nanoTime();
+        long durationColumnar = TimeUnit.NANOSECONDS.toMillis(endTimeColumnar - startTimeColumnar);
+        System.out.println("COLUMNAR aggregation took: " + durationColumnar + " ms");
+
+
+        // --- 4. Run Sharded Benchmark ---
+        // The engine owns its pool, so pool start-up is kept out of the measurement
+        long durationSharded;
+        try (ParallelConsolidationEngine engine = new ParallelConsolidationEngine()) {
+            System.out.println("\nRunning SHARDED aggregation...");
+            long startTimeSharded = System.nanoTime();
+
+            engine.aggregate(ticks);
+
+            long endTimeSharded = System.nanoTime();
+            durationSharded = TimeUnit.NANOSECONDS.toMillis(endTimeSharded - startTimeSharded);
+            System.out.println("SHARDED aggregation took: " + durationSharded + " ms");
+        }
+
+
+        // --- 5. Log Results ---
         System.out.println("\n--- Benchmark Complete ---");
         System.out.println("Sequential: " + durationSequential + " ms");
         System.out.println("Parallel:   " + durationParallel + " ms");
+        System.out.println("Columnar:   " + durationColumnar + " ms");
+        System.out.println("Sharded:    " + durationSharded + " ms");
     }
 }
\ No newline at end of file
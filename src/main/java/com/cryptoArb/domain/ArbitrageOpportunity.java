@@ -14,6 +14,8 @@ import java.time.Instant;
  * @param buyPrice         The price to buy at (lowest ask)
  * @param sellExchange     The exchange to sell at (highest bid)
  * @param sellPrice        The price to sell at (highest bid)
+ * @param profitPercentage (sellPrice - buyPrice) / buyPrice, computed once when the opportunity is created;
+ *                         pass null to have it computed, any other value must match the prices
  */
 public record ArbitrageOpportunity(
         CurrencyPair pair,
@@ -21,19 +23,59 @@ public record ArbitrageOpportunity(
         Exchange buyExchange,
         BigDecimal buyPrice,
         Exchange sellExchange,
-        BigDecimal sellPrice
+        BigDecimal sellPrice,
+        BigDecimal profitPercentage
 ) {
 
     // 5. Define a MathContext for precise, non-terminating division
     private static final MathContext MC = new MathContext(10, RoundingMode.HALF_UP);
 
     /**
-     * Calculates the profit percentage for this opportunity.
+     * Keeps the cached profit percentage consistent with the prices: the canonical constructor
+     * used to accept any value, so a caller could build an opportunity whose profitPercentage()
+     * disagreed with its own buy and sell prices.
+     *
+     * A missing percentage is computed (the one division). A given one is checked without
+     * dividing: percentage * buyPrice must give sellPrice - buyPrice, to within the rounding
+     * of a {@link #calculateProfitPercentage(BigDecimal, BigDecimal)} result (10 significant digits).
+     *
+     * @throws IllegalArgumentException if buyPrice is not positive, or profitPercentage is
+     *                                  given and does not match the prices.
+     */
+    public ArbitrageOpportunity {
+        if (buyPrice.signum() <= 0) {
+            throw new IllegalArgumentException("Buy price must be positive: " + buyPrice);
+        }
+        if (profitPercentage == null) {
+            profitPercentage = calculateProfitPercentage(buyPrice, sellPrice);
+        } else {
+            BigDecimal difference = sellPrice.subtract(buyPrice);
+            BigDecimal error = profitPercentage.multiply(buyPrice).subtract(difference).abs();
+            if (error.compareTo(difference.abs().movePointLeft(9)) > 0) {
+                throw new IllegalArgumentException("Profit percentage " + profitPercentage
+                        + " does not match buy price " + buyPrice + " and sell price " + sellPrice);
+            }
+        }
+    }
+
+    /**
+     * Creates an opportunity and calculates its profit percentage ONCE.
+     * (It used to be recomputed, with a BigDecimal division, on every call to profitPercentage(),
+     * e.g. once when logging and again when persisting.)
+     */
+    public ArbitrageOpportunity(CurrencyPair pair, Instant timestamp,
+                                Exchange buyExchange, BigDecimal buyPrice,
+                                Exchange sellExchange, BigDecimal sellPrice) {
+        this(pair, timestamp, buyExchange, buyPrice, sellExchange, sellPrice, null);
+    }
+
+    /**
+     * Calculates the profit percentage for an opportunity.
      * Formula: (sellPrice - buyPrice) / buyPrice
      *
      * @return The profit as a percentage (e.g., 0.01 for 1%).
      */
-    public BigDecimal profitPercentage() {
+    public static BigDecimal calculateProfitPercentage(BigDecimal buyPrice, BigDecimal sellPrice) {
         // (sell - buy)
         BigDecimal profit = sellPrice.subtract(buyPrice);
 
@@ -41,4 +83,4 @@ public record ArbitrageOpportunity(
         // We use the MathContext to handle division with many decimal places
         return profit.divide(buyPrice, MC);
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,44 @@
+package com.cryptoArb.domain;
+
+import java.math.BigDecimal;
+import java.math.MathContext;
+import java.math.RoundingMode;
+import java.time.Instant;
+
+/**
+ * An arbitrage opportunity sized against order book depth:
+ * how much can actually be bought on one exchange and sold on another
+ * while the ask stays below the bid, and at what average prices.
+ *
+ * @param pair         The currency pair
+ * @param timestamp    The time of the book update that revealed the opportunity
+ * @param buyExchange  The exchange whose asks we buy from
+ * @param sellExchange The exchange whose bids we sell to
+ * @param quantity     The executable quantity (base currency)
+ * @param buyVwap      The volume-weighted average buy price over that quantity
+ * @param sellVwap     The volume-weighted average sell price over that quantity
+ * @param profit       The total profit in quote currency: quantity * (sellVwap - buyVwap)
+ */
+public record DepthArbitrageOpportunity(
+        CurrencyPair pair,
+        Instant timestamp,
+        Exchange buyExchange,
+        Exchange sellExchange,
+        BigDecimal quantity,
+        BigDecimal buyVwap,
+        BigDecimal sellVwap,
+        BigDecimal profit
+) {
+
+    private static final MathContext MC = new MathContext(10, RoundingMode.HALF_UP);
+
+    /**
+     * Calculates the profit percentage over the whole executable quantity.
+     * Formula: (sellVwap - buyVwap) / buyVwap
+     *
+     * @return The profit as a percentage (e.g., 0.01 for 1%).
+     */
+    public BigDecimal profitPercentage() {
+        return sellVwap.subtract(buyVwap).divide(buyVwap, MC);
+    }
+}
@@ -0,0 +1,77 @@
+package com.cryptoArb.domain;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+
+/**
+ * Helpers for representing prices as a scaled primitive long ("fixed point").
+ *
+ * A price is stored as price * 10^8, matching the DECIMAL(20, 8) columns of our schema.
+ * Example: 50000.5 is stored as 5_000_050_000_000L.
+ *
+ * Comparing or subtracting two fixed-point prices is plain long arithmetic:
+ * no object allocation and no scale normalization, unlike BigDecimal.compareTo().
+ * Convert to BigDecimal only at the edges (persistence and public API).
+ *
+ * Note: a long holds about 9.2 * 10^18, so the largest representable price is ~92 billion
+ * ({@link #MAX_PRICE}). Feeds must check {@link #fits(BigDecimal)} before converting: an
+ * out-of-range price is rejected or compared as BigDecimal, never thrown from the hot path.
+ */
+public final class FixedPointPrice {
+
+    /** Number of decimal places kept, same as DECIMAL(20, 8). */
+    public static final int SCALE = 8;
+
+    /** The fixed-point value of 1 (10^8). */
+    public static final long ONE = 100_000_000L;
+
+    /** The largest price with a fixed-point value (Long.MAX_VALUE / 10^8 = 92233720368.54775807). */
+    public static final BigDecimal MAX_PRICE = BigDecimal.valueOf(Long.MAX_VALUE, SCALE);
+
+    /** The smallest price with a fixed-point value. */
+    public static final BigDecimal MIN_PRICE = MAX_PRICE.negate();
+
+    private FixedPointPrice() {
+        // Static helpers only
+    }
+
+    /**
+     * Converts a BigDecimal price to its fixed-point value.
+     * Digits beyond the 8th decimal place are rounded HALF_UP, like the database does.
+     *
+     * A price with at most 8 decimals (the usual feed format) is only shifted by 8 places:
+     * a single compact BigDecimal, no rounding and no BigInteger from unscaledValue().
+     *
+     * @param price The price to convert.
+     * @return The price scaled by 10^8.
+     * @throws ArithmeticException if the price does not fit in a long; check {@link #fits(BigDecimal)} first.
+     */
+    public static long fromBigDecimal(BigDecimal price) {
+        // 1. Round only when there are more than 8 decimals
+        BigDecimal rounded = price.scale() <= SCALE ? price : price.setScale(SCALE, RoundingMode.HALF_UP);
+        // 2. Scale 8 or less becomes scale 0: longValueExact() then reads the compact long directly
+        return rounded.movePointRight(SCALE).longValueExact();
+    }
+
+    /**
+     * Tells whether a price is within [{@link #MIN_PRICE}, {@link #MAX_PRICE}], i.e. whether
+     * {@link #fromBigDecimal(BigDecimal)} can convert it. Two compareTo calls, no allocation
+     * for prices with at most 8 decimals.
+     *
+     * @param price The price to check.
+     * @return true if the price has a fixed-point value.
+     */
+    public static boolean fits(BigDecimal price) {
+        return price.compareTo(MAX_PRICE) <= 0 && price.compareTo(MIN_PRICE) >= 0;
+    }
+
+    /**
+     * Converts a fixed-point value back to a BigDecimal with scale 8.
+     *
+     * @param raw The price scaled by 10^8.
+     * @return The BigDecimal price (e.g. 5_000_050_000_000L becomes 50000.50000000).
+     */
+    public static BigDecimal toBigDecimal(long raw) {
+        return BigDecimal.valueOf(raw, SCALE);
+    }
+}
@@ -0,0 +1,58 @@
+package com.cryptoArb.domain;
+
+import java.time.Instant;
+
+/**
+ * A price snapshot from a specific exchange, with prices in fixed point.
+ * This is the hot-path twin of {@link PriceTick}: same data, but bid/ask are
+ * primitive longs scaled by 10^8 (see {@link FixedPointPrice}).
+ *
+ * @param pair       The currency pair (e.g., BTC/USD)
+ * @param exchange   The exchange (e.g., coinbase)
+ * @param timestamp  The time of the tick
+ * @param bidPrice   The highest bid, scaled by 10^8
+ * @param askPrice   The lowest ask, scaled by 10^8
+ */
+public record FixedPointTick(
+        CurrencyPair pair,
+        Exchange exchange,
+        Instant timestamp,
+        long bidPrice,
+        long askPrice
+) {
+
+    /**
+     * Converts a BigDecimal-based tick to fixed point (rounded to 8 decimal places).
+     *
+     * @throws ArithmeticException if a price is outside the fixed-point range (see {@link FixedPointPrice#fits}).
+     */
+    public static FixedPointTick from(PriceTick tick) {
+        return new FixedPointTick(
+                tick.pair(),
+                tick.exchange(),
+                tick.timestamp(),
+                FixedPointPrice.fromBigDecimal(tick.bidPrice()),
+                FixedPointPrice.fromBigDecimal(tick.askPrice())
+        );
+    }
+
+    /**
+     * Converts this tick back to a BigDecimal-based PriceTick (scale 8).
+     */
+    public PriceTick toPriceTick() {
+        return new PriceTick(
+                pair,
+                exchange,
+                timestamp,
+                FixedPointPrice.toBigDecimal(bidPrice),
+                FixedPointPrice.toBigDecimal(askPrice)
+        );
+    }
+
+    /**
+     * @return ask - bid, scaled by 10^8. Negative when the quote is crossed.
+     */
+    public long spread() {
+        return askPrice - bidPrice;
+    }
+}
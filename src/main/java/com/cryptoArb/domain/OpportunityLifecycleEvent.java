@@ -0,0 +1,47 @@
+package com.cryptoArb.domain;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.time.Instant;
+
+/**
+ * One step in the life of an arbitrage window on a (pair, buyExchange, sellExchange) route.
+ *
+ * A window that stays open across hundreds of ticks produces one OPEN, a few UPDATEs
+ * (only on a material change) and one CLOSE, instead of hundreds of near-identical opportunities.
+ *
+ * @param type                 OPEN, UPDATE or CLOSE
+ * @param pair                 The currency pair
+ * @param buyExchange          The exchange to buy from
+ * @param sellExchange         The exchange to sell at
+ * @param openedAt             The time the window opened (first detection)
+ * @param eventTime            The time of this event (the closing price's time for CLOSE)
+ * @param latest               The most recent opportunity detected on the route
+ * @param peakProfitPercentage The highest profit percentage seen while the window was open
+ * @param detections           How many detections the window has coalesced so far
+ */
+public record OpportunityLifecycleEvent(
+        Type type,
+        CurrencyPair pair,
+        Exchange buyExchange,
+        Exchange sellExchange,
+        Instant openedAt,
+        Instant eventTime,
+        ArbitrageOpportunity latest,
+        BigDecimal peakProfitPercentage,
+        long detections
+) {
+
+    public enum Type {
+        OPEN,
+        UPDATE,
+        CLOSE
+    }
+
+    /**
+     * @return How long the window has been open at the time of this event.
+     */
+    public Duration duration() {
+        return Duration.between(openedAt, eventTime);
+    }
+}
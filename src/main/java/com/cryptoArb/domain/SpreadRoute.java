@@ -0,0 +1,23 @@
+package com.cryptoArb.domain;
+
+import java.math.BigDecimal;
+
+/**
+ * One ranked exchange-to-exchange route for a pair: buy on one venue, sell on another.
+ *
+ * @param pair         The currency pair
+ * @param buyExchange  The exchange to buy from (at its ask)
+ * @param buyPrice     That exchange's latest ask
+ * @param sellExchange The exchange to sell at (at its bid)
+ * @param sellPrice    That exchange's latest bid
+ * @param spread       sellPrice - buyPrice; positive means the route is an arbitrage
+ */
+public record SpreadRoute(
+        CurrencyPair pair,
+        Exchange buyExchange,
+        BigDecimal buyPrice,
+        Exchange sellExchange,
+        BigDecimal sellPrice,
+        BigDecimal spread
+) {
+}
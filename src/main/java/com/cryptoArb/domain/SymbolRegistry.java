@@ -0,0 +1,136 @@
+package com.cryptoArb.domain;
+
+import java.util.Arrays;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Interns CurrencyPair and Exchange values to canonical instances with dense int ids.
+ *
+ * Ids start at 0 and grow by one for every new value, so hot-path code can replace
+ * a HashMap keyed by pair (two String hashes per lookup) with a plain array indexed
+ * by id, and an exchange filter with an int compare or a BitSet test.
+ *
+ * Ids are only stable for the lifetime of the registry (i.e. the process);
+ * never persist them.
+ *
+ * Lookups of known values are lock-free; registering a new value takes a short lock.
+ */
+public final class SymbolRegistry {
+
+    private static final SymbolRegistry GLOBAL = new SymbolRegistry();
+
+    private final Map<CurrencyPair, Integer> pairIds = new ConcurrentHashMap<>();
+    private final Map<Exchange, Integer> exchangeIds = new ConcurrentHashMap<>();
+
+    // Canonical instances, indexed by id. Replaced (copy-on-write) when a value is added.
+    private volatile CurrencyPair[] pairs = new CurrencyPair[0];
+    private volatile Exchange[] exchanges = new Exchange[0];
+
+    /**
+     * @return The process-wide registry shared by all services.
+     */
+    public static SymbolRegistry global() {
+        return GLOBAL;
+    }
+
+    /**
+     * Returns the id of a pair, registering it if it is new.
+     */
+    public int pairId(CurrencyPair pair) {
+        Integer id = pairIds.get(pair);
+        return id != null ? id : registerPair(pair);
+    }
+
+    /**
+     * Returns the id of an exchange, registering it if it is new.
+     */
+    public int exchangeId(Exchange exchange) {
+        Integer id = exchangeIds.get(exchange);
+        return id != null ? id : registerExchange(exchange);
+    }
+
+    /**
+     * @return The id of a pair, or -1 if it was never registered.
+     */
+    public int findPairId(CurrencyPair pair) {
+        Integer id = pairIds.get(pair);
+        return id == null ? -1 : id;
+    }
+
+    /**
+     * @return The id of an exchange, or -1 if it was never registered.
+     */
+    public int findExchangeId(Exchange exchange) {
+        Integer id = exchangeIds.get(exchange);
+        return id == null ? -1 : id;
+    }
+
+    /**
+     * @return The canonical pair for an id.
+     * @throws ArrayIndexOutOfBoundsException if the id was never assigned.
+     */
+    public CurrencyPair pair(int id) {
+        return pairs[id];
+    }
+
+    /**
+     * @return The canonical exchange for an id.
+     * @throws ArrayIndexOutOfBoundsException if the id was never assigned.
+     */
+    public Exchange exchange(int id) {
+        return exchanges[id];
+    }
+
+    /**
+     * @return The canonical instance equal to the given pair (registering it if new).
+     */
+    public CurrencyPair intern(CurrencyPair pair) {
+        return pair(pairId(pair));
+    }
+
+    /**
+     * @return The canonical instance equal to the given exchange (registering it if new).
+     */
+    public Exchange intern(Exchange exchange) {
+        return exchange(exchangeId(exchange));
+    }
+
+    /** @return The number of registered pairs; ids run from 0 to pairCount() - 1. */
+    public int pairCount() {
+        return pairs.length;
+    }
+
+    /** @return The number of registered exchanges; ids run from 0 to exchangeCount() - 1. */
+    public int exchangeCount() {
+        return exchanges.length;
+    }
+
+    private synchronized int registerPair(CurrencyPair pair) {
+        // Another thread may have registered it while we waited for the lock
+        Integer existing = pairIds.get(pair);
+        if (existing != null) {
+            return existing;
+        }
+        int id = pairs.length;
+        CurrencyPair[] grown = Arrays.copyOf(pairs, id + 1);
+        grown[id] = pair;
+        // Publish the array before the id, so pair(id) never sees a stale array
+        pairs = grown;
+        pairIds.put(pair, id);
+        return id;
+    }
+
+    private synchronized int registerExchange(Exchange exchange) {
+        Integer existing = exchangeIds.get(exchange);
+        if (existing != null) {
+            return existing;
+        }
+        int id = exchanges.length;
+        Exchange[] grown = Arrays.copyOf(exchanges, id + 1);
+        grown[id] = exchange;
+        exchanges = grown;
+        exchangeIds.put(exchange, id);
+        return id;
+    }
+}
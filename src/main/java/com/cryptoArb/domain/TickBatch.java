@@ -0,0 +1,216 @@
+package com.cryptoArb.domain;
+
+import java.time.Instant;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * A batch of price ticks stored column by column ("struct of arrays").
+ *
+ * A List<PriceTick> holds one object per tick, each pointing to its own Instant and
+ * two BigDecimals scattered around the heap. Here every field lives in its own
+ * primitive array instead:
+ * - pairIds / exchangeIds : dense ids from a {@link SymbolRegistry}
+ * - timestamps            : epoch nanoseconds
+ * - bids / asks           : fixed-point prices (see {@link FixedPointPrice})
+ *
+ * That is 32 bytes per tick, read sequentially by the aggregation kernels.
+ * A TickBatch is immutable once built; use {@link Builder} to create one.
+ */
+public final class TickBatch {
+
+    private final SymbolRegistry registry;
+    private final int pairCount;
+    private final int exchangeCount;
+    private final int size;
+    private final int[] pairIds;
+    private final int[] exchangeIds;
+    private final long[] timestamps;
+    private final long[] bids;
+    private final long[] asks;
+
+    private TickBatch(Builder builder) {
+        this.registry = builder.registry;
+        this.pairCount = registry.pairCount();
+        this.exchangeCount = registry.exchangeCount();
+        this.size = builder.size;
+        this.pairIds = Arrays.copyOf(builder.pairIds, size);
+        this.exchangeIds = Arrays.copyOf(builder.exchangeIds, size);
+        this.timestamps = Arrays.copyOf(builder.timestamps, size);
+        this.bids = Arrays.copyOf(builder.bids, size);
+        this.asks = Arrays.copyOf(builder.asks, size);
+    }
+
+    /**
+     * Builds a batch from a list of ticks (prices rounded to 8 decimal places),
+     * using ids from the global registry.
+     */
+    public static TickBatch of(List<PriceTick> ticks) {
+        Builder builder = new Builder(SymbolRegistry.global(), ticks.size());
+        for (PriceTick tick : ticks) {
+            builder.add(tick);
+        }
+        return builder.build();
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public SymbolRegistry registry() {
+        return registry;
+    }
+
+    /**
+     * @return An upper bound for the pair ids in this batch (registry size when built),
+     * suitable for sizing arrays indexed by pair id.
+     */
+    public int pairCount() {
+        return pairCount;
+    }
+
+    /**
+     * @return An upper bound for the exchange ids in this batch (registry size when built).
+     */
+    public int exchangeCount() {
+        return exchangeCount;
+    }
+
+    public CurrencyPair pair(int pairId) {
+        return registry.pair(pairId);
+    }
+
+    public Exchange exchange(int exchangeId) {
+        return registry.exchange(exchangeId);
+    }
+
+    /** @return The id of a pair, or -1 if the registry has never seen it. */
+    public int pairId(CurrencyPair pair) {
+        return registry.findPairId(pair);
+    }
+
+    /** @return The id of an exchange, or -1 if the registry has never seen it. */
+    public int exchangeId(Exchange exchange) {
+        return registry.findExchangeId(exchange);
+    }
+
+    public int pairIdAt(int index) {
+        return pairIds[index];
+    }
+
+    public int exchangeIdAt(int index) {
+        return exchangeIds[index];
+    }
+
+    /** @return The timestamp of a tick in epoch nanoseconds. */
+    public long timestampAt(int index) {
+        return timestamps[index];
+    }
+
+    /** @return The bid of a tick, scaled by 10^8. */
+    public long bidAt(int index) {
+        return bids[index];
+    }
+
+    /** @return The ask of a tick, scaled by 10^8. */
+    public long askAt(int index) {
+        return asks[index];
+    }
+
+    /**
+     * Materializes one row back into a PriceTick (for API edges and debugging).
+     */
+    public PriceTick tickAt(int index) {
+        return new PriceTick(
+                registry.pair(pairIds[index]),
+                registry.exchange(exchangeIds[index]),
+                toInstant(timestamps[index]),
+                FixedPointPrice.toBigDecimal(bids[index]),
+                FixedPointPrice.toBigDecimal(asks[index])
+        );
+    }
+
+    /**
+     * @return An Instant as epoch nanoseconds (valid up to the year 2262).
+     */
+    public static long toEpochNanos(Instant instant) {
+        return Math.addExact(Math.multiplyExact(instant.getEpochSecond(), 1_000_000_000L), instant.getNano());
+    }
+
+    public static Instant toInstant(long epochNanos) {
+        return Instant.ofEpochSecond(Math.floorDiv(epochNanos, 1_000_000_000L), Math.floorMod(epochNanos, 1_000_000_000L));
+    }
+
+
+    /**
+     * Collects ticks row by row into growable primitive columns.
+     */
+    public static final class Builder {
+
+        private final SymbolRegistry registry;
+
+        private int size;
+        private int[] pairIds;
+        private int[] exchangeIds;
+        private long[] timestamps;
+        private long[] bids;
+        private long[] asks;
+
+        public Builder(int expectedSize) {
+            this(SymbolRegistry.global(), expectedSize);
+        }
+
+        public Builder(SymbolRegistry registry, int expectedSize) {
+            this.registry = registry;
+            int capacity = Math.max(expectedSize, 16);
+            pairIds = new int[capacity];
+            exchangeIds = new int[capacity];
+            timestamps = new long[capacity];
+            bids = new long[capacity];
+            asks = new long[capacity];
+        }
+
+        public Builder add(PriceTick tick) {
+            return add(tick.pair(), tick.exchange(), toEpochNanos(tick.timestamp()),
+                    FixedPointPrice.fromBigDecimal(tick.bidPrice()),
+                    FixedPointPrice.fromBigDecimal(tick.askPrice()));
+        }
+
+        public Builder add(FixedPointTick tick) {
+            return add(tick.pair(), tick.exchange(), toEpochNanos(tick.timestamp()), tick.bidPrice(), tick.askPrice());
+        }
+
+        /**
+         * Appends one row.
+         *
+         * @param epochNanos The tick time in epoch nanoseconds.
+         * @param bid        The bid, scaled by 10^8.
+         * @param ask        The ask, scaled by 10^8.
+         */
+        public Builder add(CurrencyPair pair, Exchange exchange, long epochNanos, long bid, long ask) {
+            if (size == pairIds.length) {
+                grow();
+            }
+            pairIds[size] = registry.pairId(pair);
+            exchangeIds[size] = registry.exchangeId(exchange);
+            timestamps[size] = epochNanos;
+            bids[size] = bid;
+            asks[size] = ask;
+            size++;
+            return this;
+        }
+
+        public TickBatch build() {
+            return new TickBatch(this);
+        }
+
+        private void grow() {
+            int capacity = pairIds.length * 2;
+            pairIds = Arrays.copyOf(pairIds, capacity);
+            exchangeIds = Arrays.copyOf(exchangeIds, capacity);
+            timestamps = Arrays.copyOf(timestamps, capacity);
+            bids = Arrays.copyOf(bids, capacity);
+            asks = Arrays.copyOf(asks, capacity);
+        }
+    }
+}
@@ -0,0 +1,59 @@
+package com.cryptoArb.domain;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.util.List;
+
+/**
+ * A profitable cycle of three conversions that starts and ends in the same currency,
+ * e.g. USD -> BTC -> ETH -> USD.
+ *
+ * @param timestamp   The time of the most recent price used by the cycle
+ * @param legs        The three conversions, in execution order
+ * @param finalAmount How much of the start currency one unit turns into after the three legs (> 1)
+ */
+public record TriangularArbitrageOpportunity(
+        Instant timestamp,
+        List<Leg> legs,
+        BigDecimal finalAmount
+) {
+
+    public TriangularArbitrageOpportunity {
+        legs = List.copyOf(legs);
+    }
+
+    /**
+     * @return The currency the cycle starts and ends in.
+     */
+    public String startCurrency() {
+        return legs.get(0).fromCurrency();
+    }
+
+    /**
+     * Calculates the profit percentage of one round trip.
+     * Formula: finalAmount - 1
+     *
+     * @return The profit as a percentage (e.g., 0.01 for 1%).
+     */
+    public BigDecimal profitPercentage() {
+        return finalAmount.subtract(BigDecimal.ONE);
+    }
+
+    /**
+     * One conversion of the cycle.
+     *
+     * @param pair         The pair traded
+     * @param fromCurrency The currency given
+     * @param toCurrency   The currency received
+     * @param exchange     Where the conversion happens (best bid or best ask exchange)
+     * @param price        The pair's price used: best bid when selling the base, best ask when buying it
+     */
+    public record Leg(
+            CurrencyPair pair,
+            String fromCurrency,
+            String toCurrency,
+            Exchange exchange,
+            BigDecimal price
+    ) {
+    }
+}
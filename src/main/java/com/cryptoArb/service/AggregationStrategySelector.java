@@ -0,0 +1,267 @@
+package com.cryptoArb.service;
+
+import com.cryptoArb.domain.CurrencyPair;
+import com.cryptoArb.domain.Exchange;
+import com.cryptoArb.domain.PriceTick;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.util.*;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Picks SEQUENTIAL, PARALLEL or SHARDED aggregation for each call.
+ *
+ * BenchmarkRunner shows that fanning out is not always faster: on a small batch the
+ * fork/join overhead is larger than the work, and on a single core it never pays off.
+ * The selector decides per call from:
+ * - the input size, against a threshold measured once by {@link #calibrate(ParallelConsolidationEngine)},
+ * - the number of distinct pairs, estimated from a small sample at the head of the input,
+ * - the number of workers available.
+ *
+ * Every decision is counted (see {@link #decisionCount(Strategy)}), so the mix can be
+ * exported as metrics.
+ */
+public class AggregationStrategySelector {
+
+    public enum Strategy {
+        /** {@link PriceService#aggregatePrices(List)} on the calling thread. */
+        SEQUENTIAL,
+        /** {@link PriceService#aggregatePricesParallel(List)} on the common pool. */
+        PARALLEL,
+        /** {@link ParallelConsolidationEngine#aggregate(List)} on the engine's own pool. */
+        SHARDED
+    }
+
+    /** How many ticks at the head of the input are used to estimate the pair count. */
+    static final int CARDINALITY_SAMPLE_SIZE = 256;
+
+    /**
+     * From this many distinct pairs on, PARALLEL loses: every stream split builds and
+     * merges a HashMap with one entry per pair, while SHARDED merges one id-indexed array per worker.
+     */
+    static final int HIGH_CARDINALITY_PAIRS = 64;
+
+    // Input sizes tried during calibration, smallest first
+    private static final int[] CALIBRATION_SIZES = {1_000, 4_000, 16_000, 64_000};
+    private static final int CALIBRATION_ROUNDS = 3;  // one per path, so each path runs once in each position
+    private static final int WARMUP_ROUNDS = 10;
+    private static final int WARMUP_SIZE = 16_000;
+    // When no calibrated size fans out faster, the extrapolated break-even is capped at this multiple of the largest size
+    static final int MAX_EXTRAPOLATION_FACTOR = 4;
+
+    private final ParallelConsolidationEngine engine;
+    private final int parallelThreshold;
+    private final boolean preferSharded;
+
+    private final Map<Strategy, LongAdder> decisions = new EnumMap<>(Strategy.class);
+    private final Map<Strategy, LongAdder> ticksRouted = new EnumMap<>(Strategy.class);
+
+    /**
+     * @param engine            The engine used for SHARDED aggregation; its parallelism is the worker count.
+     * @param parallelThreshold The smallest input that is worth fanning out.
+     * @param preferSharded     Whether SHARDED beat PARALLEL for low pair counts when calibrated.
+     */
+    public AggregationStrategySelector(ParallelConsolidationEngine engine, int parallelThreshold, boolean preferSharded) {
+        if (parallelThreshold < 1) {
+            throw new IllegalArgumentException("Parallel threshold must be at least 1: " + parallelThreshold);
+        }
+        this.engine = engine;
+        this.parallelThreshold = parallelThreshold;
+        this.preferSharded = preferSharded;
+        for (Strategy strategy : Strategy.values()) {
+            decisions.put(strategy, new LongAdder());
+            ticksRouted.put(strategy, new LongAdder());
+        }
+    }
+
+    /**
+     * Measures, on synthetic ticks, from which input size fanning out beats a sequential pass,
+     * and whether SHARDED or PARALLEL is faster once it does. Takes a few hundred milliseconds;
+     * run it once at startup.
+     *
+     * If no calibrated size fans out faster (e.g. a loaded host at startup), fan-out is NOT
+     * turned off: the threshold is extrapolated from the two largest sizes, or, if fan-out
+     * does not even scale better, set to the largest calibrated size, so large catch-up
+     * batches still use every worker.
+     *
+     * With a single worker there is nothing to measure: every call goes SEQUENTIAL.
+     */
+    public static AggregationStrategySelector calibrate(ParallelConsolidationEngine engine) {
+        if (engine.parallelism() < 2) {
+            return new AggregationStrategySelector(engine, Integer.MAX_VALUE, true);
+        }
+
+        PriceService priceService = new PriceService();
+        List<PriceTick> sample = syntheticTicks(CALIBRATION_SIZES[CALIBRATION_SIZES.length - 1]);
+
+        // 1. Warm every path up before timing anything: otherwise the first path measured runs
+        //    interpreted, and the later ones reuse the code it got JIT-compiled (e.g. the Accumulator)
+        List<PriceTick> warmup = sample.subList(0, WARMUP_SIZE);
+        for (int round = 0; round < WARMUP_ROUNDS; round++) {
+            priceService.aggregatePrices(warmup);
+            priceService.aggregatePricesParallel(warmup);
+            engine.aggregate(warmup);
+        }
+
+        // 2. The first size where the faster fan-out beats sequential becomes the threshold
+        long[] sequentialTimes = new long[CALIBRATION_SIZES.length];
+        long[] fanOutTimes = new long[CALIBRATION_SIZES.length];
+        boolean preferSharded = true;
+        for (int i = 0; i < CALIBRATION_SIZES.length; i++) {
+            List<PriceTick> ticks = sample.subList(0, CALIBRATION_SIZES[i]);
+            long[] best = bestOfInterleaved(
+                    () -> priceService.aggregatePrices(ticks),
+                    () -> priceService.aggregatePricesParallel(ticks),
+                    () -> engine.aggregate(ticks));
+            long sequential = best[0];
+            long parallel = best[1];
+            long sharded = best[2];
+
+            // 3. Remember which fan-out won at the largest size measured so far
+            preferSharded = sharded <= parallel;
+            sequentialTimes[i] = sequential;
+            fanOutTimes[i] = Math.min(parallel, sharded);
+            if (fanOutTimes[i] < sequential) {
+                return new AggregationStrategySelector(engine, CALIBRATION_SIZES[i], preferSharded);
+            }
+        }
+
+        // 4. No size won: extrapolate instead of never fanning out
+        return new AggregationStrategySelector(engine,
+                extrapolateThreshold(CALIBRATION_SIZES, sequentialTimes, fanOutTimes), preferSharded);
+    }
+
+    /**
+     * Estimates where fanning out starts to win when none of the calibrated sizes showed it.
+     * Both timings are taken as straight lines through the two largest sizes; fan-out pays a
+     * fixed overhead but grows more slowly, so the lines cross at the break-even size.
+     *
+     * @return The break-even size, capped at MAX_EXTRAPOLATION_FACTOR times the largest size;
+     *         the largest size itself if fan-out does not grow more slowly.
+     */
+    static int extrapolateThreshold(int[] sizes, long[] sequentialTimes, long[] fanOutTimes) {
+        int last = sizes.length - 1;
+        int largest = sizes[last];
+        if (last == 0) {
+            return largest;
+        }
+        // Growth of each timing over the same size step; fan-out must grow more slowly to ever win
+        long sequentialGrowth = sequentialTimes[last] - sequentialTimes[last - 1];
+        long fanOutGrowth = fanOutTimes[last] - fanOutTimes[last - 1];
+        if (fanOutGrowth >= sequentialGrowth) {
+            return largest;
+        }
+        double gap = fanOutTimes[last] - sequentialTimes[last];
+        double breakEven = largest + gap * (sizes[last] - sizes[last - 1]) / (sequentialGrowth - fanOutGrowth);
+        return (int) Math.min(breakEven, (double) largest * MAX_EXTRAPOLATION_FACTOR);
+    }
+
+    /**
+     * Chooses the strategy for one aggregation call and records the decision.
+     */
+    public Strategy select(List<PriceTick> ticks) {
+        Strategy strategy = decide(ticks);
+        decisions.get(strategy).increment();
+        ticksRouted.get(strategy).add(ticks.size());
+        return strategy;
+    }
+
+    /**
+     * @return The engine used for SHARDED aggregation.
+     */
+    public ParallelConsolidationEngine engine() {
+        return engine;
+    }
+
+    public int parallelThreshold() {
+        return parallelThreshold;
+    }
+
+    public boolean prefersSharded() {
+        return preferSharded;
+    }
+
+    /**
+     * @return How many calls were routed to a strategy so far.
+     */
+    public long decisionCount(Strategy strategy) {
+        return decisions.get(strategy).sum();
+    }
+
+    /**
+     * @return How many ticks were aggregated with a strategy so far.
+     */
+    public long tickCount(Strategy strategy) {
+        return ticksRouted.get(strategy).sum();
+    }
+
+    private Strategy decide(List<PriceTick> ticks) {
+        // 1. Small batches (and single-worker engines) never pay for fork/join
+        if (engine.parallelism() < 2 || ticks.size() < parallelThreshold) {
+            return Strategy.SEQUENTIAL;
+        }
+        // 2. Many pairs: per-split HashMaps make PARALLEL merges expensive
+        if (estimatePairCount(ticks) >= HIGH_CARDINALITY_PAIRS) {
+            return Strategy.SHARDED;
+        }
+        // 3. Few pairs: whichever fan-out won the calibration
+        return preferSharded ? Strategy.SHARDED : Strategy.PARALLEL;
+    }
+
+    /**
+     * Counts the distinct pairs in the first ticks of the input. A lower bound of the true count.
+     */
+    static int estimatePairCount(List<PriceTick> ticks) {
+        int sampleSize = Math.min(ticks.size(), CARDINALITY_SAMPLE_SIZE);
+        Set<CurrencyPair> pairs = new HashSet<>();
+        for (int i = 0; i < sampleSize; i++) {
+            pairs.add(ticks.get(i).pair());
+        }
+        return pairs.size();
+    }
+
+    /**
+     * Times every path CALIBRATION_ROUNDS times, rotating the order each round so that no
+     * path always runs first (cold caches) or right after another one (warm caches).
+     *
+     * @return The best time of each path, in the order given.
+     */
+    private static long[] bestOfInterleaved(Runnable... paths) {
+        long[] best = new long[paths.length];
+        Arrays.fill(best, Long.MAX_VALUE);
+        for (int round = 0; round < CALIBRATION_ROUNDS; round++) {
+            for (int i = 0; i < paths.length; i++) {
+                int path = (round + i) % paths.length;
+                long start = System.nanoTime();
+                paths[path].run();
+                best[path] = Math.min(best[path], System.nanoTime() - start);
+            }
+        }
+        return best;
+    }
+
+    private static List<PriceTick> syntheticTicks(int count) {
+        // A fixed seed keeps calibrations comparable between restarts
+        Random random = new Random(42);
+        List<CurrencyPair> pairs = List.of(
+                new CurrencyPair("BTC", "USD"), new CurrencyPair("ETH", "USD"),
+                new CurrencyPair("BTC", "EUR"), new CurrencyPair("LTC", "USD"));
+        List<Exchange> exchanges = List.of(
+                new Exchange("coinbase"), new Exchange("kraken"),
+                new Exchange("binance"), new Exchange("bitfinex"));
+        Instant now = Instant.now();
+
+        List<PriceTick> ticks = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            BigDecimal bid = BigDecimal.valueOf(50_000_00 + random.nextInt(10_000), 2);
+            ticks.add(new PriceTick(
+                    pairs.get(random.nextInt(pairs.size())),
+                    exchanges.get(random.nextInt(exchanges.size())),
+                    now.minusSeconds(random.nextInt(3600)),
+                    bid,
+                    bid.add(new BigDecimal("0.50"))));
+        }
+        return ticks;
+    }
+}
@@ -6,12 +6,34 @@ import com.cryptoArb.domain.CurrencyPair;
 
 import java.util.List;
 import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.concurrent.CopyOnWriteArrayList;
 import java.util.stream.Collectors;
 
-public class ArbitrageService {
+public class ArbitrageService implements ConsolidatedPriceListener {
+
+    // Optional: when set, a crossing must also clear fees, withdrawal costs and the pair's minimum profit
+    private final ProfitEngine profitEngine;
+
+    // Push mode: notified of every opportunity found by onPriceChanged
+    private final List<OpportunityListener> listeners = new CopyOnWriteArrayList<>();
+
+    public ArbitrageService() {
+        this(null);
+    }
+
+    /**
+     * @param profitEngine The fee-aware check applied after "bestBid > bestAsk"; may be null.
+     */
+    public ArbitrageService(ProfitEngine profitEngine) {
+        this.profitEngine = profitEngine;
+    }
+
     /**
      * Finds arbitrage opportunities from a map of consolidated prices.
-     * An opportunity exists if a pair's bestBid > bestAsk.
+     * An opportunity exists if a pair's bestBid > bestAsk
+     * (and, with a ProfitEngine, if the crossing is still profitable after costs).
      *
      * @param priceMap A Map of CurrencyPair to ConsolidatedPrice.
      * @return A List of ArbitrageOpportunity objects.
@@ -31,8 +53,10 @@ public class ArbitrageService {
                 // 2. Green Phase: Map (Transform the data)
                 //    Convert the ConsolidatedPrice object into an
                 //    ArbitrageOpportunity object.
+                //    (The ProfitEngine returns null, without allocating, for a crossing that loses after fees.)
                 //
                 .map(this::createOpportunityFromPrice)
+                .filter(Objects::nonNull)
                 //
                 // 3. Refactor Phase: Collect (Return the result)
                 //    Collect all found opportunities into a List.
@@ -40,6 +64,63 @@ public class ArbitrageService {
                 .collect(Collectors.toList());
     }
 
+    /**
+     * Checks ONE pair's consolidated price.
+     *
+     * @param price The pair's current consolidated price.
+     * @return The opportunity, or Optional.empty() if the pair is not crossed (or not profitable after costs).
+     */
+    public Optional<ArbitrageOpportunity> findOpportunity(ConsolidatedPrice price) {
+        if (price.bestBid().compareTo(price.bestAsk()) <= 0) {
+            return Optional.empty();
+        }
+        return Optional.ofNullable(createOpportunityFromPrice(price));
+    }
+
+    // --- PUSH MODE ---
+
+    /**
+     * Switches to push mode for a book: from now on, every consolidated-price change of the
+     * book is evaluated for that pair only, and opportunities go to the registered listeners.
+     * The work is O(changes) instead of a scan of every pair per polling cycle.
+     *
+     * @param book The book whose changes to evaluate.
+     */
+    public void subscribeTo(ConsolidatedBook book) {
+        book.addListener(this);
+    }
+
+    public void unsubscribeFrom(ConsolidatedBook book) {
+        book.removeListener(this);
+    }
+
+    public void addOpportunityListener(OpportunityListener listener) {
+        listeners.add(listener);
+    }
+
+    public void removeOpportunityListener(OpportunityListener listener) {
+        listeners.remove(listener);
+    }
+
+    /**
+     * Evaluates the pair whose price just changed and notifies the listeners:
+     * onOpportunity if the pair offers one, onNoOpportunity otherwise.
+     */
+    @Override
+    public void onPriceChanged(ConsolidatedPrice price) {
+        if (listeners.isEmpty()) {
+            return;
+        }
+        Optional<ArbitrageOpportunity> opportunity = findOpportunity(price);
+        for (OpportunityListener listener : listeners) {
+            if (opportunity.isPresent()) {
+                listener.onOpportunity(opportunity.get());
+            } else {
+                listener.onNoOpportunity(price);
+            }
+        }
+    }
+
     /**
      * Helper method to map a ConsolidatedPrice to an ArbitrageOpportunity.
      * Note the logic flip:
@@ -47,6 +128,13 @@ public class ArbitrageService {
      * - We SELL at the Best BID.
      */
     private ArbitrageOpportunity createOpportunityFromPrice(ConsolidatedPrice price) {
+        // A broken quote (zero or negative price) is no opportunity; it must not abort the scan of the other pairs
+        if (price.bestAsk().signum() <= 0 || price.bestBid().signum() <= 0) {
+            return null;
+        }
+        if (profitEngine != null) {
+            return profitEngine.evaluate(price);
+        }
         return new ArbitrageOpportunity(
                 price.pair(),
                 price.timestamp(),
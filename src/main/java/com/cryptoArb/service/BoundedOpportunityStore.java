@@ -0,0 +1,212 @@
+package com.cryptoArb.service;
+
+import com.cryptoArb.domain.ArbitrageOpportunity;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * A bounded, preallocated store for arbitrage opportunities.
+ *
+ * {@link OpportunityAggregator} keeps every opportunity until its readers release it and its
+ * consumers drain it; if they fall behind in a volatile market, that is unbounded heap growth.
+ * Here the opportunities live in ONE array
+ * allocated up front, used as a ring (head index + size), so memory stays flat however
+ * many opportunities arrive. What happens when the ring is full is the {@link OverflowPolicy}:
+ * - OVERWRITE_OLDEST: the oldest opportunity is evicted (keep the freshest data),
+ * - DROP_NEWEST: the new opportunity is rejected (keep what we have),
+ * - BLOCK: the producer waits until a consumer polls (backpressure).
+ *
+ * Drops, overwrites and occupancy are counted, so a too-small capacity shows up in metrics
+ * instead of as silent data loss.
+ *
+ * Thread-safe: one lock guards the ring; BLOCK producers wait on a condition of that lock.
+ */
+public class BoundedOpportunityStore {
+
+    public enum OverflowPolicy {
+        OVERWRITE_OLDEST,
+        DROP_NEWEST,
+        BLOCK
+    }
+
+    private final ArbitrageOpportunity[] ring;
+    private final OverflowPolicy policy;
+
+    private int head;  // index of the oldest opportunity
+    private int size;
+
+    private final Lock lock = new ReentrantLock();
+    private final Condition notFull = lock.newCondition();
+
+    // Metrics; LongAdders so they can be read without the lock
+    private final LongAdder added = new LongAdder();
+    private final LongAdder dropped = new LongAdder();
+    private final LongAdder overwritten = new LongAdder();
+
+    /**
+     * @param capacity The maximum number of opportunities held; allocated up front.
+     * @param policy   What to do when the store is full.
+     */
+    public BoundedOpportunityStore(int capacity, OverflowPolicy policy) {
+        if (capacity <= 0) {
+            throw new IllegalArgumentException("Capacity must be positive: " + capacity);
+        }
+        this.ring = new ArbitrageOpportunity[capacity];
+        this.policy = policy;
+    }
+
+    /**
+     * Adds an opportunity, applying the overflow policy if the store is full.
+     * Under BLOCK this waits for space; if the thread is interrupted while waiting,
+     * the opportunity is dropped and the interrupt flag is restored.
+     *
+     * @return true if the opportunity was stored, false if it was dropped.
+     */
+    public boolean addOpportunity(ArbitrageOpportunity opportunity) {
+        try {
+            return offer(opportunity, Long.MAX_VALUE, TimeUnit.NANOSECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            dropped.increment();
+            return false;
+        }
+    }
+
+    /**
+     * Adds an opportunity, waiting at most the given time for space under BLOCK.
+     * The other policies never wait.
+     *
+     * @return true if the opportunity was stored, false if it was dropped.
+     */
+    public boolean offer(ArbitrageOpportunity opportunity, long timeout, TimeUnit unit) throws InterruptedException {
+        lock.lock();
+        try {
+            // 1. Full: apply the policy
+            if (size == ring.length) {
+                switch (policy) {
+                    case DROP_NEWEST -> {
+                        dropped.increment();
+                        return false;
+                    }
+                    case OVERWRITE_OLDEST -> {
+                        removeOldest();
+                        overwritten.increment();
+                    }
+                    case BLOCK -> {
+                        long nanos = unit.toNanos(timeout);
+                        while (size == ring.length) {
+                            if (nanos <= 0) {
+                                dropped.increment();
+                                return false;
+                            }
+                            nanos = notFull.awaitNanos(nanos);
+                        }
+                    }
+                }
+            }
+
+            // 2. Write into the slot after the newest
+            ring[(head + size) % ring.length] = opportunity;
+            size++;
+            added.increment();
+            return true;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Removes and returns the oldest opportunity, freeing its slot for a blocked producer.
+     *
+     * @return The oldest opportunity, or null if the store is empty.
+     */
+    public ArbitrageOpportunity poll() {
+        lock.lock();
+        try {
+            if (size == 0) {
+                return null;
+            }
+            ArbitrageOpportunity oldest = removeOldest();
+            notFull.signal();
+            return oldest;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Returns a snapshot of the stored opportunities, oldest first.
+     */
+    public List<ArbitrageOpportunity> getOpportunities() {
+        lock.lock();
+        try {
+            List<ArbitrageOpportunity> snapshot = new ArrayList<>(size);
+            for (int i = 0; i < size; i++) {
+                snapshot.add(ring[(head + i) % ring.length]);
+            }
+            return snapshot;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public int getOpportunityCount() {
+        lock.lock();
+        try {
+            return size;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public int capacity() {
+        return ring.length;
+    }
+
+    public OverflowPolicy policy() {
+        return policy;
+    }
+
+    /**
+     * @return The fraction of the capacity in use, from 0.0 (empty) to 1.0 (full).
+     */
+    public double occupancy() {
+        return (double) getOpportunityCount() / ring.length;
+    }
+
+    /**
+     * @return How many opportunities have been stored since creation.
+     */
+    public long addedCount() {
+        return added.sum();
+    }
+
+    /**
+     * @return How many opportunities were rejected (DROP_NEWEST, or BLOCK timing out).
+     */
+    public long droppedCount() {
+        return dropped.sum();
+    }
+
+    /**
+     * @return How many stored opportunities were evicted to make room (OVERWRITE_OLDEST).
+     */
+    public long overwrittenCount() {
+        return overwritten.sum();
+    }
+
+    private ArbitrageOpportunity removeOldest() {
+        ArbitrageOpportunity oldest = ring[head];
+        // Clear the slot so the evicted opportunity can be collected
+        ring[head] = null;
+        head = (head + 1) % ring.length;
+        size--;
+        return oldest;
+    }
+}
@@ -0,0 +1,300 @@
+package com.cryptoArb.service;
+
+import com.cryptoArb.domain.ConsolidatedPrice;
+import com.cryptoArb.domain.CurrencyPair;
+import com.cryptoArb.domain.Exchange;
+import com.cryptoArb.domain.FixedPointPrice;
+import com.cryptoArb.domain.FixedPointTick;
+import com.cryptoArb.domain.PriceTick;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * A live, incrementally maintained view of the consolidated price for every pair.
+ *
+ * Unlike {@link PriceService#aggregatePrices(java.util.List)}, which re-scans the whole
+ * tick history on every call, this book takes ticks one at a time:
+ * - It keeps only the LATEST quote per (CurrencyPair, Exchange).
+ * - Each pair tracks which exchange holds the best bid / best ask, so a tick is applied in O(1).
+ * - Only when the current best exchange makes its own quote WORSE do we rescan that pair's
+ *   exchanges (a handful of slots, never the tick history).
+ * - Prices are compared as fixed-point longs; BigDecimal is only produced on read.
+ *
+ * Reads return the current ConsolidatedPrice without touching any ticks.
+ * Push mode: registered {@link ConsolidatedPriceListener}s receive the new price of a pair
+ * each time a tick changes it, so consumers react to changes instead of polling the book.
+ *
+ * Supported range: a BigDecimal tick is validated once, at this feed boundary. A price outside
+ * [{@link FixedPointPrice#MIN_PRICE}, {@link FixedPointPrice#MAX_PRICE}] (about +/-92 billion) has
+ * no fixed-point value, so the tick is rejected and counted ({@link #rejectedTickCount()})
+ * instead of throwing from the hot path.
+ *
+ * The book is thread-safe: each pair is guarded by its own monitor.
+ */
+public class ConsolidatedBook {
+
+    private final Map<CurrencyPair, PairBook> books = new ConcurrentHashMap<>();
+
+    // Registered rarely, iterated on every change: copy-on-write fits
+    private final List<ConsolidatedPriceListener> listeners = new CopyOnWriteArrayList<>();
+
+    // Ticks refused because a price is outside the fixed-point range
+    private final LongAdder rejectedTicks = new LongAdder();
+
+    /**
+     * Registers a listener for consolidated-price changes.
+     * It is called on the thread that applied the tick, after the change.
+     */
+    public void addListener(ConsolidatedPriceListener listener) {
+        listeners.add(listener);
+    }
+
+    public void removeListener(ConsolidatedPriceListener listener) {
+        listeners.remove(listener);
+    }
+
+    /**
+     * Applies a single tick to the book.
+     * A tick older than the quote we already hold for its exchange is ignored.
+     * A tick with a price outside the fixed-point range is rejected and counted.
+     *
+     * @param tick The new quote from an exchange.
+     * @return true if the consolidated price of the tick's pair changed.
+     */
+    public boolean onTick(PriceTick tick) {
+        // 1. Validate the range once here, so the conversions below cannot throw
+        if (!FixedPointPrice.fits(tick.bidPrice()) || !FixedPointPrice.fits(tick.askPrice())) {
+            rejectedTicks.increment();
+            return false;
+        }
+        PairBook book = bookFor(tick.pair());
+        boolean changed = book.apply(
+                tick.exchange(),
+                tick.timestamp(),
+                FixedPointPrice.fromBigDecimal(tick.bidPrice()),
+                FixedPointPrice.fromBigDecimal(tick.askPrice()),
+                tick.bidPrice(),
+                tick.askPrice()
+        );
+        return notifyIfChanged(book, changed);
+    }
+
+    /**
+     * Applies a single fixed-point tick to the book. No BigDecimal is touched until
+     * the consolidated price is read.
+     *
+     * @param tick The new quote from an exchange, in fixed point.
+     * @return true if the consolidated price of the tick's pair changed.
+     */
+    public boolean onTick(FixedPointTick tick) {
+        PairBook book = bookFor(tick.pair());
+        boolean changed = book.apply(
+                tick.exchange(),
+                tick.timestamp(),
+                tick.bidPrice(),
+                tick.askPrice(),
+                null,
+                null
+        );
+        return notifyIfChanged(book, changed);
+    }
+
+    /**
+     * @return The number of ticks rejected because a price is outside the fixed-point range.
+     */
+    public long rejectedTickCount() {
+        return rejectedTicks.sum();
+    }
+
+    private PairBook bookFor(CurrencyPair pair) {
+        return books.computeIfAbsent(pair, PairBook::new);
+    }
+
+    private boolean notifyIfChanged(PairBook book, boolean changed) {
+        // The ConsolidatedPrice is only built if someone is listening
+        if (changed && !listeners.isEmpty()) {
+            ConsolidatedPrice price = book.current();
+            for (ConsolidatedPriceListener listener : listeners) {
+                listener.onPriceChanged(price);
+            }
+        }
+        return changed;
+    }
+
+    /**
+     * Returns the current consolidated price for a pair.
+     *
+     * @param pair The CurrencyPair to look up.
+     * @return An Optional containing the ConsolidatedPrice, or Optional.empty() if no tick was seen.
+     */
+    public Optional<ConsolidatedPrice> getConsolidatedPrice(CurrencyPair pair) {
+        PairBook book = books.get(pair);
+        return book == null ? Optional.empty() : Optional.of(book.current());
+    }
+
+    /**
+     * Returns a point-in-time copy of the consolidated price of every known pair.
+     * Each pair is individually consistent; pairs are not read atomically together.
+     */
+    public Map<CurrencyPair, ConsolidatedPrice> snapshot() {
+        Map<CurrencyPair, ConsolidatedPrice> result = new HashMap<>();
+        books.forEach((pair, book) -> result.put(pair, book.current()));
+        return result;
+    }
+
+    /**
+     * Latest quote per exchange for ONE currency pair, plus the index of the best bid/ask slot.
+     * Prices are held in fixed point so every comparison is a primitive long compare.
+     */
+    private static final class PairBook {
+
+        // One slot per exchange that has quoted this pair. Exchanges per pair are few,
+        // so plain arrays with a linear lookup beat a HashMap here.
+        private Exchange[] exchanges = new Exchange[4];
+        private Instant[] timestamps = new Instant[4];
+        private long[] bids = new long[4];
+        private long[] asks = new long[4];
+        // The caller's original BigDecimal prices (null for fixed-point input), returned as-is on read
+        private BigDecimal[] bidValues = new BigDecimal[4];
+        private BigDecimal[] askValues = new BigDecimal[4];
+        private int size;
+
+        private final CurrencyPair pair;
+        private int bestBidSlot = -1;
+        private int bestAskSlot = -1;
+        private Instant latestTimestamp;
+
+        // Built lazily on read, dropped whenever the best bid/ask or timestamp changes
+        private ConsolidatedPrice cached;
+
+        PairBook(CurrencyPair pair) {
+            this.pair = pair;
+        }
+
+        synchronized boolean apply(Exchange exchange, Instant timestamp,
+                                   long bid, long ask, BigDecimal bidValue, BigDecimal askValue) {
+            int slot = slotFor(exchange);
+            boolean firstQuote = timestamps[slot] == null;
+
+            // 1. Out-of-order tick: we already hold a newer quote for this exchange
+            if (!firstQuote && timestamp.isBefore(timestamps[slot])) {
+                return false;
+            }
+            long previousBid = bids[slot];
+            long previousAsk = asks[slot];
+            timestamps[slot] = timestamp;
+            bids[slot] = bid;
+            asks[slot] = ask;
+            bidValues[slot] = bidValue;
+            askValues[slot] = askValue;
+
+            int oldBestBidSlot = bestBidSlot;
+            int oldBestAskSlot = bestAskSlot;
+            Instant oldLatest = latestTimestamp;
+
+            // 2. Best bid (HIGHEST)
+            if (bestBidSlot == -1) {
+                bestBidSlot = slot;
+            } else if (slot == bestBidSlot) {
+                // The best exchange moved its own bid. If it got worse, someone else may now be best.
+                if (!firstQuote && bid < previousBid) {
+                    bestBidSlot = rescanBestBid();
+                }
+            } else if (bid > bids[bestBidSlot]) {
+                bestBidSlot = slot;
+            }
+
+            // 3. Best ask (LOWEST)
+            if (bestAskSlot == -1) {
+                bestAskSlot = slot;
+            } else if (slot == bestAskSlot) {
+                if (!firstQuote && ask > previousAsk) {
+                    bestAskSlot = rescanBestAsk();
+                }
+            } else if (ask < asks[bestAskSlot]) {
+                bestAskSlot = slot;
+            }
+
+            // 4. Latest timestamp
+            if (latestTimestamp == null || timestamp.isAfter(latestTimestamp)) {
+                latestTimestamp = timestamp;
+            }
+
+            // 5. Did anything visible change? (A new quote in a best slot always counts.)
+            boolean changed = oldLatest == null
+                    || bestBidSlot != oldBestBidSlot
+                    || bestAskSlot != oldBestAskSlot
+                    || slot == bestBidSlot
+                    || slot == bestAskSlot
+                    || !latestTimestamp.equals(oldLatest);
+            if (changed) {
+                cached = null;
+            }
+            return changed;
+        }
+
+        synchronized ConsolidatedPrice current() {
+            if (cached == null) {
+                // Convert back to BigDecimal only here, at the API edge
+                cached = new ConsolidatedPrice(
+                        pair,
+                        latestTimestamp,
+                        bidValues[bestBidSlot] != null ? bidValues[bestBidSlot] : FixedPointPrice.toBigDecimal(bids[bestBidSlot]),
+                        exchanges[bestBidSlot],
+                        askValues[bestAskSlot] != null ? askValues[bestAskSlot] : FixedPointPrice.toBigDecimal(asks[bestAskSlot]),
+                        exchanges[bestAskSlot]
+                );
+            }
+            return cached;
+        }
+
+        private int slotFor(Exchange exchange) {
+            for (int i = 0; i < size; i++) {
+                if (exchanges[i].equals(exchange)) {
+                    return i;
+                }
+            }
+            // First quote from this exchange: grow the arrays if needed
+            if (size == exchanges.length) {
+                int capacity = size * 2;
+                exchanges = Arrays.copyOf(exchanges, capacity);
+                timestamps = Arrays.copyOf(timestamps, capacity);
+                bids = Arrays.copyOf(bids, capacity);
+                asks = Arrays.copyOf(asks, capacity);
+                bidValues = Arrays.copyOf(bidValues, capacity);
+                askValues = Arrays.copyOf(askValues, capacity);
+            }
+            exchanges[size] = exchange;
+            return size++;
+        }
+
+        private int rescanBestBid() {
+            int best = 0;
+            for (int i = 1; i < size; i++) {
+                if (bids[i] > bids[best]) {
+                    best = i;
+                }
+            }
+            return best;
+        }
+
+        private int rescanBestAsk() {
+            int best = 0;
+            for (int i = 1; i < size; i++) {
+                if (asks[i] < asks[best]) {
+                    best = i;
+                }
+            }
+            return best;
+        }
+    }
+}
@@ -0,0 +1,140 @@
+package com.cryptoArb.service;
+
+import com.cryptoArb.domain.ConsolidatedPrice;
+import com.cryptoArb.domain.CurrencyPair;
+import com.cryptoArb.domain.PriceTick;
+
+import java.util.Map;
+import java.util.stream.Collector;
+import java.util.stream.Collectors;
+
+/**
+ * Single-pass collectors that fold price ticks into ConsolidatedPrice objects.
+ *
+ * The old approach (groupingBy + collectingAndThen(toList(), ...)) first copied
+ * every tick into a per-pair List, then streamed that list three times
+ * (best bid, best ask, latest timestamp).
+ *
+ * Here each pair gets one small mutable {@link Accumulator} that tracks all three
+ * values while the ticks stream past. In a parallel stream, the combiner merges two
+ * accumulators in O(1), so merging two splits costs O(pairs) instead of concatenating lists.
+ */
+public final class ConsolidatedPriceCollector {
+
+    private ConsolidatedPriceCollector() {
+        // Static factory methods only
+    }
+
+    /**
+     * A downstream collector for the ticks of a *single* currency pair.
+     * The finisher returns null if no tick was collected.
+     *
+     * @return A Collector producing one ConsolidatedPrice.
+     */
+    public static Collector<PriceTick, ?, ConsolidatedPrice> toConsolidatedPrice() {
+        return Collector.of(
+                Accumulator::new,               // 1. supplier: a fresh, empty accumulator
+                Accumulator::accept,            // 2. accumulator: fold one tick in
+                Accumulator::combine,           // 3. combiner: merge two partial results (parallel)
+                Accumulator::toConsolidatedPrice // 4. finisher: build the immutable record
+        );
+    }
+
+    /**
+     * Groups ticks by pair and consolidates each group in a single pass.
+     *
+     * @return A Collector producing a Map of CurrencyPair to ConsolidatedPrice.
+     */
+    public static Collector<PriceTick, ?, Map<CurrencyPair, ConsolidatedPrice>> groupingByPair() {
+        return Collectors.groupingBy(PriceTick::pair, toConsolidatedPrice());
+    }
+
+
+    /**
+     * Mutable running state for one currency pair.
+     *
+     * Ties keep the tick seen first, which matches Stream.max()/min()
+     * in the previous implementation.
+     */
+    static final class Accumulator {
+
+        private PriceTick bestBidTick;
+        private PriceTick bestAskTick;
+        private PriceTick latestTick;
+
+        /**
+         * Folds a single tick into the running best bid / best ask / latest values.
+         */
+        void accept(PriceTick tick) {
+            // First tick seen: it is the best (and latest) of everything so far
+            if (latestTick == null) {
+                bestBidTick = tick;
+                bestAskTick = tick;
+                latestTick = tick;
+                return;
+            }
+
+            // HIGHEST bid wins
+            if (tick.bidPrice().compareTo(bestBidTick.bidPrice()) > 0) {
+                bestBidTick = tick;
+            }
+
+            // LOWEST ask wins
+            if (tick.askPrice().compareTo(bestAskTick.askPrice()) < 0) {
+                bestAskTick = tick;
+            }
+
+            // LATEST timestamp wins
+            if (tick.timestamp().isAfter(latestTick.timestamp())) {
+                latestTick = tick;
+            }
+        }
+
+        /**
+         * Merges another accumulator into this one.
+         * 'other' always holds ticks encountered *after* ours, so on ties we keep our own.
+         *
+         * @return this accumulator, now holding the merged state.
+         */
+        Accumulator combine(Accumulator other) {
+            if (other.isEmpty()) {
+                return this;
+            }
+            if (this.isEmpty()) {
+                return other;
+            }
+
+            if (other.bestBidTick.bidPrice().compareTo(bestBidTick.bidPrice()) > 0) {
+                bestBidTick = other.bestBidTick;
+            }
+            if (other.bestAskTick.askPrice().compareTo(bestAskTick.askPrice()) < 0) {
+                bestAskTick = other.bestAskTick;
+            }
+            if (other.latestTick.timestamp().isAfter(latestTick.timestamp())) {
+                latestTick = other.latestTick;
+            }
+            return this;
+        }
+
+        boolean isEmpty() {
+            return latestTick == null;
+        }
+
+        /**
+         * Builds the final ConsolidatedPrice, or null if no tick was ever accepted.
+         */
+        ConsolidatedPrice toConsolidatedPrice() {
+            if (isEmpty()) {
+                return null;
+            }
+            return new ConsolidatedPrice(
+                    latestTick.pair(),
+                    latestTick.timestamp(),
+                    bestBidTick.bidPrice(),
+                    bestBidTick.exchange(),
+                    bestAskTick.askPrice(),
+                    bestAskTick.exchange()
+            );
+        }
+    }
+}
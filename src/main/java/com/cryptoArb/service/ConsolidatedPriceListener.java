@@ -0,0 +1,17 @@
+package com.cryptoArb.service;
+
+import com.cryptoArb.domain.ConsolidatedPrice;
+
+/**
+ * Receives the new consolidated price of a pair whenever a {@link ConsolidatedBook} changes it.
+ *
+ * Called on the thread that applied the tick, so implementations should be quick and must not block.
+ */
+@FunctionalInterface
+public interface ConsolidatedPriceListener {
+
+    /**
+     * @param price The pair's consolidated price right after the change.
+     */
+    void onPriceChanged(ConsolidatedPrice price);
+}
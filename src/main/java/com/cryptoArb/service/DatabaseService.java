@@ -1,9 +1,11 @@
 package com.cryptoArb.service;
 
 import com.cryptoArb.domain.ArbitrageOpportunity;
+import com.cryptoArb.domain.OpportunityLifecycleEvent;
 import com.cryptoArb.domain.PriceTick;
 
 import java.sql.*;
+import java.util.List;
 
 /**
  * Manages all database persistence logic using Core JDBC (java.sql.*).
@@ -28,6 +30,12 @@ public class DatabaseService {
         VALUES (?, ?, ?, ?, ?, ?, ?, ?)
         """;
 
+    private static final String INSERT_OPPORTUNITY_LIFECYCLE_SQL = """
+        INSERT INTO opportunity_lifecycle
+        (base_currency, quote_currency, buy_exchange, sell_exchange, opened_at, closed_at,
+         duration_ms, detections, peak_profit_percentage, last_profit_percentage)
+        VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?)
+        """;
 
 
     /**
@@ -97,22 +105,7 @@ public class DatabaseService {
              PreparedStatement stmt = conn.prepareStatement(INSERT_ARBITRAGE_OPPORTUNITY_SQL)) {
 
             // Set the parameters for the PreparedStatement
-            // 1. base_currency
-            stmt.setString(1, opportunity.pair().base());
-            // 2. quote_currency
-            stmt.setString(2, opportunity.pair().quote());
-            // 3. timestamp
-            stmt.setTimestamp(3, Timestamp.from(opportunity.timestamp()));
-            // 4. buy_exchange
-            stmt.setString(4, opportunity.buyExchange().id());
-            // 5. buy_price
-            stmt.setBigDecimal(5, opportunity.buyPrice());
-            // 6. sell_exchange
-            stmt.setString(6, opportunity.sellExchange().id());
-            // 7. sell_price
-            stmt.setBigDecimal(7, opportunity.sellPrice());
-            // 8. profit_percentage
-            stmt.setBigDecimal(8, opportunity.profitPercentage());
+            bindOpportunity(stmt, opportunity);
 
             // Execute the insert statement
             stmt.executeUpdate();
@@ -123,4 +116,94 @@ public class DatabaseService {
             throw new RuntimeException("Failed to save opportunity", e);
         }
     }
+
+    /**
+     * Saves a batch of ArbitrageOpportunities in one round trip and one transaction,
+     * e.g. a batch handed over by {@link OpportunityAggregator#drainBatches}.
+     * Either the whole batch is saved or none of it is; on failure the exception propagates,
+     * so drainBatches keeps the batch pending and hands it out again.
+     *
+     * @param opportunities The opportunities to save; an empty list is a no-op.
+     */
+    public void saveOpportunities(List<ArbitrageOpportunity> opportunities) {
+        if (opportunities.isEmpty()) {
+            return;
+        }
+        try (Connection conn = DriverManager.getConnection(jdbcUrl, username, password);
+             PreparedStatement stmt = conn.prepareStatement(INSERT_ARBITRAGE_OPPORTUNITY_SQL)) {
+
+            conn.setAutoCommit(false);
+            try {
+                // 1. Queue one parameter set per opportunity...
+                for (ArbitrageOpportunity opportunity : opportunities) {
+                    bindOpportunity(stmt, opportunity);
+                    stmt.addBatch();
+                }
+                // 2. ...and send them together
+                stmt.executeBatch();
+                conn.commit();
+            } catch (SQLException e) {
+                conn.rollback();
+                throw e;
+            }
+
+        } catch (SQLException e) {
+            System.err.println("Error saving ArbitrageOpportunity batch: " + e.getMessage());
+            throw new RuntimeException("Failed to save opportunities", e);
+        }
+    }
+
+    private static void bindOpportunity(PreparedStatement stmt, ArbitrageOpportunity opportunity) throws SQLException {
+        // 1. base_currency
+        stmt.setString(1, opportunity.pair().base());
+        // 2. quote_currency
+        stmt.setString(2, opportunity.pair().quote());
+        // 3. timestamp
+        stmt.setTimestamp(3, Timestamp.from(opportunity.timestamp()));
+        // 4. buy_exchange
+        stmt.setString(4, opportunity.buyExchange().id());
+        // 5. buy_price
+        stmt.setBigDecimal(5, opportunity.buyPrice());
+        // 6. sell_exchange
+        stmt.setString(6, opportunity.sellExchange().id());
+        // 7. sell_price
+        stmt.setBigDecimal(7, opportunity.sellPrice());
+        // 8. profit_percentage
+        stmt.setBigDecimal(8, opportunity.profitPercentage());
+    }
+
+
+    /**
+     * Saves one opportunity window, as reported by {@link OpportunityLifecycleTracker}.
+     * One row per window replaces the hundreds of near-identical rows saveOpportunity
+     * would write while the window stays open; typically only CLOSE events are saved.
+     *
+     * @param event The lifecycle event to save; its eventTime is stored as closed_at.
+     */
+    public void saveOpportunityLifecycle(OpportunityLifecycleEvent event) {
+        try (Connection conn = DriverManager.getConnection(jdbcUrl, username, password);
+             PreparedStatement stmt = conn.prepareStatement(INSERT_OPPORTUNITY_LIFECYCLE_SQL)) {
+
+            // 1-4. The route
+            stmt.setString(1, event.pair().base());
+            stmt.setString(2, event.pair().quote());
+            stmt.setString(3, event.buyExchange().id());
+            stmt.setString(4, event.sellExchange().id());
+            // 5-7. When it opened and closed, and for how long
+            stmt.setTimestamp(5, Timestamp.from(event.openedAt()));
+            stmt.setTimestamp(6, Timestamp.from(event.eventTime()));
+            stmt.setLong(7, event.duration().toMillis());
+            // 8. How many raw detections the window coalesced
+            stmt.setLong(8, event.detections());
+            // 9-10. Peak and last profit percentage
+            stmt.setBigDecimal(9, event.peakProfitPercentage());
+            stmt.setBigDecimal(10, event.latest().profitPercentage());
+
+            stmt.executeUpdate();
+
+        } catch (SQLException e) {
+            System.err.println("Error saving OpportunityLifecycleEvent: " + e.getMessage());
+            throw new RuntimeException("Failed to save opportunity lifecycle", e);
+        }
+    }
 }
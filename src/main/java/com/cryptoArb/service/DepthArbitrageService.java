@@ -0,0 +1,178 @@
+package com.cryptoArb.service;
+
+import com.cryptoArb.domain.CurrencyPair;
+import com.cryptoArb.domain.DepthArbitrageOpportunity;
+import com.cryptoArb.domain.Exchange;
+import com.cryptoArb.domain.FixedPointPrice;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.time.Instant;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Consumer;
+
+/**
+ * Depth-aware arbitrage detection over {@link L2OrderBook}s.
+ *
+ * {@link ArbitrageService} compares top-of-book prices only, so it also flags spreads
+ * that are far too thin to trade. Here, for a buy book and a sell book of the same pair,
+ * we walk the buy book's asks upwards and the sell book's bids downwards for as long as
+ * the ask is below the bid. The quantity matched along the way is what can actually be
+ * executed, and its volume-weighted prices give the real profit.
+ *
+ * Cost per book update:
+ * 1. One long compare per other exchange (best ask vs best bid) rejects uncrossed books.
+ * 2. Only crossed books are walked, and only over the crossed levels.
+ * 3. BigDecimal values are built only for an opportunity that exists.
+ *
+ * Books are created and owned by this service, and the books of one pair are guarded by
+ * one per-pair monitor: {@link #applyUpdate(L2OrderBook, Consumer, Instant)} changes a book
+ * and runs detection under it, and {@link #onBookUpdate} and {@link #findOpportunities} walk
+ * the books under it. A book therefore never changes while another exchange's update is
+ * walking it, whichever feed threads the updates come from. Updates for different pairs
+ * still run in parallel.
+ */
+public class DepthArbitrageService {
+
+    // The per-pair map is also the monitor that serializes that pair's updates and walks
+    private final Map<CurrencyPair, Map<Exchange, L2OrderBook>> books = new ConcurrentHashMap<>();
+
+    /**
+     * Returns the book of a pair on an exchange, creating an empty one if needed.
+     */
+    public L2OrderBook book(CurrencyPair pair, Exchange exchange) {
+        return pairBooks(pair).computeIfAbsent(exchange, e -> new L2OrderBook(pair, e));
+    }
+
+    private Map<Exchange, L2OrderBook> pairBooks(CurrencyPair pair) {
+        return books.computeIfAbsent(pair, p -> new ConcurrentHashMap<>());
+    }
+
+    /**
+     * Applies an update to a book and checks it for opportunities, holding the pair's monitor
+     * so that no other update of the pair changes a book while it is walked.
+     *
+     * @param book      A book created by {@link #book(CurrencyPair, Exchange)}.
+     * @param update    The change, e.g. {@code b -> b.updateBid(price, quantity)}.
+     * @param timestamp The time of the update.
+     * @return The opportunities found; an immutable empty list (no allocation) if none.
+     */
+    public List<DepthArbitrageOpportunity> applyUpdate(L2OrderBook book, Consumer<L2OrderBook> update, Instant timestamp) {
+        synchronized (pairBooks(book.pair())) {
+            update.accept(book);
+            return onBookUpdate(book, timestamp);
+        }
+    }
+
+    /**
+     * Checks only the exchange combinations that involve the book that just changed:
+     * buying on it and selling anywhere else, and buying anywhere else and selling on it.
+     *
+     * @param updated   The book that was just updated.
+     * @param timestamp The time of the update.
+     * @return The opportunities found; an immutable empty list (no allocation) if none.
+     */
+    public List<DepthArbitrageOpportunity> onBookUpdate(L2OrderBook updated, Instant timestamp) {
+        Map<Exchange, L2OrderBook> pairBooks = pairBooks(updated.pair());
+        synchronized (pairBooks) {
+            List<DepthArbitrageOpportunity> result = List.of();
+            for (L2OrderBook other : pairBooks.values()) {
+                if (other == updated) {
+                    continue;
+                }
+                result = addIfPresent(result, evaluate(updated, other, timestamp));
+                result = addIfPresent(result, evaluate(other, updated, timestamp));
+            }
+            return result;
+        }
+    }
+
+    /**
+     * Checks every ordered (buy, sell) combination of exchanges for a pair.
+     */
+    public List<DepthArbitrageOpportunity> findOpportunities(CurrencyPair pair, Instant timestamp) {
+        Map<Exchange, L2OrderBook> pairBooks = books.get(pair);
+        if (pairBooks == null) {
+            return List.of();
+        }
+        synchronized (pairBooks) {
+            List<DepthArbitrageOpportunity> result = List.of();
+            for (L2OrderBook buyBook : pairBooks.values()) {
+                for (L2OrderBook sellBook : pairBooks.values()) {
+                    if (buyBook != sellBook) {
+                        result = addIfPresent(result, evaluate(buyBook, sellBook, timestamp));
+                    }
+                }
+            }
+            return result;
+        }
+    }
+
+    /**
+     * Sizes the opportunity of buying on one book and selling on another.
+     *
+     * @param buyBook   The book whose asks we buy from.
+     * @param sellBook  The book whose bids we sell to.
+     * @param timestamp The time to stamp on the opportunity.
+     * @return The opportunity, or null if the books do not cross.
+     */
+    public static DepthArbitrageOpportunity evaluate(L2OrderBook buyBook, L2OrderBook sellBook, Instant timestamp) {
+        int askDepth = buyBook.askDepth();
+        int bidDepth = sellBook.bidDepth();
+
+        // 1. Cheap rejection: the best ask must be strictly below the best bid
+        if (askDepth == 0 || bidDepth == 0 || buyBook.askPrice(0) >= sellBook.bidPrice(0)) {
+            return null;
+        }
+
+        // 2. Walk both sides while they cross, matching the smaller remaining quantity each step
+        int a = 0;
+        int b = 0;
+        long askLeft = buyBook.askQuantity(0);
+        long bidLeft = sellBook.bidQuantity(0);
+        long quantity = 0;
+        BigDecimal cost = BigDecimal.ZERO;
+        BigDecimal revenue = BigDecimal.ZERO;
+        while (a < askDepth && b < bidDepth && buyBook.askPrice(a) < sellBook.bidPrice(b)) {
+            long matched = Math.min(askLeft, bidLeft);
+            BigDecimal matchedQuantity = FixedPointPrice.toBigDecimal(matched);
+            quantity += matched;
+            cost = cost.add(FixedPointPrice.toBigDecimal(buyBook.askPrice(a)).multiply(matchedQuantity));
+            revenue = revenue.add(FixedPointPrice.toBigDecimal(sellBook.bidPrice(b)).multiply(matchedQuantity));
+
+            askLeft -= matched;
+            bidLeft -= matched;
+            if (askLeft == 0 && ++a < askDepth) {
+                askLeft = buyBook.askQuantity(a);
+            }
+            if (bidLeft == 0 && ++b < bidDepth) {
+                bidLeft = sellBook.bidQuantity(b);
+            }
+        }
+
+        // 3. Turn the totals into VWAPs and profit, at the schema's 8 decimal places
+        BigDecimal totalQuantity = FixedPointPrice.toBigDecimal(quantity);
+        return new DepthArbitrageOpportunity(
+                buyBook.pair(),
+                timestamp,
+                buyBook.exchange(),
+                sellBook.exchange(),
+                totalQuantity,
+                cost.divide(totalQuantity, FixedPointPrice.SCALE, RoundingMode.HALF_UP),
+                revenue.divide(totalQuantity, FixedPointPrice.SCALE, RoundingMode.HALF_UP),
+                revenue.subtract(cost).setScale(FixedPointPrice.SCALE, RoundingMode.HALF_UP)
+        );
+    }
+
+    private static List<DepthArbitrageOpportunity> addIfPresent(List<DepthArbitrageOpportunity> result,
+                                                                DepthArbitrageOpportunity opportunity) {
+        if (opportunity == null) {
+            return result;
+        }
+        // Allocate the result list only once there is something to put in it
+        List<DepthArbitrageOpportunity> mutable = result.isEmpty() ? new ArrayList<>() : result;
+        mutable.add(opportunity);
+        return mutable;
+    }
+}
@@ -0,0 +1,311 @@
+package com.cryptoArb.service;
+
+import com.cryptoArb.domain.*;
+
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Exchange-vs-exchange spreads for every pair, ranked across all pairs.
+ *
+ * {@link ArbitrageService} only sees the global best bid against the global best ask,
+ * so it cannot say which route is second best, or what to do when the best venue is down.
+ *
+ * For each pair we keep an N x N matrix (N = exchanges seen) in a flat primitive long array:
+ * spread[buy * N + sell] = bid[sell] - ask[buy], in fixed point. A tick from one exchange
+ * only changes that exchange's row and column, so an update is O(N).
+ *
+ * Every route with both quotes known also sits in two ordered indexes, best spread first:
+ * one across all pairs, and one per pair. A changed route is re-positioned in both in
+ * O(log routes), and the top K routes, overall or of one pair, are read straight off the
+ * head of the matching index in O(K). Excluding venues still walks the global index and
+ * skips the routes that touch them.
+ *
+ * Exchange slots are the dense ids of a {@link SymbolRegistry}.
+ * Updates are exclusive, queries are shared (ReadWriteLock).
+ */
+public class ExchangeSpreadMatrix {
+
+    private final SymbolRegistry registry;
+    private final Map<CurrencyPair, PairMatrix> matrices = new ConcurrentHashMap<>();
+
+    // Best spread first; ties broken by pair id, then buy and sell exchange id, so every route is unique
+    private static final Comparator<Route> BEST_SPREAD_FIRST =
+            Comparator.comparingLong((Route route) -> route.spread).reversed()
+                    .thenComparingInt(route -> route.matrix.pairId)
+                    .thenComparingInt(route -> route.buy)
+                    .thenComparingInt(route -> route.sell);
+
+    private final NavigableSet<Route> ranking = new TreeSet<>(BEST_SPREAD_FIRST);
+
+    private final ReadWriteLock rwLock = new ReentrantReadWriteLock();
+    private final Lock readLock = rwLock.readLock();
+    private final Lock writeLock = rwLock.writeLock();
+
+    public ExchangeSpreadMatrix() {
+        this(SymbolRegistry.global());
+    }
+
+    public ExchangeSpreadMatrix(SymbolRegistry registry) {
+        this.registry = registry;
+    }
+
+    /**
+     * Applies a tick, converting its prices to fixed point.
+     */
+    public void onTick(PriceTick tick) {
+        onTick(FixedPointTick.from(tick));
+    }
+
+    /**
+     * Applies a tick: updates the exchange's row and column of its pair's matrix,
+     * and re-ranks the routes whose spread changed. Ticks older than the exchange's
+     * latest quote for the pair are ignored.
+     */
+    public void onTick(FixedPointTick tick) {
+        int exchangeId = registry.exchangeId(tick.exchange());
+        PairMatrix matrix = matrices.computeIfAbsent(tick.pair(),
+                pair -> new PairMatrix(pair, registry.pairId(pair)));
+
+        writeLock.lock();
+        try {
+            matrix.update(exchangeId, tick.timestamp().toEpochMilli(), tick.bidPrice(), tick.askPrice());
+        } finally {
+            writeLock.unlock();
+        }
+    }
+
+    /**
+     * @return The K best routes across all pairs, best spread first.
+     */
+    public List<SpreadRoute> topRoutes(int k) {
+        return topRoutes(k, Set.of());
+    }
+
+    /**
+     * Reads the pair's own index: routes of other pairs are never visited.
+     *
+     * @return The K best routes of one pair, best spread first.
+     */
+    public List<SpreadRoute> topRoutes(CurrencyPair pair, int k) {
+        PairMatrix matrix = matrices.get(pair);
+        if (matrix == null) {
+            return List.of();
+        }
+        readLock.lock();
+        try {
+            return collect(matrix.ranking, k, null);
+        } finally {
+            readLock.unlock();
+        }
+    }
+
+    /**
+     * Ranked alternatives when some venues are unavailable. Walks the global index and skips
+     * the routes that touch an excluded exchange, checked by dense id (one array read each).
+     *
+     * @param k        The number of routes wanted.
+     * @param excluded Exchanges that must not appear on either side of a route.
+     * @return The K best routes across all pairs that avoid the excluded exchanges.
+     */
+    public List<SpreadRoute> topRoutes(int k, Set<Exchange> excluded) {
+        // 1. Resolve the excluded exchanges to ids once; unknown exchanges are in no route
+        boolean[] excludedIds = null;
+        for (Exchange exchange : excluded) {
+            int id = registry.findExchangeId(exchange);
+            if (id >= 0) {
+                if (excludedIds == null) {
+                    excludedIds = new boolean[registry.exchangeCount()];
+                }
+                excludedIds[id] = true;
+            }
+        }
+
+        // 2. Walk the global index
+        readLock.lock();
+        try {
+            return collect(ranking, k, excludedIds);
+        } finally {
+            readLock.unlock();
+        }
+    }
+
+    /**
+     * @return The spread (bid on 'sell' minus ask on 'buy'), or empty if either quote is unknown.
+     */
+    public Optional<SpreadRoute> route(CurrencyPair pair, Exchange buy, Exchange sell) {
+        PairMatrix matrix = matrices.get(pair);
+        int buyId = registry.findExchangeId(buy);
+        int sellId = registry.findExchangeId(sell);
+        if (matrix == null || buyId < 0 || sellId < 0) {
+            return Optional.empty();
+        }
+        readLock.lock();
+        try {
+            Route route = matrix.route(buyId, sellId);
+            return route == null ? Optional.empty() : Optional.of(toSpreadRoute(route));
+        } finally {
+            readLock.unlock();
+        }
+    }
+
+    /**
+     * Takes the first K routes of an index, skipping excluded exchange ids (null: none). Call under the read lock.
+     */
+    private List<SpreadRoute> collect(NavigableSet<Route> index, int k, boolean[] excludedIds) {
+        List<SpreadRoute> result = new ArrayList<>(Math.min(k, index.size()));
+        for (Route route : index) {
+            if (result.size() >= k) {
+                break;
+            }
+            if (excludedIds != null && (isExcluded(excludedIds, route.buy) || isExcluded(excludedIds, route.sell))) {
+                continue;
+            }
+            result.add(toSpreadRoute(route));
+        }
+        return result;
+    }
+
+    private static boolean isExcluded(boolean[] excludedIds, int exchangeId) {
+        return exchangeId < excludedIds.length && excludedIds[exchangeId];
+    }
+
+    private SpreadRoute toSpreadRoute(Route route) {
+        PairMatrix matrix = route.matrix;
+        return new SpreadRoute(
+                matrix.pair,
+                registry.exchange(route.buy),
+                FixedPointPrice.toBigDecimal(matrix.asks[route.buy]),
+                registry.exchange(route.sell),
+                FixedPointPrice.toBigDecimal(matrix.bids[route.sell]),
+                FixedPointPrice.toBigDecimal(matrix.spreads[route.buy * matrix.capacity + route.sell])
+        );
+    }
+
+
+    /**
+     * The latest quote per exchange for ONE pair, and its N x N spreads.
+     * Only touched under the outer write lock (or read lock for queries).
+     */
+    private final class PairMatrix {
+
+        private final CurrencyPair pair;
+        private final int pairId;
+
+        // This pair's routes only, in the same order as the global index
+        private final NavigableSet<Route> ranking = new TreeSet<>(BEST_SPREAD_FIRST);
+
+        private int capacity;
+        private boolean[] present;
+        private long[] timestamps;
+        private long[] bids;
+        private long[] asks;
+        private long[] spreads;  // [buy * capacity + sell]
+        private Route[] routes;  // same layout; null until both quotes are known
+
+        PairMatrix(CurrencyPair pair, int pairId) {
+            this.pair = pair;
+            this.pairId = pairId;
+            allocate(Math.max(4, registry.exchangeCount()));
+        }
+
+        void update(int exchange, long timestampMillis, long bid, long ask) {
+            if (exchange >= capacity) {
+                grow(Math.max(exchange + 1, capacity * 2));
+            }
+            if (present[exchange] && timestampMillis < timestamps[exchange]) {
+                return;
+            }
+
+            // 1. Store the exchange's new quote
+            present[exchange] = true;
+            timestamps[exchange] = timestampMillis;
+            bids[exchange] = bid;
+            asks[exchange] = ask;
+
+            // 2. Recompute its row (buy here, sell elsewhere) and column (buy elsewhere, sell here)
+            for (int other = 0; other < capacity; other++) {
+                if (other != exchange && present[other]) {
+                    setSpread(exchange, other);
+                    setSpread(other, exchange);
+                }
+            }
+        }
+
+        Route route(int buy, int sell) {
+            return buy < capacity && sell < capacity ? routes[buy * capacity + sell] : null;
+        }
+
+        private void setSpread(int buy, int sell) {
+            int index = buy * capacity + sell;
+            long spread = bids[sell] - asks[buy];
+            Route route = routes[index];
+            if (route == null) {
+                route = new Route(this, buy, sell, spread);
+                routes[index] = route;
+            } else if (route.spread == spread) {
+                return;
+            } else {
+                // Re-position in both indexes: remove under the old key, re-insert under the new one
+                ExchangeSpreadMatrix.this.ranking.remove(route);
+                ranking.remove(route);
+                route.spread = spread;
+            }
+            spreads[index] = spread;
+            ExchangeSpreadMatrix.this.ranking.add(route);
+            ranking.add(route);
+        }
+
+        private void allocate(int newCapacity) {
+            capacity = newCapacity;
+            present = new boolean[newCapacity];
+            timestamps = new long[newCapacity];
+            bids = new long[newCapacity];
+            asks = new long[newCapacity];
+            spreads = new long[newCapacity * newCapacity];
+            routes = new Route[newCapacity * newCapacity];
+        }
+
+        private void grow(int newCapacity) {
+            int oldCapacity = capacity;
+            boolean[] oldPresent = present;
+            long[] oldTimestamps = timestamps;
+            long[] oldBids = bids;
+            long[] oldAsks = asks;
+            long[] oldSpreads = spreads;
+            Route[] oldRoutes = routes;
+
+            allocate(newCapacity);
+            System.arraycopy(oldPresent, 0, present, 0, oldCapacity);
+            System.arraycopy(oldTimestamps, 0, timestamps, 0, oldCapacity);
+            System.arraycopy(oldBids, 0, bids, 0, oldCapacity);
+            System.arraycopy(oldAsks, 0, asks, 0, oldCapacity);
+            // Matrix rows get longer, so copy row by row
+            for (int buy = 0; buy < oldCapacity; buy++) {
+                System.arraycopy(oldSpreads, buy * oldCapacity, spreads, buy * newCapacity, oldCapacity);
+                System.arraycopy(oldRoutes, buy * oldCapacity, routes, buy * newCapacity, oldCapacity);
+            }
+        }
+    }
+
+    /**
+     * A ranked entry: one (pair, buy exchange, sell exchange) route and its current spread.
+     */
+    private static final class Route {
+
+        private final PairMatrix matrix;
+        private final int buy;
+        private final int sell;
+        private long spread;
+
+        Route(PairMatrix matrix, int buy, int sell, long spread) {
+            this.matrix = matrix;
+            this.buy = buy;
+            this.sell = sell;
+            this.spread = spread;
+        }
+    }
+}
@@ -0,0 +1,218 @@
+package com.cryptoArb.service;
+
+import com.cryptoArb.domain.CurrencyPair;
+import com.cryptoArb.domain.Exchange;
+import com.cryptoArb.domain.FixedPointPrice;
+
+import java.math.BigDecimal;
+import java.util.Arrays;
+
+/**
+ * A level-2 order book (price levels and quantities per side) for ONE pair on ONE exchange.
+ *
+ * A PriceTick only carries the top of the book, with no size, so it cannot tell a
+ * tradeable spread from one that is good for a few satoshis. This book keeps every level.
+ *
+ * Each side is a pair of sorted primitive long arrays (fixed point, see {@link FixedPointPrice}):
+ * bids in descending price order, asks in ascending order, so level 0 is always the best.
+ * An update finds its level with a binary search and shifts the tail with System.arraycopy;
+ * a quantity of 0 removes the level. No objects are allocated per update.
+ *
+ * Not thread-safe. Detection walks the books of every exchange of a pair, so a book owned by
+ * {@link DepthArbitrageService} must be changed through
+ * {@link DepthArbitrageService#applyUpdate}, which serializes the updates of a pair; a book
+ * used on its own must stay confined to one thread.
+ */
+public class L2OrderBook {
+
+    private static final int INITIAL_CAPACITY = 16;
+
+    private final CurrencyPair pair;
+    private final Exchange exchange;
+    private final Side bids = new Side(true);
+    private final Side asks = new Side(false);
+
+    public L2OrderBook(CurrencyPair pair, Exchange exchange) {
+        this.pair = pair;
+        this.exchange = exchange;
+    }
+
+    public CurrencyPair pair() {
+        return pair;
+    }
+
+    public Exchange exchange() {
+        return exchange;
+    }
+
+    /**
+     * Sets the quantity of a bid level. A quantity of 0 removes the level.
+     *
+     * @param price    The level's price, fixed point.
+     * @param quantity The total quantity at that price, fixed point.
+     */
+    public void updateBid(long price, long quantity) {
+        bids.update(price, quantity);
+    }
+
+    /**
+     * Sets the quantity of an ask level. A quantity of 0 removes the level.
+     *
+     * @param price    The level's price, fixed point.
+     * @param quantity The total quantity at that price, fixed point.
+     */
+    public void updateAsk(long price, long quantity) {
+        asks.update(price, quantity);
+    }
+
+    /**
+     * BigDecimal convenience for {@link #updateBid(long, long)}.
+     */
+    public void updateBid(BigDecimal price, BigDecimal quantity) {
+        updateBid(FixedPointPrice.fromBigDecimal(price), FixedPointPrice.fromBigDecimal(quantity));
+    }
+
+    /**
+     * BigDecimal convenience for {@link #updateAsk(long, long)}.
+     */
+    public void updateAsk(BigDecimal price, BigDecimal quantity) {
+        updateAsk(FixedPointPrice.fromBigDecimal(price), FixedPointPrice.fromBigDecimal(quantity));
+    }
+
+    /**
+     * Removes every level on both sides (e.g. before applying a fresh snapshot).
+     */
+    public void clear() {
+        bids.depth = 0;
+        asks.depth = 0;
+    }
+
+    public int bidDepth() {
+        return bids.depth;
+    }
+
+    public int askDepth() {
+        return asks.depth;
+    }
+
+    /**
+     * @return The bid price at a level (0 = best), fixed point.
+     */
+    public long bidPrice(int level) {
+        return bids.price(level);
+    }
+
+    /**
+     * @return The bid quantity at a level (0 = best), fixed point.
+     */
+    public long bidQuantity(int level) {
+        return bids.quantity(level);
+    }
+
+    /**
+     * @return The ask price at a level (0 = best), fixed point.
+     */
+    public long askPrice(int level) {
+        return asks.price(level);
+    }
+
+    /**
+     * @return The ask quantity at a level (0 = best), fixed point.
+     */
+    public long askQuantity(int level) {
+        return asks.quantity(level);
+    }
+
+
+    /**
+     * One side of the book: parallel price / quantity arrays, best level first.
+     */
+    static final class Side {
+
+        // true for bids (highest price first), false for asks (lowest price first)
+        private final boolean descending;
+        private long[] prices = new long[INITIAL_CAPACITY];
+        private long[] quantities = new long[INITIAL_CAPACITY];
+        private int depth;
+
+        Side(boolean descending) {
+            this.descending = descending;
+        }
+
+        void update(long price, long quantity) {
+            if (quantity < 0) {
+                throw new IllegalArgumentException("Quantity must not be negative: " + quantity);
+            }
+            int index = search(price);
+
+            // 1. Existing level: replace its quantity, or remove it
+            if (index >= 0) {
+                if (quantity == 0) {
+                    System.arraycopy(prices, index + 1, prices, index, depth - index - 1);
+                    System.arraycopy(quantities, index + 1, quantities, index, depth - index - 1);
+                    depth--;
+                } else {
+                    quantities[index] = quantity;
+                }
+                return;
+            }
+
+            // 2. New level: removing an unknown level is a no-op
+            if (quantity == 0) {
+                return;
+            }
+
+            // 3. Insert at the insertion point, shifting the worse levels down by one
+            int insertAt = -index - 1;
+            if (depth == prices.length) {
+                prices = Arrays.copyOf(prices, depth * 2);
+                quantities = Arrays.copyOf(quantities, depth * 2);
+            }
+            System.arraycopy(prices, insertAt, prices, insertAt + 1, depth - insertAt);
+            System.arraycopy(quantities, insertAt, quantities, insertAt + 1, depth - insertAt);
+            prices[insertAt] = price;
+            quantities[insertAt] = quantity;
+            depth++;
+        }
+
+        long price(int level) {
+            checkLevel(level);
+            return prices[level];
+        }
+
+        long quantity(int level) {
+            checkLevel(level);
+            return quantities[level];
+        }
+
+        /**
+         * Binary search in book order.
+         * Same contract as Arrays.binarySearch: the index if found, else (-(insertion point) - 1).
+         */
+        private int search(long price) {
+            int low = 0;
+            int high = depth - 1;
+            while (low <= high) {
+                int mid = (low + high) >>> 1;
+                long midPrice = prices[mid];
+                if (midPrice == price) {
+                    return mid;
+                }
+                // "mid is a better level than price" means price belongs further down
+                boolean midIsBetter = descending ? midPrice > price : midPrice < price;
+                if (midIsBetter) {
+                    low = mid + 1;
+                } else {
+                    high = mid - 1;
+                }
+            }
+            return -(low + 1);
+        }
+
+        private void checkLevel(int level) {
+            if (level < 0 || level >= depth) {
+                throw new IndexOutOfBoundsException("Level " + level + " out of bounds for depth " + depth);
+            }
+        }
+    }
+}
@@ -1,71 +1,453 @@
 package com.cryptoArb.service;
 
 import com.cryptoArb.domain.ArbitrageOpportunity;
+import com.cryptoArb.domain.CurrencyPair;
+import com.cryptoArb.domain.Exchange;
 
-import java.util.ArrayList;
+import java.time.Instant;
+import java.util.AbstractList;
+import java.util.Collection;
 import java.util.List;
+import java.util.RandomAccess;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReferenceArray;
 import java.util.concurrent.locks.Lock;
-import java.util.concurrent.locks.ReadWriteLock;
 import java.util.concurrent.locks.ReentrantLock;
-import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Consumer;
 
 /**
  * A service responsible for safely collecting
  * arbitrage opportunities from concurrent threads.
  *
- * VERSION 4: Refactored to ReadWriteLock (STILL GREEN)
+ * VERSION 6: Versioned append-only segments (STILL GREEN)
+ *
+ * VERSION 5 was lock-free for writers, but getOpportunities still copied every opportunity
+ * on every call; a dashboard polling several times per second copied tens of thousands of
+ * records each time. Now:
+ * - opportunities are written into fixed-size segments that are only ever appended to,
+ * - a writer claims its slot with one atomic increment and fills it with a volatile write;
+ *   the filled slot is its publication,
+ * - the published version (the number of visible opportunities) is the length of the run of
+ *   filled slots from 0. Every writer moves it forward over the filled slots it finds after
+ *   the current version, by CAS, and returns: no writer waits for another,
+ * - a reader reads the version once and gets a {@link Snapshot}: an immutable view of the
+ *   first 'version' slots, created in O(1) without copying, which never changes afterwards,
+ * - {@link #getOpportunitiesSince(long)} returns only what was published after a version
+ *   the caller saw before, for incremental polling.
+ *
+ * Writers never block readers, readers never block writers, and writers never wait for each
+ * other. A writer that has claimed a slot but not filled it yet only holds back the version:
+ * later slots are filled but become visible once it fills its own, and the version then jumps
+ * over all of them. A writer that dies between claiming and filling (e.g. an OutOfMemoryError
+ * while allocating a segment) leaves a hole that the version never passes.
+ *
+ * Slices (by pair, by exchange, by time range, top N by profit) are served by an
+ * {@link OpportunityIndex} updated on every add, instead of by scanning a snapshot.
+ * The index is updated right after publication, so it may briefly lag the snapshot.
+ *
+ * Downstream consumers (batched persistence, forwarding) do not rescan snapshots: they
+ * {@link #drainTo(Collection, int)} or {@link #drainBatches(Consumer, int)}. A drain cursor
+ * marks what has been handed off, and it is only moved AFTER the consumer has taken a batch:
+ * a batch whose consumer throws (e.g. a failed database save) is handed out again by the next
+ * drain call. Delivery is therefore at-least-once: exactly once while consumers succeed, and
+ * a failed batch may be seen again. Drain calls take turns on a drain lock, so concurrent
+ * consumers never get the same batch at the same time; producers are never blocked by it.
+ * Draining alone only moves the cursor: snapshots and indexed queries still see every
+ * opportunity until it is also released.
+ *
+ * Retention: segments and index entries would otherwise be kept for the life of the process.
+ * Readers that are done with everything below a version call {@link #release(long)}. The
+ * retained range then starts at that version, or, once a drain consumer is attached (the
+ * first drain call), at min(drain cursor, released version), so nothing is dropped before it
+ * has been drained. Whole segments below that floor are left out of a NEW directory, published
+ * like a grown one (copy-on-write), and the index drops its entries below the floor. Versions
+ * below the floor can no longer be asked for, but snapshots and drain batches taken earlier
+ * keep their own directory and stay readable: they only keep their segments alive until they
+ * are discarded. An aggregator that is never released keeps everything, as before.
  */
 public class OpportunityAggregator {
 
-    private final List<ArbitrageOpportunity> opportunities = new ArrayList<>();
+    private static final int SEGMENT_SHIFT = 10;
+    private static final int SEGMENT_SIZE = 1 << SEGMENT_SHIFT;  // 1024 opportunities per segment
+    private static final int SEGMENT_MASK = SEGMENT_SIZE - 1;
+
+    // The next slot to claim, and the number of slots published so far (the version)
+    private final AtomicLong claimed = new AtomicLong();
+    private final AtomicLong published = new AtomicLong();
+
+    // Everything below the cursor has been taken by a consumer; only moved under the drain lock
+    private volatile long drained;
+    private final Lock drainLock = new ReentrantLock();
+
+    // Segment i holds slots [i * SEGMENT_SIZE, (i + 1) * SEGMENT_SIZE); replaced (never mutated in place) to grow
+    private volatile AtomicReferenceArray<AtomicReferenceArray<ArbitrageOpportunity>> directory =
+            new AtomicReferenceArray<>(16);
+    private final Object growLock = new Object();
 
-    // 1. Create ReadWriteLock
-    private final ReadWriteLock rwLock = new ReentrantReadWriteLock();
+    // The oldest version readers still need, and the oldest slot still retained; moved under growLock.
+    // The floor is written BEFORE the directory it goes with, and read AFTER it.
+    private volatile long released;
+    private volatile long retainedFrom;
 
-    // 2. Get the specific read and write locks from it
-    private final Lock readLock = rwLock.readLock();
-    private final Lock writeLock = rwLock.writeLock();
+    // Set by the first drain call: from then on, nothing undrained is dropped
+    private volatile boolean drainAttached;
+
+    private final OpportunityIndex index = new OpportunityIndex();
 
 
     /**
-     * Adds a found opportunity to the list.
-     * This is a WRITE operation, so we use the writeLock.
-     * It is EXCLUSIVE.
+     * Adds a found opportunity and publishes it. Never waits for other writers.
+     * When this returns, the opportunity is visible to every later snapshot as soon as
+     * every earlier claimed slot is filled too; with no writer in flight, immediately.
      */
     public void addOpportunity(ArbitrageOpportunity opportunity) {
-        // Use the write lock
-        writeLock.lock();
-        try {
-            this.opportunities.add(opportunity);
-        } finally {
-            writeLock.unlock();
+        // 1. Claim a slot
+        long slot = claimSlot();
+
+        // 2. Fill and publish it
+        fillSlot(slot, opportunity);
+    }
+
+    /**
+     * The first half of an add, split out (package-private) so a test can hold a claimed slot unfilled.
+     */
+    long claimSlot() {
+        return claimed.getAndIncrement();
+    }
+
+    /**
+     * The second half of an add: fills a claimed slot and publishes it.
+     */
+    void fillSlot(long slot, ArbitrageOpportunity opportunity) {
+        // 1. Fill it: the volatile write publishes the slot
+        segment(slot).set((int) (slot & SEGMENT_MASK), opportunity);
+
+        // 2. Move the version over every filled slot after it, ours included if the run reaches it
+        advancePublished();
+
+        // 3. Maintain the secondary indexes, numbered by slot so they can be trimmed with the segments
+        index.add(opportunity, slot);
+    }
+
+    /**
+     * Moves the version forward while the slot at the version is filled. Any writer may do it
+     * for the others: a writer whose slot is behind an unfilled one returns, and the writer of
+     * that slot moves the version over both when it fills its own.
+     */
+    private void advancePublished() {
+        long version = published.get();
+        while (version < claimed.get() && isFilled(version)) {
+            if (published.compareAndSet(version, version + 1)) {
+                version++;
+            } else {
+                version = published.get();
+            }
         }
     }
 
+    private boolean isFilled(long slot) {
+        AtomicReferenceArray<AtomicReferenceArray<ArbitrageOpportunity>> current = directory;
+        int segmentIndex = (int) (slot >>> SEGMENT_SHIFT);
+        if (segmentIndex >= current.length()) {
+            return false;
+        }
+        AtomicReferenceArray<ArbitrageOpportunity> segment = current.get(segmentIndex);
+        return segment != null && segment.get((int) (slot & SEGMENT_MASK)) != null;
+    }
+
     /**
-     * Returns a snapshot of all found opportunities.
-     * This is a READ operation, so we use the readLock.
-     * It is SHARED.
+     * Returns an immutable snapshot of all retained opportunities, in publication order.
+     * O(1): nothing is copied.
      */
     public List<ArbitrageOpportunity> getOpportunities() {
-        // Use the read lock
-        readLock.lock();
+        return snapshot();
+    }
+
+    /**
+     * @return An immutable view of everything published and still retained, with its version.
+     */
+    public Snapshot snapshot() {
+        // Version, then directory, then floor: the directory holds every segment in [floor, version)
+        long to = published.get();
+        AtomicReferenceArray<AtomicReferenceArray<ArbitrageOpportunity>> current = directory;
+        long from = retainedFrom;
+        return new Snapshot(current, from, Math.max(from, to));
+    }
+
+    /**
+     * Incremental polling: pass the {@link Snapshot#version()} of the previous poll.
+     *
+     * @param version A version previously returned by this aggregator (0 for everything), not released since.
+     * @return An immutable view of the opportunities published after that version.
+     */
+    public Snapshot getOpportunitiesSince(long version) {
+        // Read the version BEFORE the directory: every segment up to it is in that directory or a later one,
+        // and the floor AFTER it: every segment from the floor on is still in that directory
+        long to = published.get();
+        AtomicReferenceArray<AtomicReferenceArray<ArbitrageOpportunity>> current = directory;
+        long floor = retainedFrom;
+        if (version < 0 || version > to) {
+            throw new IllegalArgumentException("Unknown version " + version + ", current version is " + to);
+        }
+        if (version < floor) {
+            throw new IllegalArgumentException("Version " + version + " was released, oldest retained version is " + floor);
+        }
+        return new Snapshot(current, version, to);
+    }
+
+    /**
+     * Declares that readers no longer need the opportunities below a version. Without a drain
+     * consumer they are dropped now; once one is attached, only when they are also drained.
+     * A consumer attached later never gets what was dropped before; see the class comment.
+     *
+     * @param version A version previously returned by this aggregator; a lower one than
+     *                released before is ignored.
+     */
+    public void release(long version) {
+        long current = published.get();
+        if (version < 0 || version > current) {
+            throw new IllegalArgumentException("Unknown version " + version + ", current version is " + current);
+        }
+        synchronized (growLock) {
+            if (version > released) {
+                released = version;
+            }
+        }
+        trim();
+    }
+
+    /**
+     * @return The oldest version still retained: snapshots and queries cover [this, version()).
+     */
+    public long retainedFrom() {
+        return retainedFrom;
+    }
+
+    /**
+     * @return The current version: the number of opportunities published so far.
+     */
+    public long version() {
+        return published.get();
+    }
+
+    /**
+     * The number of retained opportunities: two volatile reads; never blocks.
+     */
+    public int getOpportunityCount() {
+        // Floor first, as in snapshot(), so the count is never negative
+        long from = retainedFrom;
+        return (int) (published.get() - from);
+    }
+
+    /**
+     * Moves up to maxBatch published opportunities, not drained before, into a collection.
+     * If adding to the target throws, the cursor is not moved and the batch is drained again next time.
+     *
+     * @return The number of opportunities added to the target.
+     */
+    public int drainTo(Collection<? super ArbitrageOpportunity> target, int maxBatch) {
+        checkBatchSize(maxBatch);
+        drainAttached = true;
+        Snapshot batch;
+        drainLock.lock();
         try {
-            return new ArrayList<>(this.opportunities);
+            batch = nextBatch(maxBatch);
+            target.addAll(batch);
+            drained = batch.version();
         } finally {
-            readLock.unlock();
+            drainLock.unlock();
         }
+        trim();
+        return batch.size();
     }
 
     /**
-     * This is also a READ operation.
+     * Hands every published opportunity not drained before to a consumer, in batches of at
+     * most maxBatch, oldest first. Each batch is an immutable view: nothing is copied.
+     *
+     * The cursor moves past a batch only once the consumer has returned. If the consumer
+     * throws, the exception propagates and its batch stays pending: the next drain call
+     * hands it out again (at-least-once on failure).
+     *
+     * @return The number of opportunities handed to the consumer and accepted.
      */
-    public int getOpportunityCount() {
-        readLock.lock();
+    public int drainBatches(Consumer<? super List<ArbitrageOpportunity>> batchConsumer, int maxBatch) {
+        checkBatchSize(maxBatch);
+        drainAttached = true;
+        int total = 0;
+        drainLock.lock();
         try {
-            return this.opportunities.size();
+            Snapshot batch;
+            while (!(batch = nextBatch(maxBatch)).isEmpty()) {
+                batchConsumer.accept(batch);
+                // Commit only after the consumer has taken the batch
+                drained = batch.version();
+                total += batch.size();
+            }
         } finally {
-            readLock.unlock();
+            drainLock.unlock();
+            // Also after a failed batch: the ones committed before it may now be droppable
+            trim();
+        }
+        return total;
+    }
+
+    /**
+     * Drops what may be dropped: publishes a directory without the whole segments below the
+     * floor, and trims the index to it. The old directory is left as it is, for the views on it.
+     */
+    private void trim() {
+        // Fast path: nothing new to drop (always the case while nothing is released)
+        if (floor() <= retainedFrom) {
+            return;
+        }
+        long floor;
+        synchronized (growLock) {
+            floor = floor();
+            if (floor <= retainedFrom) {
+                return;
+            }
+            AtomicReferenceArray<AtomicReferenceArray<ArbitrageOpportunity>> current = directory;
+            AtomicReferenceArray<AtomicReferenceArray<ArbitrageOpportunity>> trimmed =
+                    new AtomicReferenceArray<>(current.length());
+            for (int i = (int) (floor >>> SEGMENT_SHIFT); i < current.length(); i++) {
+                trimmed.set(i, current.get(i));
+            }
+            // Floor first: a reader that sees the new directory also sees the new floor
+            retainedFrom = floor;
+            directory = trimmed;
+        }
+        index.removeBefore(floor);
+    }
+
+    private long floor() {
+        return drainAttached ? Math.min(released, drained) : released;
+    }
+
+    /**
+     * @return The number of published opportunities not drained yet.
+     */
+    public long pendingCount() {
+        return Math.max(0, published.get() - Math.max(drained, retainedFrom));
+    }
+
+    /**
+     * The next [cursor, cursor + maxBatch) range of published opportunities. Call under the drain lock.
+     */
+    private Snapshot nextBatch(int maxBatch) {
+        // Directory before floor, as in getOpportunitiesSince; what was dropped before a consumer attached is skipped
+        AtomicReferenceArray<AtomicReferenceArray<ArbitrageOpportunity>> current = directory;
+        long start = Math.max(drained, retainedFrom);
+        long end = Math.min(published.get(), start + maxBatch);
+        return new Snapshot(current, start, Math.max(start, end));
+    }
+
+    private static void checkBatchSize(int maxBatch) {
+        if (maxBatch <= 0) {
+            throw new IllegalArgumentException("maxBatch must be positive: " + maxBatch);
+        }
+    }
+
+    /**
+     * @return The opportunities for a pair, in arrival order.
+     */
+    public List<ArbitrageOpportunity> getOpportunitiesForPair(CurrencyPair pair) {
+        return index.byPair(pair);
+    }
+
+    /**
+     * @return The opportunities that buy or sell on an exchange, in arrival order.
+     */
+    public List<ArbitrageOpportunity> getOpportunitiesForExchange(Exchange exchange) {
+        return index.byExchange(exchange);
+    }
+
+    /**
+     * @return The opportunities detected in [from, to), oldest first.
+     */
+    public List<ArbitrageOpportunity> getOpportunitiesBetween(Instant from, Instant to) {
+        return index.between(from, to);
+    }
+
+    /**
+     * @return The N most profitable opportunities, best first.
+     */
+    public List<ArbitrageOpportunity> getTopOpportunities(int n) {
+        return index.topByProfit(n);
+    }
+
+    /**
+     * Finds (creating if needed) the segment holding a slot.
+     */
+    private AtomicReferenceArray<ArbitrageOpportunity> segment(long slot) {
+        int segmentIndex = (int) (slot >>> SEGMENT_SHIFT);
+
+        // 1. Fast path: the segment already exists
+        AtomicReferenceArray<AtomicReferenceArray<ArbitrageOpportunity>> current = directory;
+        if (segmentIndex < current.length()) {
+            AtomicReferenceArray<ArbitrageOpportunity> segment = current.get(segmentIndex);
+            if (segment != null) {
+                return segment;
+            }
+        }
+
+        // 2. Slow path, once per segment: grow the directory and/or allocate the segment
+        synchronized (growLock) {
+            current = directory;
+            if (segmentIndex >= current.length()) {
+                AtomicReferenceArray<AtomicReferenceArray<ArbitrageOpportunity>> grown =
+                        new AtomicReferenceArray<>(Math.max(segmentIndex + 1, current.length() * 2));
+                for (int i = 0; i < current.length(); i++) {
+                    grown.set(i, current.get(i));
+                }
+                directory = grown;
+                current = grown;
+            }
+            AtomicReferenceArray<ArbitrageOpportunity> segment = current.get(segmentIndex);
+            if (segment == null) {
+                segment = new AtomicReferenceArray<>(SEGMENT_SIZE);
+                current.set(segmentIndex, segment);
+            }
+            return segment;
+        }
+    }
+
+
+    /**
+     * An immutable, consistent view of the opportunities published in [from, version).
+     * Reads straight from the shared segments: published slots are never written again.
+     */
+    public static final class Snapshot extends AbstractList<ArbitrageOpportunity> implements RandomAccess {
+
+        private final AtomicReferenceArray<AtomicReferenceArray<ArbitrageOpportunity>> directory;
+        private final long from;
+        private final long to;
+
+        private Snapshot(AtomicReferenceArray<AtomicReferenceArray<ArbitrageOpportunity>> directory, long from, long to) {
+            this.directory = directory;
+            this.from = from;
+            this.to = to;
+        }
+
+        /**
+         * @return The aggregator version this view was taken at; pass it to getOpportunitiesSince next time.
+         */
+        public long version() {
+            return to;
+        }
+
+        @Override
+        public ArbitrageOpportunity get(int index) {
+            if (index < 0 || index >= size()) {
+                throw new IndexOutOfBoundsException("Index " + index + " out of bounds for size " + size());
+            }
+            long slot = from + index;
+            return directory.get((int) (slot >>> SEGMENT_SHIFT)).get((int) (slot & SEGMENT_MASK));
+        }
+
+        @Override
+        public int size() {
+            return (int) (to - from);
         }
     }
-}
\ No newline at end of file
+}
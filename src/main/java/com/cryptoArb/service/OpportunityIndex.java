@@ -0,0 +1,204 @@
+package com.cryptoArb.service;
+
+import com.cryptoArb.domain.ArbitrageOpportunity;
+import com.cryptoArb.domain.CurrencyPair;
+import com.cryptoArb.domain.Exchange;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentNavigableMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.ConcurrentSkipListSet;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Secondary indexes over collected opportunities, maintained as they are added.
+ *
+ * Without them, every consumer copies the whole store and filters it: risk wants one pair,
+ * monitoring wants one exchange, reporting wants the last hour or the best N. Here each
+ * slice is read straight off its own structure:
+ * - by pair and by exchange: per-key buckets (skip lists keyed by sequence), in arrival order,
+ * - by time: a skip list ordered by timestamp, so a range is a sub-set view,
+ * - by profit: a skip list ordered by profit percentage, best first, so top N is its head.
+ *
+ * Every structure is concurrent and lock-free: adds never block queries. Ties (same
+ * timestamp, same profit) are broken by arrival order, so no opportunity hides another.
+ * Queries are weakly consistent with concurrent adds.
+ *
+ * Every entry carries a sequence (its arrival number, or the caller's own, e.g. an
+ * {@link OpportunityAggregator} slot), and {@link #removeBefore(long)} drops every entry
+ * below a sequence from all the structures, so the index can be bounded like its store.
+ */
+public class OpportunityIndex {
+
+    private static final Comparator<Entry> BY_TIME =
+            Comparator.comparing((Entry entry) -> entry.timestamp)
+                    .thenComparingLong(entry -> entry.sequence);
+
+    private static final Comparator<Entry> BY_PROFIT_DESC =
+            Comparator.comparing((Entry entry) -> entry.profitPercentage).reversed()
+                    .thenComparingLong(entry -> entry.sequence);
+
+    private final AtomicLong sequence = new AtomicLong();
+
+    // Everything below this sequence has been removed
+    private volatile long floor;
+
+    private final Map<CurrencyPair, ConcurrentNavigableMap<Long, ArbitrageOpportunity>> byPair = new ConcurrentHashMap<>();
+    private final Map<Exchange, ConcurrentNavigableMap<Long, ArbitrageOpportunity>> byExchange = new ConcurrentHashMap<>();
+    private final NavigableSet<Entry> byTime = new ConcurrentSkipListSet<>(BY_TIME);
+    private final NavigableSet<Entry> byProfit = new ConcurrentSkipListSet<>(BY_PROFIT_DESC);
+    private final ConcurrentNavigableMap<Long, Entry> bySequence = new ConcurrentSkipListMap<>();
+
+    /**
+     * Adds an opportunity to every index, numbered in arrival order.
+     */
+    public void add(ArbitrageOpportunity opportunity) {
+        add(opportunity, sequence.getAndIncrement());
+    }
+
+    /**
+     * Adds an opportunity to every index under the caller's own sequence number, which must be
+     * unique; do not mix with {@link #add(ArbitrageOpportunity)} on the same index.
+     */
+    public void add(ArbitrageOpportunity opportunity, long sequence) {
+        Entry entry = new Entry(opportunity, sequence);
+
+        // 1. Per-key buckets; a same-exchange route is listed once under its exchange
+        byPair.computeIfAbsent(opportunity.pair(), pair -> new ConcurrentSkipListMap<>()).put(sequence, opportunity);
+        byExchange.computeIfAbsent(opportunity.buyExchange(), exchange -> new ConcurrentSkipListMap<>()).put(sequence, opportunity);
+        if (!opportunity.sellExchange().equals(opportunity.buyExchange())) {
+            byExchange.computeIfAbsent(opportunity.sellExchange(), exchange -> new ConcurrentSkipListMap<>()).put(sequence, opportunity);
+        }
+
+        // 2. Ordered indexes; bySequence last, so removeBefore never finds a half-added entry
+        byTime.add(entry);
+        byProfit.add(entry);
+        bySequence.put(sequence, entry);
+
+        // 3. A removeBefore that ran while we were adding may have missed this entry
+        if (sequence < floor) {
+            remove(entry);
+        }
+    }
+
+    /**
+     * Drops every entry whose sequence is below the given one, from every structure.
+     */
+    public synchronized void removeBefore(long sequence) {
+        if (sequence <= floor) {
+            return;
+        }
+        floor = sequence;
+        for (Entry entry : bySequence.headMap(sequence).values()) {
+            remove(entry);
+        }
+    }
+
+    /**
+     * @return The opportunities for a pair, in arrival order.
+     */
+    public List<ArbitrageOpportunity> byPair(CurrencyPair pair) {
+        return copyOf(byPair.get(pair));
+    }
+
+    /**
+     * @return The opportunities that buy or sell on an exchange, in arrival order.
+     */
+    public List<ArbitrageOpportunity> byExchange(Exchange exchange) {
+        return copyOf(byExchange.get(exchange));
+    }
+
+    /**
+     * @param from Inclusive lower bound on the opportunity timestamp.
+     * @param to   Exclusive upper bound on the opportunity timestamp.
+     * @return The opportunities detected in [from, to), oldest first.
+     */
+    public List<ArbitrageOpportunity> between(Instant from, Instant to) {
+        if (!from.isBefore(to)) {
+            return List.of();
+        }
+        // Probes sort before every real entry with the same timestamp (sequence -1)
+        return toOpportunities(byTime.subSet(Entry.probe(from), true, Entry.probe(to), false), Integer.MAX_VALUE);
+    }
+
+    /**
+     * @return The N most profitable opportunities, best first.
+     */
+    public List<ArbitrageOpportunity> topByProfit(int n) {
+        return toOpportunities(byProfit, n);
+    }
+
+    /**
+     * @return The number of opportunities indexed.
+     */
+    public int size() {
+        return byTime.size();
+    }
+
+    private void remove(Entry entry) {
+        ArbitrageOpportunity opportunity = entry.opportunity;
+        removeFrom(byPair.get(opportunity.pair()), entry.sequence);
+        removeFrom(byExchange.get(opportunity.buyExchange()), entry.sequence);
+        removeFrom(byExchange.get(opportunity.sellExchange()), entry.sequence);
+        byTime.remove(entry);
+        byProfit.remove(entry);
+        bySequence.remove(entry.sequence);
+    }
+
+    private static void removeFrom(Map<Long, ArbitrageOpportunity> bucket, long sequence) {
+        if (bucket != null) {
+            bucket.remove(sequence);
+        }
+    }
+
+    private static List<ArbitrageOpportunity> copyOf(Map<Long, ArbitrageOpportunity> bucket) {
+        return bucket == null || bucket.isEmpty() ? List.of() : new ArrayList<>(bucket.values());
+    }
+
+    private static List<ArbitrageOpportunity> toOpportunities(Collection<Entry> entries, int limit) {
+        List<ArbitrageOpportunity> result = List.of();
+        for (Entry entry : entries) {
+            if (result.size() >= limit) {
+                break;
+            }
+            if (result.isEmpty()) {
+                result = new ArrayList<>();
+            }
+            result.add(entry.opportunity);
+        }
+        return result;
+    }
+
+
+    /**
+     * An opportunity with the keys the ordered indexes sort on, and its arrival sequence as tie-breaker.
+     */
+    private static final class Entry {
+
+        private final ArbitrageOpportunity opportunity;
+        private final Instant timestamp;
+        private final BigDecimal profitPercentage;
+        private final long sequence;
+
+        Entry(ArbitrageOpportunity opportunity, long sequence) {
+            this(opportunity, opportunity.timestamp(), opportunity.profitPercentage(), sequence);
+        }
+
+        private Entry(ArbitrageOpportunity opportunity, Instant timestamp, BigDecimal profitPercentage, long sequence) {
+            this.opportunity = opportunity;
+            this.timestamp = timestamp;
+            this.profitPercentage = profitPercentage;
+            this.sequence = sequence;
+        }
+
+        /**
+         * A search key for the time index only.
+         */
+        static Entry probe(Instant timestamp) {
+            return new Entry(null, timestamp, null, -1);
+        }
+    }
+}
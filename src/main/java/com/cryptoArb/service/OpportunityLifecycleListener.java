@@ -0,0 +1,14 @@
+package com.cryptoArb.service;
+
+import com.cryptoArb.domain.OpportunityLifecycleEvent;
+
+/**
+ * Receives OPEN, UPDATE and CLOSE events from an {@link OpportunityLifecycleTracker}.
+ *
+ * Called on the thread that delivered the detection, so implementations should be quick and must not block.
+ */
+@FunctionalInterface
+public interface OpportunityLifecycleListener {
+
+    void onLifecycleEvent(OpportunityLifecycleEvent event);
+}
@@ -0,0 +1,212 @@
+package com.cryptoArb.service;
+
+import com.cryptoArb.domain.ArbitrageOpportunity;
+import com.cryptoArb.domain.ConsolidatedPrice;
+import com.cryptoArb.domain.CurrencyPair;
+import com.cryptoArb.domain.Exchange;
+import com.cryptoArb.domain.OpportunityLifecycleEvent;
+import com.cryptoArb.domain.OpportunityLifecycleEvent.Type;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.util.*;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+/**
+ * Coalesces repeated detections of the same arbitrage window into lifecycle events.
+ *
+ * A window that stays open across 500 ticks is detected 500 times. The tracker keys each
+ * window by (pair, buyExchange, sellExchange) and emits:
+ * - OPEN on the first detection of a route,
+ * - UPDATE only when the profit percentage moves by at least a "material change",
+ * - CLOSE when the route stops being offered, with the window's duration and peak profit.
+ *
+ * Windows are keyed by route. {@link ArbitrageService} reports only the BEST route of a pair,
+ * so once it reports another route, the previous one is no longer known to be offered: its
+ * window is closed at that detection's time, and the new route's window opens. Keeping it
+ * open until the pair uncrosses would stretch its closed_at, duration and persisted lifecycle
+ * over a time it was not being detected. A route also closes when its pair offers no
+ * opportunity at all ({@link #onNoOpportunity(ConsolidatedPrice)} closes every route of the
+ * pair), or explicitly through {@link #closeRoute}.
+ *
+ * Register it on an {@link ArbitrageService} in push mode
+ * ({@link ArbitrageService#addOpportunityListener(OpportunityListener)}), and persist the
+ * events (e.g. CLOSE only, via {@link DatabaseService#saveOpportunityLifecycle(OpportunityLifecycleEvent)})
+ * instead of every raw detection.
+ *
+ * Thread-safe: events are produced under the tracker's monitor, so every route sees OPEN, UPDATE*, CLOSE in order.
+ */
+public class OpportunityLifecycleTracker implements OpportunityListener {
+
+    /** Default material change: 0.0001, i.e. one basis point of profit. */
+    public static final BigDecimal DEFAULT_MATERIAL_CHANGE = new BigDecimal("0.0001");
+
+    private final BigDecimal materialChange;
+
+    // pair -> (route -> its open window), so a pair's routes can all be closed at once
+    private final Map<CurrencyPair, Map<Route, Window>> openWindows = new HashMap<>();
+
+    private final List<OpportunityLifecycleListener> listeners = new CopyOnWriteArrayList<>();
+
+    public OpportunityLifecycleTracker() {
+        this(DEFAULT_MATERIAL_CHANGE);
+    }
+
+    /**
+     * @param materialChange The smallest move in profit percentage that is worth an UPDATE event.
+     */
+    public OpportunityLifecycleTracker(BigDecimal materialChange) {
+        this.materialChange = materialChange;
+    }
+
+    public void addListener(OpportunityLifecycleListener listener) {
+        listeners.add(listener);
+    }
+
+    public void removeListener(OpportunityLifecycleListener listener) {
+        listeners.remove(listener);
+    }
+
+    /**
+     * Folds one detection into its route's window.
+     */
+    @Override
+    public synchronized void onOpportunity(ArbitrageOpportunity opportunity) {
+        Map<Route, Window> pairWindows = openWindows.computeIfAbsent(opportunity.pair(), pair -> new HashMap<>());
+        Route route = new Route(opportunity.buyExchange(), opportunity.sellExchange());
+        Window window = pairWindows.get(route);
+
+        // 1. First detection of this route: the pair's previous best route is over, then OPEN
+        if (window == null) {
+            for (Window previous : pairWindows.values()) {
+                close(previous, opportunity.timestamp());
+            }
+            pairWindows.clear();
+            window = new Window(opportunity);
+            pairWindows.put(route, window);
+            emit(window.event(Type.OPEN, opportunity.timestamp()));
+            return;
+        }
+
+        // 2. Same route again: coalesce, and UPDATE only on a material change
+        window.detections++;
+        window.latest = opportunity;
+        if (opportunity.profitPercentage().compareTo(window.peakProfitPercentage) > 0) {
+            window.peakProfitPercentage = opportunity.profitPercentage();
+        }
+        BigDecimal move = opportunity.profitPercentage().subtract(window.lastReportedProfitPercentage).abs();
+        if (move.compareTo(materialChange) >= 0) {
+            window.lastReportedProfitPercentage = opportunity.profitPercentage();
+            emit(window.event(Type.UPDATE, opportunity.timestamp()));
+        }
+    }
+
+    /**
+     * The pair's price moved and no longer offers an opportunity: CLOSE every open window of the pair.
+     */
+    @Override
+    public synchronized void onNoOpportunity(ConsolidatedPrice price) {
+        Map<Route, Window> pairWindows = openWindows.remove(price.pair());
+        if (pairWindows != null) {
+            for (Window window : pairWindows.values()) {
+                close(window, price.timestamp());
+            }
+        }
+    }
+
+    /**
+     * One route stopped being offered while its pair may still offer others: CLOSE its window, if any.
+     *
+     * @param closedAt The closing time to record.
+     */
+    public synchronized void closeRoute(CurrencyPair pair, Exchange buyExchange, Exchange sellExchange, Instant closedAt) {
+        Map<Route, Window> pairWindows = openWindows.get(pair);
+        Window window = pairWindows == null ? null : pairWindows.remove(new Route(buyExchange, sellExchange));
+        if (window != null) {
+            if (pairWindows.isEmpty()) {
+                openWindows.remove(pair);
+            }
+            close(window, closedAt);
+        }
+    }
+
+    /**
+     * Closes every open window, e.g. on shutdown, so no lifecycle is lost.
+     *
+     * @param now The closing time to record.
+     */
+    public synchronized void closeAll(Instant now) {
+        List<Map<Route, Window>> all = new ArrayList<>(openWindows.values());
+        openWindows.clear();
+        for (Map<Route, Window> pairWindows : all) {
+            for (Window window : pairWindows.values()) {
+                close(window, now);
+            }
+        }
+    }
+
+    /**
+     * @return The number of windows currently open, across all pairs and routes.
+     */
+    public synchronized int openCount() {
+        int count = 0;
+        for (Map<Route, Window> pairWindows : openWindows.values()) {
+            count += pairWindows.size();
+        }
+        return count;
+    }
+
+    /**
+     * Emits the CLOSE of a window already removed from openWindows.
+     */
+    private void close(Window window, Instant closedAt) {
+        // A closing price can carry an older timestamp than the last detection; never go back in time
+        Instant eventTime = closedAt.isBefore(window.latest.timestamp()) ? window.latest.timestamp() : closedAt;
+        emit(window.event(Type.CLOSE, eventTime));
+    }
+
+    private void emit(OpportunityLifecycleEvent event) {
+        for (OpportunityLifecycleListener listener : listeners) {
+            listener.onLifecycleEvent(event);
+        }
+    }
+
+
+    /**
+     * A route of one pair: where to buy and where to sell.
+     */
+    private record Route(Exchange buyExchange, Exchange sellExchange) {
+    }
+
+    /**
+     * The running state of one open window.
+     */
+    private static final class Window {
+
+        private final CurrencyPair pair;
+        private final Exchange buyExchange;
+        private final Exchange sellExchange;
+        private final Instant openedAt;
+
+        private ArbitrageOpportunity latest;
+        private BigDecimal peakProfitPercentage;
+        private BigDecimal lastReportedProfitPercentage;
+        private long detections = 1;
+
+        Window(ArbitrageOpportunity first) {
+            this.pair = first.pair();
+            this.buyExchange = first.buyExchange();
+            this.sellExchange = first.sellExchange();
+            this.openedAt = first.timestamp();
+            this.latest = first;
+            this.peakProfitPercentage = first.profitPercentage();
+            this.lastReportedProfitPercentage = first.profitPercentage();
+        }
+
+        OpportunityLifecycleEvent event(Type type, Instant eventTime) {
+            return new OpportunityLifecycleEvent(
+                    type, pair, buyExchange, sellExchange, openedAt, eventTime,
+                    latest, peakProfitPercentage, detections);
+        }
+    }
+}
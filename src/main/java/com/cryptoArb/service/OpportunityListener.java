@@ -0,0 +1,28 @@
+package com.cryptoArb.service;
+
+import com.cryptoArb.domain.ArbitrageOpportunity;
+import com.cryptoArb.domain.ConsolidatedPrice;
+
+/**
+ * Receives arbitrage opportunities as soon as {@link ArbitrageService} detects them.
+ *
+ * Called on the thread that delivered the price change, so implementations should be quick
+ * and must not block (hand heavy work, such as persistence, to another thread).
+ */
+@FunctionalInterface
+public interface OpportunityListener {
+
+    /**
+     * @param opportunity The opportunity found for a pair whose price just changed.
+     */
+    void onOpportunity(ArbitrageOpportunity opportunity);
+
+    /**
+     * Called when a pair's price changed and it offers NO opportunity, so listeners that
+     * track open windows can close them. Ignored by default.
+     *
+     * @param price The pair's new consolidated price.
+     */
+    default void onNoOpportunity(ConsolidatedPrice price) {
+    }
+}
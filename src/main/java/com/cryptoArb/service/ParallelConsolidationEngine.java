@@ -0,0 +1,170 @@
+package com.cryptoArb.service;
+
+import com.cryptoArb.domain.ConsolidatedPrice;
+import com.cryptoArb.domain.CurrencyPair;
+import com.cryptoArb.domain.PriceTick;
+import com.cryptoArb.domain.SymbolRegistry;
+
+import java.util.*;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.Future;
+
+/**
+ * Parallel price consolidation on a dedicated, isolated thread pool.
+ *
+ * {@link PriceService#aggregatePricesParallel(List)} runs on ForkJoinPool.commonPool(),
+ * which it shares with every other parallel stream in the process, and every split of the
+ * stream builds its own HashMap that is then merged pairwise.
+ *
+ * This engine instead:
+ * 1. Cuts the input into one contiguous index range per worker.
+ * 2. Each worker folds its range into a private array of accumulators indexed by the
+ *    pair's dense {@link SymbolRegistry} id (no hashing of pairs, no shared state, no locks).
+ * 3. The per-worker arrays are merged pair by pair, in range order, so ties keep the
+ *    tick seen first, exactly like the sequential {@link PriceService#aggregatePrices(List)}.
+ *
+ * The pool is owned by the engine: create one engine per service and close it on shutdown.
+ */
+public class ParallelConsolidationEngine implements AutoCloseable {
+
+    /** Below this many ticks per worker, splitting costs more than it saves. */
+    public static final int DEFAULT_MIN_TICKS_PER_WORKER = 10_000;
+
+    private final ForkJoinPool pool;
+    private final SymbolRegistry registry;
+    private final int minTicksPerWorker;
+
+    /**
+     * Creates an engine with one worker per available core.
+     */
+    public ParallelConsolidationEngine() {
+        this(Runtime.getRuntime().availableProcessors());
+    }
+
+    public ParallelConsolidationEngine(int parallelism) {
+        this(parallelism, SymbolRegistry.global(), DEFAULT_MIN_TICKS_PER_WORKER);
+    }
+
+    /**
+     * @param parallelism       The number of worker threads in the engine's own pool.
+     * @param registry          The registry that maps pairs to dense ids.
+     * @param minTicksPerWorker The smallest range worth handing to a separate worker.
+     */
+    public ParallelConsolidationEngine(int parallelism, SymbolRegistry registry, int minTicksPerWorker) {
+        if (parallelism < 1) {
+            throw new IllegalArgumentException("Parallelism must be at least 1: " + parallelism);
+        }
+        if (minTicksPerWorker < 1) {
+            throw new IllegalArgumentException("Min ticks per worker must be at least 1: " + minTicksPerWorker);
+        }
+        this.pool = new ForkJoinPool(parallelism);
+        this.registry = registry;
+        this.minTicksPerWorker = minTicksPerWorker;
+    }
+
+    /**
+     * @return The number of worker threads in the engine's pool.
+     */
+    public int parallelism() {
+        return pool.getParallelism();
+    }
+
+    /**
+     * Aggregates ticks into one ConsolidatedPrice per pair.
+     * Same result as {@link PriceService#aggregatePrices(List)}.
+     *
+     * @param ticks A list of PriceTick objects; it should support fast random access.
+     * @return A Map of CurrencyPair to its corresponding ConsolidatedPrice.
+     */
+    public Map<CurrencyPair, ConsolidatedPrice> aggregate(List<PriceTick> ticks) {
+        int size = ticks.size();
+        int workers = Math.min(pool.getParallelism(), Math.max(1, size / minTicksPerWorker));
+
+        // 1. Small inputs: one range, folded on the calling thread
+        if (workers == 1) {
+            return toMap(accumulateRange(ticks, 0, size));
+        }
+
+        // 2. One contiguous range per worker, each with its own accumulator array
+        List<Callable<ConsolidatedPriceCollector.Accumulator[]>> shards = new ArrayList<>(workers);
+        for (int w = 0; w < workers; w++) {
+            int from = (int) ((long) size * w / workers);
+            int to = (int) ((long) size * (w + 1) / workers);
+            shards.add(() -> accumulateRange(ticks, from, to));
+        }
+
+        // 3. Merge in range order so ties keep the earliest tick
+        ConsolidatedPriceCollector.Accumulator[] merged = new ConsolidatedPriceCollector.Accumulator[0];
+        for (Future<ConsolidatedPriceCollector.Accumulator[]> shard : pool.invokeAll(shards)) {
+            merged = merge(merged, join(shard));
+        }
+        return toMap(merged);
+    }
+
+    /**
+     * Shuts the engine's pool down. Running aggregations are allowed to finish.
+     */
+    @Override
+    public void close() {
+        pool.shutdown();
+    }
+
+    private ConsolidatedPriceCollector.Accumulator[] accumulateRange(List<PriceTick> ticks, int from, int to) {
+        // Sized for the pairs known now; grown if a new pair shows up mid-range
+        ConsolidatedPriceCollector.Accumulator[] accumulators =
+                new ConsolidatedPriceCollector.Accumulator[registry.pairCount()];
+        for (int i = from; i < to; i++) {
+            PriceTick tick = ticks.get(i);
+            int id = registry.pairId(tick.pair());
+            if (id >= accumulators.length) {
+                accumulators = Arrays.copyOf(accumulators, Math.max(id + 1, accumulators.length * 2));
+            }
+            ConsolidatedPriceCollector.Accumulator accumulator = accumulators[id];
+            if (accumulator == null) {
+                accumulator = new ConsolidatedPriceCollector.Accumulator();
+                accumulators[id] = accumulator;
+            }
+            accumulator.accept(tick);
+        }
+        return accumulators;
+    }
+
+    /**
+     * Merges 'later' into 'earlier', pair by pair. 'later' holds ticks from a later range.
+     */
+    private static ConsolidatedPriceCollector.Accumulator[] merge(ConsolidatedPriceCollector.Accumulator[] earlier,
+                                                                 ConsolidatedPriceCollector.Accumulator[] later) {
+        ConsolidatedPriceCollector.Accumulator[] result =
+                later.length > earlier.length ? Arrays.copyOf(earlier, later.length) : earlier;
+        for (int id = 0; id < later.length; id++) {
+            if (later[id] != null) {
+                result[id] = result[id] == null ? later[id] : result[id].combine(later[id]);
+            }
+        }
+        return result;
+    }
+
+    private static Map<CurrencyPair, ConsolidatedPrice> toMap(ConsolidatedPriceCollector.Accumulator[] accumulators) {
+        Map<CurrencyPair, ConsolidatedPrice> result = new HashMap<>();
+        for (ConsolidatedPriceCollector.Accumulator accumulator : accumulators) {
+            if (accumulator != null && !accumulator.isEmpty()) {
+                ConsolidatedPrice price = accumulator.toConsolidatedPrice();
+                result.put(price.pair(), price);
+            }
+        }
+        return result;
+    }
+
+    private static <T> T join(Future<T> future) {
+        try {
+            return future.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while aggregating prices", e);
+        } catch (ExecutionException e) {
+            throw new IllegalStateException("Price aggregation failed", e.getCause());
+        }
+    }
+}
@@ -9,9 +9,24 @@ import java.time.Instant;
 import java.util.*;
 import java.util.function.Predicate;
 import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 public class PriceService {
 
+    // Optional: only used by aggregatePricesAdaptive
+    private final AggregationStrategySelector strategySelector;
+
+    public PriceService() {
+        this(null);
+    }
+
+    /**
+     * @param strategySelector Chooses sequential, parallel or sharded execution in
+     *                         {@link #aggregatePricesAdaptive(List)}; may be null (always sequential).
+     */
+    public PriceService(AggregationStrategySelector strategySelector) {
+        this.strategySelector = strategySelector;
+    }
 
     /**
      * Filters a list of ticks based on a dynamic condition. (Refactored to Streams)
@@ -20,9 +35,21 @@ public class PriceService {
      * @return A new list containing only matching ticks.
      */
     public List<PriceTick> filter(List<PriceTick> allTicks, Predicate<PriceTick> predicate) {
-        return allTicks.stream()                // 1. Get a stream from the list
-                .filter(predicate)              // 2. Apply the filter (the predicate)
-                .collect(Collectors.toList());  // 3. Collect the results back into a new List
+        return filterStream(allTicks, predicate)   // 1. Get a lazy, filtered stream
+                .collect(Collectors.toList());     // 2. Collect the results back into a new List
+    }
+
+    /**
+     * LAZY variant of {@link #filter(List, Predicate)}: nothing is copied.
+     * The predicate only runs as the caller pulls ticks, so the result can feed straight
+     * into aggregation, detection or persistence, and findFirst()/anyMatch() stop early.
+     *
+     * @param allTicks  The complete list of price ticks.
+     * @param predicate The condition to apply.
+     * @return A single-use Stream of the matching ticks, in list order.
+     */
+    public Stream<PriceTick> filterStream(Collection<PriceTick> allTicks, Predicate<PriceTick> predicate) {
+        return allTicks.stream().filter(predicate);
     }
 
 
@@ -54,6 +81,13 @@ public class PriceService {
         return filter(allTicks, coinbasePredicate);
     }
 
+    /**
+     * LAZY variant of {@link #filterCoinbaseTicks(List)}.
+     */
+    public Stream<PriceTick> filterCoinbaseTicksStream(Collection<PriceTick> allTicks) {
+        return filterStream(allTicks, tick -> "coinbase".equals(tick.exchange().id()));
+    }
+
     // We can even simplify it further by not using a variable
     // and passing the lambda directly:
     public List<PriceTick> filterCoinbaseTicks_RefactoredEvenMore(List<PriceTick> allTicks) {
@@ -130,19 +164,22 @@ public class PriceService {
      */
     public Map<CurrencyPair, ConsolidatedPrice> aggregatePrices(List<PriceTick> ticks) {
         // We group all ticks by their currency pair.
-        // The result is a Map<CurrencyPair, List<PriceTick>>
-        // We then transform that map into our final Map<CurrencyPair, ConsolidatedPrice>
-        return ticks.stream()
-                .collect(Collectors.groupingBy(
-                        PriceTick::pair, // Group by the CurrencyPair
-                        // For each group (List<PriceTick>), we need to convert it into a ConsolidatedPrice
-                        // collectingAndThen allows us to first collect into a List, then transform that List
-                        Collectors.collectingAndThen( // As a downstream collector...
-                                Collectors.toList(),     // ...first collect ticks into a List
-                                this::buildConsolidatedPriceFromList // ...then pass that list to a helper ( old way : ticksList -> buildConsolidatedPriceFromList(ticksList)
-                        )
-
-                ));
+        // Instead of first collecting each group into a List<PriceTick> and then
+        // scanning that list three times, each pair gets a single-pass accumulator
+        // that tracks best bid, best ask and latest timestamp as the ticks stream past.
+        return aggregatePrices(ticks.stream());
+    }
+
+    /**
+     * Aggregates a stream of ticks, e.g. the lazy result of {@link #filterStream(Collection, Predicate)}
+     * or {@link #filterStaleTicksStream(Collection, Instant, Duration)}.
+     * The ticks are folded into per-pair accumulators as they pass, so no intermediate list is built.
+     *
+     * @param ticks A Stream of PriceTick objects; it is consumed by this call.
+     * @return A Map of CurrencyPair to its corresponding ConsolidatedPrice.
+     */
+    public Map<CurrencyPair, ConsolidatedPrice> aggregatePrices(Stream<PriceTick> ticks) {
+        return ticks.collect(ConsolidatedPriceCollector.groupingByPair());
     }
 
 
@@ -156,14 +193,30 @@ public class PriceService {
      * @return A Map of CurrencyPair to its corresponding ConsolidatedPrice.
      */
     public Map<CurrencyPair, ConsolidatedPrice> aggregatePricesParallel(List<PriceTick> ticks) {
+        // Each split folds its ticks into per-pair accumulators; merging two splits
+        // combines accumulators pair by pair (O(pairs)) instead of concatenating lists.
         return ticks.parallelStream() // <-- PARALLEL stream
-                .collect(Collectors.groupingBy(
-                        PriceTick::pair,
-                        Collectors.collectingAndThen(
-                                Collectors.toList(),
-                                this::buildConsolidatedPriceFromList
-                        )
-                ));
+                .collect(ConsolidatedPriceCollector.groupingByPair());
+    }
+
+
+    /**
+     * Aggregates a list of raw price ticks, letting the AggregationStrategySelector choose
+     * how: small batches run sequentially (no fork/join overhead), large ones fan out.
+     * The result is the same whatever the strategy.
+     *
+     * @param ticks A list of PriceTick objects.
+     * @return A Map of CurrencyPair to its corresponding ConsolidatedPrice.
+     */
+    public Map<CurrencyPair, ConsolidatedPrice> aggregatePricesAdaptive(List<PriceTick> ticks) {
+        if (strategySelector == null) {
+            return aggregatePrices(ticks);
+        }
+        return switch (strategySelector.select(ticks)) {
+            case SEQUENTIAL -> aggregatePrices(ticks);
+            case PARALLEL -> aggregatePricesParallel(ticks);
+            case SHARDED -> strategySelector.engine().aggregate(ticks);
+        };
     }
 
 
@@ -173,7 +226,10 @@ public class PriceService {
      *
      * @param ticksForPair A list of ticks, all for the same CurrencyPair.
      * @return A ConsolidatedPrice object.
+     * @deprecated Streams the list three times; replaced by the single-pass
+     * {@link ConsolidatedPriceCollector#toConsolidatedPrice()}.
      */
+    @Deprecated
     private ConsolidatedPrice buildConsolidatedPriceFromList(List<PriceTick> ticksForPair) {
         // Find the tick with the HIGHEST bid price
         PriceTick bestBidTick = ticksForPair.stream()
@@ -213,13 +269,14 @@ public class PriceService {
      * @return An Optional containing the ConsolidatedPrice if found, or Optional.empty() if not.
      */
     public Optional<ConsolidatedPrice> getConsolidatedPriceForPair(List<PriceTick> ticks, CurrencyPair pair) {
-        // 1. Run our existing aggregation logic
-        Map<CurrencyPair, ConsolidatedPrice> consolidatedPrices = this.aggregatePricesParallel(ticks);
-
-        // 2. Get the result from the map (which could be null)
-        ConsolidatedPrice result = consolidatedPrices.get(pair);
-
-        // 3. Wrap the result in an Optional.
+        // 1. Consolidate ONLY the ticks of the requested pair.
+        //    (Previously we aggregated every pair and then picked one out of the map.)
+        //    For repeated lookups on the same ticks, use a pair-partitioned TickStore instead.
+        ConsolidatedPrice result = ticks.stream()
+                .filter(tick -> pair.equals(tick.pair()))
+                .collect(ConsolidatedPriceCollector.toConsolidatedPrice());
+
+        // 2. Wrap the result (null if the pair had no ticks) in an Optional.
         return Optional.ofNullable(result);
     }
 
@@ -233,18 +290,23 @@ public class PriceService {
      * @return A new list containing only the fresh ticks.
      */
     public List<PriceTick> filterStaleTicks(List<PriceTick> ticks, Instant currentTime, Duration maxAge) {
-        return ticks.stream()
-                .filter(tick -> {
-                    // Calculate the tick's age
-                    Duration age = Duration.between(tick.timestamp(), currentTime);
-
-                    // Keep it only if its age is less than or equal to the maxAge.
-                    // compareTo returns 0 if equal, -1 if less, 1 if greater.
-                    return age.compareTo(maxAge) <= 0;
-                })
+        // (For a window that is checked every cycle, see SlidingTickWindow.)
+        return filterStaleTicksStream(ticks, currentTime, maxAge)
                 .collect(Collectors.toList());
     }
 
+    /**
+     * LAZY variant of {@link #filterStaleTicks(List, Instant, Duration)}.
+     *
+     * @return A single-use Stream of the fresh ticks, in input order.
+     */
+    public Stream<PriceTick> filterStaleTicksStream(Collection<PriceTick> ticks, Instant currentTime, Duration maxAge) {
+        // "age <= maxAge" is the same as "timestamp >= currentTime - maxAge".
+        // Computing the cutoff once avoids allocating a Duration for every tick.
+        Instant cutoff = currentTime.minus(maxAge);
+        return filterStream(ticks, tick -> !tick.timestamp().isBefore(cutoff));
+    }
+
 
 // --- TRADITIONAL AGGREGATION METHODS (For Reference) ---
 
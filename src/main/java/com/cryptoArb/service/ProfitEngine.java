@@ -0,0 +1,270 @@
+package com.cryptoArb.service;
+
+import com.cryptoArb.domain.*;
+
+import java.math.BigDecimal;
+import java.math.MathContext;
+import java.math.RoundingMode;
+import java.util.*;
+
+/**
+ * Fee-aware profitability check for cross-exchange arbitrage.
+ *
+ * "bestBid > bestAsk" ignores fees: after a 0.1% taker fee on each side and a withdrawal
+ * cost, most thin crossings lose money. A crossing is only worth an ArbitrageOpportunity if:
+ * <pre>
+ *   bid * (1 - sellFee)  >  ask * (1 + buyFee + buyWithdrawal) * (1 + minProfit(pair))
+ * </pre>
+ * All rates are precomputed ONCE into fixed-point multipliers (scaled by 10^8, see
+ * {@link FixedPointPrice}) in arrays indexed by {@link SymbolRegistry} ids. The check is then
+ * a few long multiplications, compared exactly as 128-bit products (Math.multiplyHigh),
+ * and an unprofitable crossing is rejected before anything is allocated.
+ * A price outside the fixed-point range (about 92 billion, see {@link FixedPointPrice#fits})
+ * falls back to the same check in BigDecimal instead of throwing.
+ *
+ * Immutable and thread-safe once built. Create one with {@link #builder()}.
+ */
+public final class ProfitEngine {
+
+    private static final MathContext MC = new MathContext(10, RoundingMode.HALF_UP);
+
+    private final SymbolRegistry registry;
+
+    // Indexed by exchange id: 1 - takerFee, and 1 + takerFee + withdrawalCost
+    private final long[] sellMultipliers;
+    private final long[] buyMultipliers;
+    private final long defaultSellMultiplier;
+    private final long defaultBuyMultiplier;
+
+    // Indexed by pair id: 1 + minProfit
+    private final long[] thresholdMultipliers;
+    private final long defaultThresholdMultiplier;
+
+    private ProfitEngine(Builder builder) {
+        this.registry = builder.registry;
+
+        if (builder.defaultTakerFee.compareTo(BigDecimal.ONE) >= 0) {
+            throw new IllegalArgumentException("Default taker fee must be below 1: " + builder.defaultTakerFee);
+        }
+        this.defaultSellMultiplier = FixedPointPrice.ONE - fixed(builder.defaultTakerFee);
+        this.defaultBuyMultiplier = FixedPointPrice.ONE + fixed(builder.defaultTakerFee) + fixed(builder.defaultWithdrawalCost);
+        this.defaultThresholdMultiplier = FixedPointPrice.ONE + fixed(builder.defaultMinProfit);
+
+        // 1. One slot per known exchange; exchanges without their own rates get the defaults
+        Set<Exchange> exchanges = new HashSet<>(builder.takerFees.keySet());
+        exchanges.addAll(builder.withdrawalCosts.keySet());
+        int exchangeSlots = 0;
+        for (Exchange exchange : exchanges) {
+            exchangeSlots = Math.max(exchangeSlots, registry.exchangeId(exchange) + 1);
+        }
+        this.sellMultipliers = new long[exchangeSlots];
+        this.buyMultipliers = new long[exchangeSlots];
+        Arrays.fill(sellMultipliers, defaultSellMultiplier);
+        Arrays.fill(buyMultipliers, defaultBuyMultiplier);
+        for (Exchange exchange : exchanges) {
+            int id = registry.exchangeId(exchange);
+            BigDecimal fee = builder.takerFees.getOrDefault(exchange, builder.defaultTakerFee);
+            BigDecimal withdrawal = builder.withdrawalCosts.getOrDefault(exchange, builder.defaultWithdrawalCost);
+            if (fee.compareTo(BigDecimal.ONE) >= 0) {
+                throw new IllegalArgumentException("Taker fee of " + exchange.id() + " must be below 1: " + fee);
+            }
+            sellMultipliers[id] = FixedPointPrice.ONE - fixed(fee);
+            buyMultipliers[id] = FixedPointPrice.ONE + fixed(fee) + fixed(withdrawal);
+        }
+
+        // 2. Same for the per-pair minimum profit
+        int pairSlots = 0;
+        for (CurrencyPair pair : builder.minProfits.keySet()) {
+            pairSlots = Math.max(pairSlots, registry.pairId(pair) + 1);
+        }
+        this.thresholdMultipliers = new long[pairSlots];
+        Arrays.fill(thresholdMultipliers, defaultThresholdMultiplier);
+        builder.minProfits.forEach((pair, minProfit) ->
+                thresholdMultipliers[registry.pairId(pair)] = FixedPointPrice.ONE + fixed(minProfit));
+    }
+
+    public static Builder builder() {
+        return new Builder();
+    }
+
+    /**
+     * The allocation-free check, on fixed-point prices.
+     *
+     * @param pair         The pair traded.
+     * @param buyExchange  Where we buy (at the ask).
+     * @param ask          The ask, fixed point.
+     * @param sellExchange Where we sell (at the bid).
+     * @param bid          The bid, fixed point.
+     * @return true if the crossing clears fees, withdrawal cost and the pair's minimum profit.
+     */
+    public boolean isProfitable(CurrencyPair pair, Exchange buyExchange, long ask, Exchange sellExchange, long bid) {
+        if (bid <= 0 || ask <= 0) {
+            return false;
+        }
+        // 1. Fold the pair threshold into the buy multiplier, rounding UP (never accept a loss)
+        long buyMultiplier = buyMultiplier(buyExchange);
+        long threshold = thresholdMultiplier(pair);
+        long effectiveBuy = ceilDiv(Math.multiplyExact(buyMultiplier, threshold), FixedPointPrice.ONE);
+
+        // 2. Compare bid * sellMultiplier against ask * effectiveBuy as exact 128-bit products
+        return compare128(bid, sellMultiplier(sellExchange), ask, effectiveBuy) > 0;
+    }
+
+    /**
+     * Checks a consolidated price and, only if it is profitable after costs,
+     * creates the opportunity (buy at the best ask, sell at the best bid).
+     *
+     * @return The opportunity, or null if the crossing does not clear costs and threshold.
+     */
+    public ArbitrageOpportunity evaluate(ConsolidatedPrice price) {
+        // A zero or negative quote can never be bought or sold at; reject it before any conversion
+        if (price.bestAsk().signum() <= 0 || price.bestBid().signum() <= 0) {
+            return null;
+        }
+        boolean profitable;
+        if (FixedPointPrice.fits(price.bestBid()) && FixedPointPrice.fits(price.bestAsk())) {
+            long bid = FixedPointPrice.fromBigDecimal(price.bestBid());
+            long ask = FixedPointPrice.fromBigDecimal(price.bestAsk());
+            profitable = isProfitable(price.pair(), price.bestAskExchange(), ask, price.bestBidExchange(), bid);
+        } else {
+            // Out of the fixed-point range: rare, so the allocating comparison is fine
+            profitable = isProfitableExact(price);
+        }
+        if (!profitable) {
+            return null;
+        }
+        return new ArbitrageOpportunity(
+                price.pair(),
+                price.timestamp(),
+                price.bestAskExchange(),
+                price.bestAsk(),
+                price.bestBidExchange(),
+                price.bestBid()
+        );
+    }
+
+    /**
+     * The profit after fees and withdrawal cost, for reporting.
+     * Formula: (bid * (1 - sellFee) - ask * (1 + buyFee + buyWithdrawal)) / (ask * (1 + buyFee + buyWithdrawal))
+     *
+     * @return The net profit as a percentage (e.g., 0.01 for 1%); negative for a loss.
+     */
+    public BigDecimal netProfitPercentage(ArbitrageOpportunity opportunity) {
+        BigDecimal proceeds = opportunity.sellPrice()
+                .multiply(FixedPointPrice.toBigDecimal(sellMultiplier(opportunity.sellExchange())));
+        BigDecimal cost = opportunity.buyPrice()
+                .multiply(FixedPointPrice.toBigDecimal(buyMultiplier(opportunity.buyExchange())));
+        return proceeds.subtract(cost).divide(cost, MC);
+    }
+
+    /**
+     * The same check as {@link #isProfitable}, in BigDecimal, for prices without a fixed-point value.
+     */
+    private boolean isProfitableExact(ConsolidatedPrice price) {
+        BigDecimal proceeds = price.bestBid()
+                .multiply(FixedPointPrice.toBigDecimal(sellMultiplier(price.bestBidExchange())));
+        BigDecimal cost = price.bestAsk()
+                .multiply(FixedPointPrice.toBigDecimal(buyMultiplier(price.bestAskExchange())))
+                .multiply(FixedPointPrice.toBigDecimal(thresholdMultiplier(price.pair())));
+        return proceeds.compareTo(cost) > 0;
+    }
+
+    private long sellMultiplier(Exchange exchange) {
+        int id = registry.findExchangeId(exchange);
+        return id >= 0 && id < sellMultipliers.length ? sellMultipliers[id] : defaultSellMultiplier;
+    }
+
+    private long buyMultiplier(Exchange exchange) {
+        int id = registry.findExchangeId(exchange);
+        return id >= 0 && id < buyMultipliers.length ? buyMultipliers[id] : defaultBuyMultiplier;
+    }
+
+    private long thresholdMultiplier(CurrencyPair pair) {
+        int id = registry.findPairId(pair);
+        return id >= 0 && id < thresholdMultipliers.length ? thresholdMultipliers[id] : defaultThresholdMultiplier;
+    }
+
+    /**
+     * Compares a * b with c * d exactly. All four values must be non-negative.
+     */
+    static int compare128(long a, long b, long c, long d) {
+        long leftHigh = Math.multiplyHigh(a, b);
+        long rightHigh = Math.multiplyHigh(c, d);
+        if (leftHigh != rightHigh) {
+            return Long.compare(leftHigh, rightHigh);
+        }
+        // Same high word: the low words decide, read as unsigned
+        return Long.compareUnsigned(a * b, c * d);
+    }
+
+    private static long ceilDiv(long value, long divisor) {
+        return -Math.floorDiv(-value, divisor);
+    }
+
+    private static long fixed(BigDecimal rate) {
+        if (rate.signum() < 0) {
+            throw new IllegalArgumentException("Rates must not be negative: " + rate);
+        }
+        return FixedPointPrice.fromBigDecimal(rate);
+    }
+
+
+    /**
+     * Collects the fee tables. Rates are fractions: 0.001 means 0.1%.
+     */
+    public static final class Builder {
+
+        private SymbolRegistry registry = SymbolRegistry.global();
+        private final Map<Exchange, BigDecimal> takerFees = new HashMap<>();
+        private final Map<Exchange, BigDecimal> withdrawalCosts = new HashMap<>();
+        private final Map<CurrencyPair, BigDecimal> minProfits = new HashMap<>();
+        private BigDecimal defaultTakerFee = BigDecimal.ZERO;
+        private BigDecimal defaultWithdrawalCost = BigDecimal.ZERO;
+        private BigDecimal defaultMinProfit = BigDecimal.ZERO;
+
+        private Builder() {
+        }
+
+        public Builder registry(SymbolRegistry registry) {
+            this.registry = registry;
+            return this;
+        }
+
+        /** The taker fee charged by an exchange, on both buys and sells. */
+        public Builder takerFee(Exchange exchange, BigDecimal rate) {
+            takerFees.put(exchange, rate);
+            return this;
+        }
+
+        /** The cost of moving the bought asset off an exchange, as a fraction of its value. */
+        public Builder withdrawalCost(Exchange exchange, BigDecimal rate) {
+            withdrawalCosts.put(exchange, rate);
+            return this;
+        }
+
+        /** The smallest net profit worth acting on for a pair. */
+        public Builder minProfit(CurrencyPair pair, BigDecimal rate) {
+            minProfits.put(pair, rate);
+            return this;
+        }
+
+        public Builder defaultTakerFee(BigDecimal rate) {
+            this.defaultTakerFee = rate;
+            return this;
+        }
+
+        public Builder defaultWithdrawalCost(BigDecimal rate) {
+            this.defaultWithdrawalCost = rate;
+            return this;
+        }
+
+        public Builder defaultMinProfit(BigDecimal rate) {
+            this.defaultMinProfit = rate;
+            return this;
+        }
+
+        public ProfitEngine build() {
+            return new ProfitEngine(this);
+        }
+    }
+}
@@ -0,0 +1,319 @@
+package com.cryptoArb.service;
+
+import com.cryptoArb.domain.ConsolidatedPrice;
+import com.cryptoArb.domain.CurrencyPair;
+import com.cryptoArb.domain.FixedPointPrice;
+import com.cryptoArb.domain.PriceTick;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * A sliding time window over recent ticks, one ring buffer per currency pair.
+ *
+ * {@link PriceService#filterStaleTicks(List, Instant, Duration)} re-checks the whole history
+ * and copies the survivors on every call. Here ticks are kept in arrival (= time) order,
+ * so expiring old ticks just moves the head of the ring forward: O(1) per evicted tick.
+ *
+ * Each pair also keeps two monotonic deques (the classic "sliding window maximum" trick),
+ * so the best bid and best ask of the fresh ticks are always at the front of their deque.
+ * Consolidating a pair therefore needs no scan at all.
+ *
+ * A tick is fresh while its age is at most maxAge, the same rule as filterStaleTicks.
+ * Ticks usually arrive in time order per pair. A tick that is still fresh but older than the
+ * newest one of its pair (clock skew between exchanges) is NOT dropped: it is inserted at its
+ * time position, and the two deques are rebuilt. That costs O(window) instead of O(1), but
+ * only for the rare out-of-order tick.
+ */
+public class SlidingTickWindow {
+
+    private final Duration maxAge;
+    private final Map<CurrencyPair, PairWindow> windows = new ConcurrentHashMap<>();
+
+    // The "current time" of the window. Only moves forward.
+    private volatile Instant now = Instant.MIN;
+    private volatile Instant cutoff = Instant.MIN;
+
+    /**
+     * @param maxAge The maximum age for a tick to be considered fresh.
+     */
+    public SlidingTickWindow(Duration maxAge) {
+        this.maxAge = maxAge;
+    }
+
+    /**
+     * Moves the window's clock forward. Stale ticks are evicted lazily,
+     * the next time their pair is touched, so this call is O(1).
+     *
+     * @param currentTime The new current time (ignored if it is before the current one).
+     */
+    public synchronized void advanceTo(Instant currentTime) {
+        if (currentTime.isAfter(now)) {
+            now = currentTime;
+            cutoff = currentTime.minus(maxAge);
+        }
+    }
+
+    /**
+     * Adds a tick to its pair's window.
+     *
+     * @return false if the tick was rejected because it is already stale.
+     */
+    public boolean add(PriceTick tick) {
+        return windows.computeIfAbsent(tick.pair(), pair -> new PairWindow())
+                .add(tick, cutoff);
+    }
+
+    /**
+     * @return The fresh ticks of one pair, oldest first.
+     */
+    public List<PriceTick> freshTicks(CurrencyPair pair) {
+        PairWindow window = windows.get(pair);
+        return window == null ? List.of() : window.freshTicks(cutoff);
+    }
+
+    /**
+     * @return The number of fresh ticks of one pair.
+     */
+    public int size(CurrencyPair pair) {
+        PairWindow window = windows.get(pair);
+        return window == null ? 0 : window.size(cutoff);
+    }
+
+    /**
+     * Consolidates the fresh ticks of one pair without scanning them.
+     *
+     * @return An Optional containing the ConsolidatedPrice, or Optional.empty() if the pair has no fresh tick.
+     */
+    public Optional<ConsolidatedPrice> getConsolidatedPrice(CurrencyPair pair) {
+        PairWindow window = windows.get(pair);
+        return window == null ? Optional.empty() : Optional.ofNullable(window.consolidate(cutoff));
+    }
+
+    /**
+     * Consolidates the fresh ticks of every pair (pairs with no fresh tick are left out).
+     */
+    public Map<CurrencyPair, ConsolidatedPrice> aggregatePrices() {
+        Instant currentCutoff = cutoff;
+        Map<CurrencyPair, ConsolidatedPrice> result = new HashMap<>();
+        windows.forEach((pair, window) -> {
+            ConsolidatedPrice price = window.consolidate(currentCutoff);
+            if (price != null) {
+                result.put(pair, price);
+            }
+        });
+        return result;
+    }
+
+
+    /**
+     * The fresh ticks of ONE pair in a growable ring buffer, plus the two monotonic deques.
+     *
+     * Positions are absolute sequence numbers (they never wrap); a slot is seq & mask.
+     */
+    private static final class PairWindow {
+
+        private PriceTick[] ticks = new PriceTick[16];
+        private long[] bids = new long[16];
+        private long[] asks = new long[16];
+        private int mask = 15;
+        private long head; // oldest fresh tick
+        private long tail; // next free sequence number
+
+        // Sequence numbers of candidate best bids (decreasing bid) and best asks (increasing ask)
+        private final SequenceDeque bidCandidates = new SequenceDeque();
+        private final SequenceDeque askCandidates = new SequenceDeque();
+
+        synchronized boolean add(PriceTick tick, Instant cutoff) {
+            evict(cutoff);
+
+            // 1. Reject stale ticks only
+            if (tick.timestamp().isBefore(cutoff)) {
+                return false;
+            }
+            if (tail - head == ticks.length) {
+                grow();
+            }
+
+            // 2. Fresh but older than the newest tick (another exchange's clock runs ahead): insert in time order
+            if (tail > head && tick.timestamp().isBefore(ticks[slot(tail - 1)].timestamp())) {
+                insertOutOfOrder(tick);
+                return true;
+            }
+
+            // 3. The usual case: append to the ring
+            store(tail, tick);
+            addCandidate(tail);
+            tail++;
+            return true;
+        }
+
+        /**
+         * Shifts the newer ticks one slot towards the tail, stores the tick in the gap,
+         * then rebuilds the deques: sequence numbers after the gap have all moved.
+         */
+        private void insertOutOfOrder(PriceTick tick) {
+            long position = tail;
+            while (position > head && ticks[slot(position - 1)].timestamp().isAfter(tick.timestamp())) {
+                int from = slot(position - 1);
+                int to = slot(position);
+                ticks[to] = ticks[from];
+                bids[to] = bids[from];
+                asks[to] = asks[from];
+                position--;
+            }
+            store(position, tick);
+            tail++;
+
+            bidCandidates.clear();
+            askCandidates.clear();
+            for (long seq = head; seq < tail; seq++) {
+                addCandidate(seq);
+            }
+        }
+
+        private void store(long seq, PriceTick tick) {
+            int slot = slot(seq);
+            ticks[slot] = tick;
+            bids[slot] = FixedPointPrice.fromBigDecimal(tick.bidPrice());
+            asks[slot] = FixedPointPrice.fromBigDecimal(tick.askPrice());
+        }
+
+        /**
+         * A new tick makes every older, strictly WORSE candidate useless:
+         * it will expire later than them and beats them until then.
+         * Equal prices are kept, so on ties the older tick stays in front.
+         */
+        private void addCandidate(long seq) {
+            int slot = slot(seq);
+            while (!bidCandidates.isEmpty() && bids[slot(bidCandidates.peekLast())] < bids[slot]) {
+                bidCandidates.pollLast();
+            }
+            bidCandidates.addLast(seq);
+            while (!askCandidates.isEmpty() && asks[slot(askCandidates.peekLast())] > asks[slot]) {
+                askCandidates.pollLast();
+            }
+            askCandidates.addLast(seq);
+        }
+
+        synchronized List<PriceTick> freshTicks(Instant cutoff) {
+            evict(cutoff);
+            List<PriceTick> result = new ArrayList<>((int) (tail - head));
+            for (long seq = head; seq < tail; seq++) {
+                result.add(ticks[slot(seq)]);
+            }
+            return result;
+        }
+
+        synchronized int size(Instant cutoff) {
+            evict(cutoff);
+            return (int) (tail - head);
+        }
+
+        synchronized ConsolidatedPrice consolidate(Instant cutoff) {
+            evict(cutoff);
+            if (head == tail) {
+                return null;
+            }
+            PriceTick bestBid = ticks[slot(bidCandidates.peekFirst())];
+            PriceTick bestAsk = ticks[slot(askCandidates.peekFirst())];
+            PriceTick latest = ticks[slot(tail - 1)]; // ticks are time-ordered
+            return new ConsolidatedPrice(
+                    latest.pair(),
+                    latest.timestamp(),
+                    bestBid.bidPrice(),
+                    bestBid.exchange(),
+                    bestAsk.askPrice(),
+                    bestAsk.exchange()
+            );
+        }
+
+        /**
+         * Drops ticks older than the cutoff from the head of the ring (and of the deques).
+         */
+        private void evict(Instant cutoff) {
+            while (head < tail && ticks[slot(head)].timestamp().isBefore(cutoff)) {
+                ticks[slot(head)] = null; // let the GC have it
+                if (bidCandidates.peekFirst() == head) {
+                    bidCandidates.pollFirst();
+                }
+                if (askCandidates.peekFirst() == head) {
+                    askCandidates.pollFirst();
+                }
+                head++;
+            }
+        }
+
+        private int slot(long seq) {
+            return (int) (seq & mask);
+        }
+
+        private void grow() {
+            int capacity = ticks.length * 2;
+            int newMask = capacity - 1;
+            PriceTick[] newTicks = new PriceTick[capacity];
+            long[] newBids = new long[capacity];
+            long[] newAsks = new long[capacity];
+            for (long seq = head; seq < tail; seq++) {
+                newTicks[(int) (seq & newMask)] = ticks[slot(seq)];
+                newBids[(int) (seq & newMask)] = bids[slot(seq)];
+                newAsks[(int) (seq & newMask)] = asks[slot(seq)];
+            }
+            ticks = newTicks;
+            bids = newBids;
+            asks = newAsks;
+            mask = newMask;
+        }
+    }
+
+    /**
+     * A minimal growable deque of primitive longs (ArrayDeque<Long> would box every element).
+     */
+    private static final class SequenceDeque {
+
+        private long[] elements = new long[16];
+        private int first;
+        private int size;
+
+        boolean isEmpty() {
+            return size == 0;
+        }
+
+        long peekFirst() {
+            return size == 0 ? -1 : elements[first];
+        }
+
+        long peekLast() {
+            return elements[(first + size - 1) & (elements.length - 1)];
+        }
+
+        void pollFirst() {
+            first = (first + 1) & (elements.length - 1);
+            size--;
+        }
+
+        void pollLast() {
+            size--;
+        }
+
+        void clear() {
+            first = 0;
+            size = 0;
+        }
+
+        void addLast(long value) {
+            if (size == elements.length) {
+                long[] grown = new long[elements.length * 2];
+                for (int i = 0; i < size; i++) {
+                    grown[i] = elements[(first + i) & (elements.length - 1)];
+                }
+                elements = grown;
+                first = 0;
+            }
+            elements[(first + size) & (elements.length - 1)] = value;
+            size++;
+        }
+    }
+}
@@ -0,0 +1,180 @@
+package com.cryptoArb.service;
+
+import com.cryptoArb.domain.ConsolidatedPrice;
+import com.cryptoArb.domain.CurrencyPair;
+import com.cryptoArb.domain.FixedPointPrice;
+import com.cryptoArb.domain.TickBatch;
+
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Aggregation and filtering kernels over a columnar {@link TickBatch}.
+ *
+ * Every kernel is a plain indexed loop over primitive columns: no boxing, no
+ * BigDecimal, no per-tick objects. The tight min/max loops over a single column
+ * are the shape the JIT's auto-vectorizer can turn into SIMD code.
+ */
+public final class TickBatchKernels {
+
+    private TickBatchKernels() {
+        // Static kernels only
+    }
+
+    /**
+     * Consolidates every pair of the batch in ONE pass over the columns.
+     * Same result as {@link PriceService#aggregatePrices(java.util.List)}: ties keep the first tick.
+     *
+     * @param batch The columnar ticks.
+     * @return A Map of CurrencyPair to its ConsolidatedPrice.
+     */
+    public static Map<CurrencyPair, ConsolidatedPrice> aggregate(TickBatch batch) {
+        int pairCount = batch.pairCount();
+
+        // 1. Per-pair running state, indexed by pair id (row index of the best tick so far)
+        int[] bestBidRow = new int[pairCount];
+        int[] bestAskRow = new int[pairCount];
+        int[] latestRow = new int[pairCount];
+        Arrays.fill(bestBidRow, -1);
+
+        // 2. One sequential pass over all rows
+        for (int i = 0; i < batch.size(); i++) {
+            int p = batch.pairIdAt(i);
+            if (bestBidRow[p] == -1) {
+                bestBidRow[p] = i;
+                bestAskRow[p] = i;
+                latestRow[p] = i;
+                continue;
+            }
+            if (batch.bidAt(i) > batch.bidAt(bestBidRow[p])) {
+                bestBidRow[p] = i;
+            }
+            if (batch.askAt(i) < batch.askAt(bestAskRow[p])) {
+                bestAskRow[p] = i;
+            }
+            if (batch.timestampAt(i) > batch.timestampAt(latestRow[p])) {
+                latestRow[p] = i;
+            }
+        }
+
+        // 3. Convert to the domain objects only for the (few) winners.
+        //    Pair ids are global, so skip the ones this batch never saw.
+        Map<CurrencyPair, ConsolidatedPrice> result = new HashMap<>();
+        for (int p = 0; p < pairCount; p++) {
+            if (bestBidRow[p] == -1) {
+                continue;
+            }
+            result.put(batch.pair(p), new ConsolidatedPrice(
+                    batch.pair(p),
+                    TickBatch.toInstant(batch.timestampAt(latestRow[p])),
+                    FixedPointPrice.toBigDecimal(batch.bidAt(bestBidRow[p])),
+                    batch.exchange(batch.exchangeIdAt(bestBidRow[p])),
+                    FixedPointPrice.toBigDecimal(batch.askAt(bestAskRow[p])),
+                    batch.exchange(batch.exchangeIdAt(bestAskRow[p]))
+            ));
+        }
+        return result;
+    }
+
+    /**
+     * @return The row index of the highest bid for a pair, or -1 if the pair has no ticks (ties: first row).
+     */
+    public static int argMaxBid(TickBatch batch, int pairId) {
+        int best = -1;
+        for (int i = 0; i < batch.size(); i++) {
+            if (batch.pairIdAt(i) == pairId && (best == -1 || batch.bidAt(i) > batch.bidAt(best))) {
+                best = i;
+            }
+        }
+        return best;
+    }
+
+    /**
+     * @return The row index of the lowest ask for a pair, or -1 if the pair has no ticks (ties: first row).
+     */
+    public static int argMinAsk(TickBatch batch, int pairId) {
+        int best = -1;
+        for (int i = 0; i < batch.size(); i++) {
+            if (batch.pairIdAt(i) == pairId && (best == -1 || batch.askAt(i) < batch.askAt(best))) {
+                best = i;
+            }
+        }
+        return best;
+    }
+
+    /**
+     * @return The highest bid in the whole batch (Long.MIN_VALUE if empty).
+     */
+    public static long maxBid(TickBatch batch) {
+        long max = Long.MIN_VALUE;
+        for (int i = 0; i < batch.size(); i++) {
+            max = Math.max(max, batch.bidAt(i));
+        }
+        return max;
+    }
+
+    /**
+     * @return The lowest ask in the whole batch (Long.MAX_VALUE if empty).
+     */
+    public static long minAsk(TickBatch batch) {
+        long min = Long.MAX_VALUE;
+        for (int i = 0; i < batch.size(); i++) {
+            min = Math.min(min, batch.askAt(i));
+        }
+        return min;
+    }
+
+    /**
+     * Selects the rows quoted by one exchange.
+     *
+     * @return The matching row indexes, in order.
+     */
+    public static int[] selectExchange(TickBatch batch, int exchangeId) {
+        int[] rows = new int[batch.size()];
+        int count = 0;
+        for (int i = 0; i < batch.size(); i++) {
+            if (batch.exchangeIdAt(i) == exchangeId) {
+                rows[count++] = i;
+            }
+        }
+        return Arrays.copyOf(rows, count);
+    }
+
+    /**
+     * Selects the rows quoted by any exchange in a set of exchange ids.
+     * Each row costs one BitSet test instead of a String comparison.
+     *
+     * @param exchangeIds The wanted exchange ids (see {@link com.cryptoArb.domain.SymbolRegistry}).
+     * @return The matching row indexes, in order.
+     */
+    public static int[] selectExchanges(TickBatch batch, BitSet exchangeIds) {
+        int[] rows = new int[batch.size()];
+        int count = 0;
+        for (int i = 0; i < batch.size(); i++) {
+            if (exchangeIds.get(batch.exchangeIdAt(i))) {
+                rows[count++] = i;
+            }
+        }
+        return Arrays.copyOf(rows, count);
+    }
+
+    /**
+     * Selects the rows whose timestamp is at or after a cutoff
+     * (the columnar version of {@link PriceService#filterStaleTicks}).
+     *
+     * @param minEpochNanos The oldest timestamp to keep, in epoch nanoseconds.
+     * @return The matching row indexes, in order.
+     */
+    public static int[] selectNotOlderThan(TickBatch batch, long minEpochNanos) {
+        int[] rows = new int[batch.size()];
+        int count = 0;
+        for (int i = 0; i < batch.size(); i++) {
+            if (batch.timestampAt(i) >= minEpochNanos) {
+                rows[count++] = i;
+            }
+        }
+        return Arrays.copyOf(rows, count);
+    }
+}
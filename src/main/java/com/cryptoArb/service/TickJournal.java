@@ -0,0 +1,344 @@
+package com.cryptoArb.service;
+
+import com.cryptoArb.domain.CurrencyPair;
+import com.cryptoArb.domain.Exchange;
+import com.cryptoArb.domain.FixedPointPrice;
+import com.cryptoArb.domain.PriceTick;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Instant;
+import java.util.*;
+import java.util.stream.Stream;
+
+/**
+ * An append-only binary journal of PriceTicks, written through memory-mapped files.
+ *
+ * Appending a tick is a handful of puts into a MappedByteBuffer: no JDBC round trip,
+ * no system call per record. The OS writes the pages back to disk; call {@link #flush()}
+ * to force them out (e.g. once per batch).
+ *
+ * The journal is a directory of fixed-size segment files (ticks-0000000000.journal, ...).
+ * When a record does not fit in the current segment, the journal rolls to the next one.
+ *
+ * Record layout (big-endian):
+ * <pre>
+ *   int   length        bytes after this field; 0 marks the end of a segment's data
+ *                       (a 0 is written after every record, so the end is always marked)
+ *   long  epochSecond
+ *   int   nano
+ *   long  bid           fixed point, scaled by 10^8 (see {@link FixedPointPrice})
+ *   long  ask           fixed point, scaled by 10^8
+ *   byte + bytes        base currency (UTF-8)
+ *   byte + bytes        quote currency (UTF-8)
+ *   byte + bytes        exchange id (UTF-8)
+ * </pre>
+ *
+ * One writer per journal (append is synchronized). Readers are meant for replay and
+ * recovery of data that was flushed before the reader was opened.
+ */
+public class TickJournal implements AutoCloseable {
+
+    /** Default segment size: 64 MB, roughly 1.2 million ticks. */
+    public static final int DEFAULT_SEGMENT_SIZE = 64 * 1024 * 1024;
+
+    private static final String SEGMENT_PREFIX = "ticks-";
+    private static final String SEGMENT_SUFFIX = ".journal";
+
+    // length + epochSecond + nano + bid + ask + three length bytes
+    private static final int FIXED_RECORD_BYTES = 4 + 8 + 4 + 8 + 8 + 3;
+
+    private final Path directory;
+    private final int segmentSize;
+
+    private MappedByteBuffer segment;
+    private int segmentIndex;
+
+    private TickJournal(Path directory, int segmentSize) {
+        this.directory = directory;
+        this.segmentSize = segmentSize;
+    }
+
+    /**
+     * Opens (or creates) a journal with the default segment size.
+     */
+    public static TickJournal open(Path directory) {
+        return open(directory, DEFAULT_SEGMENT_SIZE);
+    }
+
+    /**
+     * Opens (or creates) a journal. New ticks are appended after the existing ones.
+     *
+     * @param directory   The directory holding the segment files.
+     * @param segmentSize The size of each segment file in bytes.
+     * @return The opened journal, positioned at the end of its data.
+     */
+    public static TickJournal open(Path directory, int segmentSize) {
+        TickJournal journal = new TickJournal(directory, segmentSize);
+        try {
+            Files.createDirectories(directory);
+            List<Path> segments = listSegments(directory);
+            if (segments.isEmpty()) {
+                journal.mapSegment(0);
+            } else {
+                // Continue writing at the end of the last segment
+                Path last = segments.get(segments.size() - 1);
+                journal.mapSegment(segmentIndexOf(last));
+                journal.segment.position(endOfData(journal.segment));
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to open tick journal in " + directory, e);
+        }
+        return journal;
+    }
+
+    /**
+     * Appends one tick to the journal.
+     *
+     * @throws IllegalArgumentException if a field is too long or the record does not fit in a segment.
+     */
+    public synchronized void append(PriceTick tick) {
+        byte[] base = encode(tick.pair().base());
+        byte[] quote = encode(tick.pair().quote());
+        byte[] exchange = encode(tick.exchange().id());
+        int recordBytes = FIXED_RECORD_BYTES + base.length + quote.length + exchange.length;
+        if (recordBytes + 4 > segmentSize) {
+            throw new IllegalArgumentException("Record of " + recordBytes + " bytes does not fit in a segment");
+        }
+
+        // 1. Roll to a new segment if this record (plus an end marker) does not fit
+        if (segment.remaining() < recordBytes + 4) {
+            mapSegment(segmentIndex + 1);
+        }
+
+        // 2. Write the body first and the length last, so a half-written record
+        //    still looks like "end of data" to a reader
+        int start = segment.position();
+        segment.position(start + 4);
+        segment.putLong(tick.timestamp().getEpochSecond());
+        segment.putInt(tick.timestamp().getNano());
+        segment.putLong(FixedPointPrice.fromBigDecimal(tick.bidPrice()));
+        segment.putLong(FixedPointPrice.fromBigDecimal(tick.askPrice()));
+        putString(base);
+        putString(quote);
+        putString(exchange);
+
+        // 3. Terminate the data right after this record (the 4 bytes were reserved above).
+        //    After a torn write, reopening lands on the torn record; a shorter record written
+        //    over it would otherwise leave the torn body's bytes where the next length is read.
+        segment.putInt(segment.position(), 0);
+        segment.putInt(start, recordBytes - 4);
+    }
+
+    /**
+     * Forces the current segment's pages to disk.
+     */
+    public synchronized void flush() {
+        segment.force();
+    }
+
+    /**
+     * Opens a reader over every tick in the journal, in append order.
+     */
+    public TickJournalReader reader() {
+        return new TickJournalReader(segments(), null);
+    }
+
+    /**
+     * Opens a reader positioned at the first tick at or after 'from'.
+     * Whole segments that end before 'from' are skipped without being read,
+     * which assumes ticks were appended in time order.
+     */
+    public TickJournalReader reader(Instant from) {
+        List<Path> segments = segments();
+        // Find the last segment whose first tick is at or before 'from'; everything before it is older
+        int start = 0;
+        for (int i = 0; i < segments.size(); i++) {
+            Instant first = firstTimestamp(segments.get(i));
+            if (first == null || first.isAfter(from)) {
+                break;
+            }
+            start = i;
+        }
+        return new TickJournalReader(segments.subList(start, segments.size()), from);
+    }
+
+    /**
+     * Flushes the journal. The mapping itself is released by the GC.
+     */
+    @Override
+    public synchronized void close() {
+        flush();
+    }
+
+    private List<Path> segments() {
+        try {
+            return listSegments(directory);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to list tick journal segments in " + directory, e);
+        }
+    }
+
+    private void mapSegment(int index) {
+        if (segment != null) {
+            segment.force();
+        }
+        Path file = directory.resolve(String.format("%s%010d%s", SEGMENT_PREFIX, index, SEGMENT_SUFFIX));
+        try (FileChannel channel = FileChannel.open(file,
+                StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+            segment = channel.map(FileChannel.MapMode.READ_WRITE, 0, segmentSize);
+            segmentIndex = index;
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to map tick journal segment " + file, e);
+        }
+    }
+
+    private void putString(byte[] bytes) {
+        segment.put((byte) bytes.length);
+        segment.put(bytes);
+    }
+
+    private static byte[] encode(String value) {
+        byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        if (bytes.length > 255) {
+            throw new IllegalArgumentException("Value too long for the tick journal: " + value);
+        }
+        return bytes;
+    }
+
+    private static List<Path> listSegments(Path directory) throws IOException {
+        try (Stream<Path> files = Files.list(directory)) {
+            return files
+                    .filter(file -> {
+                        String name = file.getFileName().toString();
+                        return name.startsWith(SEGMENT_PREFIX) && name.endsWith(SEGMENT_SUFFIX);
+                    })
+                    .sorted()
+                    .toList();
+        }
+    }
+
+    private static int segmentIndexOf(Path segment) {
+        String name = segment.getFileName().toString();
+        return Integer.parseInt(name.substring(SEGMENT_PREFIX.length(), name.length() - SEGMENT_SUFFIX.length()));
+    }
+
+    /**
+     * @return The position of the end-of-data marker in a segment.
+     */
+    private static int endOfData(MappedByteBuffer buffer) {
+        int position = 0;
+        while (position + 4 <= buffer.limit()) {
+            int length = buffer.getInt(position);
+            if (length == 0) {
+                break;
+            }
+            position += 4 + length;
+        }
+        return position;
+    }
+
+    private static Instant firstTimestamp(Path segment) {
+        try (TickJournalReader reader = new TickJournalReader(List.of(segment), null)) {
+            return reader.hasNext() ? reader.next().timestamp() : null;
+        }
+    }
+
+
+    /**
+     * A sequential reader over the journal's segments. Not thread-safe.
+     */
+    public static final class TickJournalReader implements Iterator<PriceTick>, AutoCloseable {
+
+        private final Iterator<Path> segments;
+        private final Instant from;
+        private MappedByteBuffer buffer;
+        private PriceTick next;
+
+        private TickJournalReader(List<Path> segments, Instant from) {
+            this.segments = new ArrayList<>(segments).iterator();
+            this.from = from;
+        }
+
+        @Override
+        public boolean hasNext() {
+            while (next == null) {
+                PriceTick candidate = readRecord();
+                if (candidate == null) {
+                    return false;
+                }
+                if (from == null || !candidate.timestamp().isBefore(from)) {
+                    next = candidate;
+                }
+            }
+            return true;
+        }
+
+        @Override
+        public PriceTick next() {
+            if (!hasNext()) {
+                throw new NoSuchElementException();
+            }
+            PriceTick result = next;
+            next = null;
+            return result;
+        }
+
+        @Override
+        public void close() {
+            buffer = null;
+        }
+
+        private PriceTick readRecord() {
+            while (true) {
+                if (buffer != null && buffer.remaining() >= 4) {
+                    int length = buffer.getInt();
+                    if (length > 0) {
+                        return decode();
+                    }
+                }
+                // End of this segment's data: move to the next segment, if any
+                if (!segments.hasNext()) {
+                    return null;
+                }
+                buffer = mapReadOnly(segments.next());
+            }
+        }
+
+        private PriceTick decode() {
+            Instant timestamp = Instant.ofEpochSecond(buffer.getLong(), buffer.getInt());
+            long bid = buffer.getLong();
+            long ask = buffer.getLong();
+            String base = getString();
+            String quote = getString();
+            String exchange = getString();
+            return new PriceTick(
+                    new CurrencyPair(base, quote),
+                    new Exchange(exchange),
+                    timestamp,
+                    FixedPointPrice.toBigDecimal(bid),
+                    FixedPointPrice.toBigDecimal(ask)
+            );
+        }
+
+        private String getString() {
+            byte[] bytes = new byte[buffer.get() & 0xFF];
+            buffer.get(bytes);
+            return new String(bytes, StandardCharsets.UTF_8);
+        }
+
+        private static MappedByteBuffer mapReadOnly(Path file) {
+            try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+                return channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+            } catch (IOException e) {
+                throw new UncheckedIOException("Failed to map tick journal segment " + file, e);
+            }
+        }
+    }
+}
@@ -0,0 +1,247 @@
+package com.cryptoArb.service;
+
+import com.cryptoArb.domain.CurrencyPair;
+import com.cryptoArb.domain.Exchange;
+import com.cryptoArb.domain.FixedPointPrice;
+import com.cryptoArb.domain.FixedPointTick;
+import com.cryptoArb.domain.PriceTick;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.util.*;
+import java.util.function.Predicate;
+
+/**
+ * A declarative tick query: exchange in set, pair in set, time range and spread bounds.
+ *
+ * Chaining several {@link PriceService#filter(List, Predicate)} calls builds a new List
+ * at every step. A TickQuery instead compiles all its conditions into ONE fused
+ * {@link #test(PriceTick)}: the cheapest checks run first, unused conditions cost nothing,
+ * and {@link #execute(List)} makes a single pass with a single result list.
+ *
+ * Against a {@link TickStore}, the query only visits the partitions of its pairs and
+ * binary-searches its time range, skipping everything else.
+ *
+ * Spread bounds: a BigDecimal {@link PriceTick} has no allocation-free way to read its
+ * prices, so {@link #test(PriceTick)} pays one BigDecimal subtraction per tick that reaches
+ * the spread check. The bounds are also converted ONCE, at build time, to fixed point, and
+ * {@link #test(FixedPointTick)} compares them with a plain long subtraction. On that path the
+ * bounds are rounded to 8 decimal places, like the ticks themselves.
+ *
+ * Example:
+ * <pre>
+ *   TickQuery query = TickQuery.builder()
+ *           .exchanges(coinbase, kraken)
+ *           .pairs(btcUsd)
+ *           .between(from, to)
+ *           .minSpread(new BigDecimal("0.5"))
+ *           .build();
+ *   List<PriceTick> result = query.execute(ticks);
+ * </pre>
+ */
+public final class TickQuery implements Predicate<PriceTick> {
+
+    // A null field means "no condition"
+    private final Set<Exchange> exchanges;
+    private final Set<CurrencyPair> pairs;
+    private final Instant from; // inclusive
+    private final Instant to;   // exclusive
+    private final BigDecimal minSpread;
+    private final BigDecimal maxSpread;
+
+    // The same bounds in fixed point; Long.MIN_VALUE / Long.MAX_VALUE mean "no bound"
+    private final long minSpreadFixed;
+    private final long maxSpreadFixed;
+
+    private TickQuery(Builder builder) {
+        this.exchanges = builder.exchanges == null ? null : Set.copyOf(builder.exchanges);
+        this.pairs = builder.pairs == null ? null : Set.copyOf(builder.pairs);
+        this.from = builder.from;
+        this.to = builder.to;
+        this.minSpread = builder.minSpread;
+        this.maxSpread = builder.maxSpread;
+        this.minSpreadFixed = minSpread == null ? Long.MIN_VALUE : toFixed(minSpread);
+        this.maxSpreadFixed = maxSpread == null ? Long.MAX_VALUE : toFixed(maxSpread);
+    }
+
+    private static long toFixed(BigDecimal spread) {
+        if (!FixedPointPrice.fits(spread)) {
+            throw new IllegalArgumentException("Spread bound is outside the fixed-point range: " + spread);
+        }
+        return FixedPointPrice.fromBigDecimal(spread);
+    }
+
+    public static Builder builder() {
+        return new Builder();
+    }
+
+    /**
+     * The fused matcher. Checks run from cheapest to most expensive:
+     * time (two Instant compares), pair and exchange (one hash lookup each),
+     * and the spread (one BigDecimal subtraction) last.
+     */
+    @Override
+    public boolean test(PriceTick tick) {
+        if (!matchesKeys(tick.timestamp(), tick.pair(), tick.exchange())) {
+            return false;
+        }
+        if (minSpread != null || maxSpread != null) {
+            BigDecimal spread = tick.askPrice().subtract(tick.bidPrice());
+            if (minSpread != null && spread.compareTo(minSpread) < 0) {
+                return false;
+            }
+            if (maxSpread != null && spread.compareTo(maxSpread) > 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * The same matcher on a fixed-point tick: the spread is a long subtraction compared
+     * against the bounds precomputed at build time, so nothing is allocated.
+     */
+    public boolean test(FixedPointTick tick) {
+        if (!matchesKeys(tick.timestamp(), tick.pair(), tick.exchange())) {
+            return false;
+        }
+        long spread = tick.spread();
+        return spread >= minSpreadFixed && spread <= maxSpreadFixed;
+    }
+
+    private boolean matchesKeys(Instant timestamp, CurrencyPair pair, Exchange exchange) {
+        if (from != null && timestamp.isBefore(from)) {
+            return false;
+        }
+        if (to != null && !timestamp.isBefore(to)) {
+            return false;
+        }
+        if (pairs != null && !pairs.contains(pair)) {
+            return false;
+        }
+        return exchanges == null || exchanges.contains(exchange);
+    }
+
+    /**
+     * Runs the query over a list in a single pass.
+     *
+     * @return A new list containing only the matching ticks, in input order.
+     */
+    public List<PriceTick> execute(List<PriceTick> ticks) {
+        List<PriceTick> result = new ArrayList<>();
+        for (PriceTick tick : ticks) {
+            if (test(tick)) {
+                result.add(tick);
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Runs the query over a pair-partitioned store.
+     * Only the partitions of the query's pairs are visited (all of them if no pair is set),
+     * and the time range is located by binary search when a partition is time-ordered.
+     *
+     * @return A new list of matching ticks, grouped by pair, in append order within a pair.
+     */
+    public List<PriceTick> execute(TickStore store) {
+        List<PriceTick> result = new ArrayList<>();
+        Collection<CurrencyPair> candidatePairs = pairs != null ? pairs : store.pairs();
+        for (CurrencyPair pair : candidatePairs) {
+            // The store already applied the pair and time conditions; test() re-checks cheaply
+            store.forEachTick(pair, from, to, tick -> {
+                if (test(tick)) {
+                    result.add(tick);
+                }
+            });
+        }
+        return result;
+    }
+
+    /**
+     * @return The number of matching ticks, without building a result list.
+     */
+    public long count(List<PriceTick> ticks) {
+        long count = 0;
+        for (PriceTick tick : ticks) {
+            if (test(tick)) {
+                count++;
+            }
+        }
+        return count;
+    }
+
+
+    /**
+     * Collects the query's conditions. Every condition is optional; an empty query matches everything.
+     */
+    public static final class Builder {
+
+        private Set<Exchange> exchanges;
+        private Set<CurrencyPair> pairs;
+        private Instant from;
+        private Instant to;
+        private BigDecimal minSpread;
+        private BigDecimal maxSpread;
+
+        private Builder() {
+        }
+
+        /** Keep only ticks from one of these exchanges. */
+        public Builder exchanges(Exchange... exchanges) {
+            return exchanges(Arrays.asList(exchanges));
+        }
+
+        /** Keep only ticks from one of these exchanges. */
+        public Builder exchanges(Collection<Exchange> exchanges) {
+            this.exchanges = new HashSet<>(exchanges);
+            return this;
+        }
+
+        /** Keep only ticks for one of these pairs. */
+        public Builder pairs(CurrencyPair... pairs) {
+            return pairs(Arrays.asList(pairs));
+        }
+
+        /** Keep only ticks for one of these pairs. */
+        public Builder pairs(Collection<CurrencyPair> pairs) {
+            this.pairs = new HashSet<>(pairs);
+            return this;
+        }
+
+        /** Keep only ticks with a timestamp in [from, to). */
+        public Builder between(Instant from, Instant to) {
+            this.from = from;
+            this.to = to;
+            return this;
+        }
+
+        /** Keep only ticks at or after this time. */
+        public Builder from(Instant from) {
+            this.from = from;
+            return this;
+        }
+
+        /** Keep only ticks strictly before this time. */
+        public Builder to(Instant to) {
+            this.to = to;
+            return this;
+        }
+
+        /** Keep only ticks whose spread (ask - bid) is at least this value. */
+        public Builder minSpread(BigDecimal minSpread) {
+            this.minSpread = minSpread;
+            return this;
+        }
+
+        /** Keep only ticks whose spread (ask - bid) is at most this value. */
+        public Builder maxSpread(BigDecimal maxSpread) {
+            this.maxSpread = maxSpread;
+            return this;
+        }
+
+        public TickQuery build() {
+            return new TickQuery(this);
+        }
+    }
+}
@@ -0,0 +1,143 @@
+package com.cryptoArb.service;
+
+import com.cryptoArb.domain.ArbitrageOpportunity;
+import com.cryptoArb.domain.PriceTick;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.*;
+import java.util.concurrent.locks.LockSupport;
+import java.util.function.Consumer;
+
+/**
+ * Replays a recorded tick stream (e.g. a {@link TickJournal}) through price
+ * consolidation and arbitrage detection, to reproduce incidents and measure
+ * throughput on real market data.
+ *
+ * For every tick:
+ * 1. The tick is applied to a fresh {@link ConsolidatedBook} (latest quote per exchange).
+ * 2. If the pair's consolidated price changed, the book pushes the new price and
+ *    ArbitrageService checks that pair only.
+ *
+ * Replays are deterministic: the same ticks always give the same opportunities, in the same order.
+ *
+ * Two modes:
+ * - {@link #replay(Iterator)}: as fast as possible, to measure ticks/sec.
+ * - {@link #replay(Iterator, double)}: original timing, scaled by a speed multiplier.
+ */
+public class TickReplayEngine {
+
+    private final ArbitrageService arbitrageService;
+
+    public TickReplayEngine(ArbitrageService arbitrageService) {
+        this.arbitrageService = arbitrageService;
+    }
+
+    /**
+     * Replays every tick of a journal as fast as possible.
+     */
+    public ReplayReport replay(TickJournal journal) {
+        try (TickJournal.TickJournalReader reader = journal.reader()) {
+            return replay(reader);
+        }
+    }
+
+    /**
+     * Replays ticks as fast as possible.
+     */
+    public ReplayReport replay(Iterator<PriceTick> ticks) {
+        return replay(ticks, Double.POSITIVE_INFINITY, opportunity -> { });
+    }
+
+    /**
+     * Replays ticks at their original pace, scaled by a speed multiplier.
+     *
+     * @param speedMultiplier 1.0 = real time, 10.0 = ten times faster,
+     *                        Double.POSITIVE_INFINITY = as fast as possible.
+     */
+    public ReplayReport replay(Iterator<PriceTick> ticks, double speedMultiplier) {
+        return replay(ticks, speedMultiplier, opportunity -> { });
+    }
+
+    /**
+     * Replays ticks, handing every opportunity to a listener as soon as it is found.
+     *
+     * @param ticks           The recorded ticks, in recording order.
+     * @param speedMultiplier 1.0 = real time, Double.POSITIVE_INFINITY = as fast as possible.
+     * @param listener        Called for every opportunity, on the replay thread.
+     * @return The replay's throughput and the opportunities it produced.
+     */
+    public ReplayReport replay(Iterator<PriceTick> ticks, double speedMultiplier,
+                               Consumer<ArbitrageOpportunity> listener) {
+        if (!(speedMultiplier > 0)) {
+            throw new IllegalArgumentException("Speed multiplier must be positive: " + speedMultiplier);
+        }
+        boolean paced = speedMultiplier != Double.POSITIVE_INFINITY;
+
+        ConsolidatedBook book = new ConsolidatedBook();
+        List<ArbitrageOpportunity> opportunities = new ArrayList<>();
+        book.addListener(price -> arbitrageService.findOpportunity(price).ifPresent(opportunity -> {
+            opportunities.add(opportunity);
+            listener.accept(opportunity);
+        }));
+        long tickCount = 0;
+
+        Instant firstTickTime = null;
+        long startNanos = System.nanoTime();
+
+        while (ticks.hasNext()) {
+            PriceTick tick = ticks.next();
+
+            // 1. In paced mode, wait until this tick's (scaled) offset from the first tick
+            if (paced) {
+                if (firstTickTime == null) {
+                    firstTickTime = tick.timestamp();
+                }
+                long offsetNanos = Duration.between(firstTickTime, tick.timestamp()).toNanos();
+                waitUntil(startNanos + (long) (offsetNanos / speedMultiplier));
+            }
+
+            // 2. Consolidate; the book's listener detects only if this pair's price moved
+            tickCount++;
+            book.onTick(tick);
+        }
+
+        return new ReplayReport(tickCount, System.nanoTime() - startNanos, opportunities);
+    }
+
+    private static void waitUntil(long deadlineNanos) {
+        long remaining;
+        while ((remaining = deadlineNanos - System.nanoTime()) > 0) {
+            LockSupport.parkNanos(remaining);
+            if (Thread.currentThread().isInterrupted()) {
+                throw new IllegalStateException("Replay interrupted");
+            }
+        }
+    }
+
+
+    /**
+     * The outcome of one replay.
+     *
+     * @param ticksReplayed  The number of ticks read from the source
+     * @param elapsedNanos   Wall-clock time of the replay
+     * @param opportunities  Every opportunity found, in detection order
+     */
+    public record ReplayReport(
+            long ticksReplayed,
+            long elapsedNanos,
+            List<ArbitrageOpportunity> opportunities
+    ) {
+
+        public ReplayReport {
+            opportunities = List.copyOf(opportunities);
+        }
+
+        /**
+         * @return Replay throughput in ticks per second.
+         */
+        public double ticksPerSecond() {
+            return elapsedNanos == 0 ? 0 : ticksReplayed * 1_000_000_000.0 / elapsedNanos;
+        }
+    }
+}
@@ -0,0 +1,235 @@
+package com.cryptoArb.service;
+
+import com.cryptoArb.domain.ConsolidatedPrice;
+import com.cryptoArb.domain.CurrencyPair;
+import com.cryptoArb.domain.PriceTick;
+
+import java.time.Instant;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Consumer;
+
+/**
+ * An in-memory tick store partitioned by CurrencyPair.
+ *
+ * {@link PriceService#getConsolidatedPriceForPair(List, CurrencyPair)} works on one big
+ * List, so every lookup has to walk the ticks of every pair. Here each pair owns its own
+ * partition, so a single-pair query only ever touches that pair's ticks.
+ *
+ * Each partition is guarded by a ReadWriteLock: appends are exclusive, queries are shared.
+ */
+public class TickStore {
+
+    private final Map<CurrencyPair, Partition> partitions = new ConcurrentHashMap<>();
+
+    /**
+     * Appends a single tick to its pair's partition.
+     */
+    public void append(PriceTick tick) {
+        partitions.computeIfAbsent(tick.pair(), pair -> new Partition())
+                .append(tick);
+    }
+
+    /**
+     * Appends a batch of ticks, each to its own pair's partition.
+     */
+    public void appendAll(Collection<PriceTick> ticks) {
+        for (PriceTick tick : ticks) {
+            append(tick);
+        }
+    }
+
+    /**
+     * @return The set of pairs that have at least one tick in the store.
+     */
+    public Set<CurrencyPair> pairs() {
+        return Collections.unmodifiableSet(partitions.keySet());
+    }
+
+    /**
+     * @return The number of ticks stored for a pair (0 if unknown).
+     */
+    public int size(CurrencyPair pair) {
+        Partition partition = partitions.get(pair);
+        return partition == null ? 0 : partition.size();
+    }
+
+    /**
+     * Returns a copy of all ticks for a single pair, in append order.
+     */
+    public List<PriceTick> getTicks(CurrencyPair pair) {
+        Partition partition = partitions.get(pair);
+        return partition == null ? List.of() : partition.copy();
+    }
+
+    /**
+     * Returns the ticks for a single pair whose timestamp lies in [from, to).
+     * If the pair's ticks were appended in time order, the start of the range
+     * is found with a binary search instead of a scan.
+     *
+     * @param pair The CurrencyPair to query.
+     * @param from The inclusive lower bound.
+     * @param to   The exclusive upper bound.
+     * @return A new list of matching ticks, in append order.
+     */
+    public List<PriceTick> getTicks(CurrencyPair pair, Instant from, Instant to) {
+        Partition partition = partitions.get(pair);
+        return partition == null ? List.of() : partition.range(from, to);
+    }
+
+    /**
+     * Hands the ticks of a single pair whose timestamp lies in [from, to) to an action,
+     * without copying them into a list. Same lookup rules as {@link #getTicks(CurrencyPair, Instant, Instant)}.
+     *
+     * @param pair   The CurrencyPair to scan.
+     * @param from   The inclusive lower bound, or null for no lower bound.
+     * @param to     The exclusive upper bound, or null for no upper bound.
+     * @param action Called once per matching tick, in append order, under the partition's read lock.
+     */
+    public void forEachTick(CurrencyPair pair, Instant from, Instant to, Consumer<PriceTick> action) {
+        Partition partition = partitions.get(pair);
+        if (partition != null) {
+            partition.forEachInRange(from, to, action);
+        }
+    }
+
+    /**
+     * Consolidates the ticks of a single pair, without touching any other pair.
+     *
+     * @return An Optional containing the ConsolidatedPrice, or Optional.empty() if the pair is unknown.
+     */
+    public Optional<ConsolidatedPrice> getConsolidatedPrice(CurrencyPair pair) {
+        Partition partition = partitions.get(pair);
+        return partition == null ? Optional.empty() : Optional.ofNullable(partition.consolidate());
+    }
+
+    /**
+     * Consolidates every pair in the store, one partition at a time.
+     */
+    public Map<CurrencyPair, ConsolidatedPrice> aggregatePrices() {
+        Map<CurrencyPair, ConsolidatedPrice> result = new HashMap<>();
+        partitions.forEach((pair, partition) -> {
+            ConsolidatedPrice price = partition.consolidate();
+            if (price != null) {
+                result.put(pair, price);
+            }
+        });
+        return result;
+    }
+
+
+    /**
+     * All ticks of ONE currency pair, in append order.
+     */
+    static final class Partition {
+
+        private final List<PriceTick> ticks = new ArrayList<>();
+
+        // Stays true as long as every append was at or after the previous timestamp
+        private boolean timeOrdered = true;
+
+        private final ReadWriteLock rwLock = new ReentrantReadWriteLock();
+        private final Lock readLock = rwLock.readLock();
+        private final Lock writeLock = rwLock.writeLock();
+
+        void append(PriceTick tick) {
+            writeLock.lock();
+            try {
+                if (timeOrdered && !ticks.isEmpty()
+                        && tick.timestamp().isBefore(ticks.get(ticks.size() - 1).timestamp())) {
+                    timeOrdered = false;
+                }
+                ticks.add(tick);
+            } finally {
+                writeLock.unlock();
+            }
+        }
+
+        int size() {
+            readLock.lock();
+            try {
+                return ticks.size();
+            } finally {
+                readLock.unlock();
+            }
+        }
+
+        List<PriceTick> copy() {
+            readLock.lock();
+            try {
+                return new ArrayList<>(ticks);
+            } finally {
+                readLock.unlock();
+            }
+        }
+
+        List<PriceTick> range(Instant from, Instant to) {
+            List<PriceTick> result = new ArrayList<>();
+            forEachInRange(from, to, result::add);
+            return result;
+        }
+
+        /**
+         * Visits the ticks in [from, to); a null bound means "unbounded".
+         */
+        void forEachInRange(Instant from, Instant to, Consumer<PriceTick> action) {
+            readLock.lock();
+            try {
+                if (timeOrdered) {
+                    // 1. Jump straight to the first tick at or after 'from'
+                    // 2. Stop at the first tick at or after 'to'
+                    int start = from == null ? 0 : lowerBound(from);
+                    for (int i = start; i < ticks.size(); i++) {
+                        PriceTick tick = ticks.get(i);
+                        if (to != null && !tick.timestamp().isBefore(to)) {
+                            break;
+                        }
+                        action.accept(tick);
+                    }
+                } else {
+                    for (PriceTick tick : ticks) {
+                        if ((from == null || !tick.timestamp().isBefore(from))
+                                && (to == null || tick.timestamp().isBefore(to))) {
+                            action.accept(tick);
+                        }
+                    }
+                }
+            } finally {
+                readLock.unlock();
+            }
+        }
+
+        ConsolidatedPrice consolidate() {
+            readLock.lock();
+            try {
+                ConsolidatedPriceCollector.Accumulator accumulator = new ConsolidatedPriceCollector.Accumulator();
+                for (PriceTick tick : ticks) {
+                    accumulator.accept(tick);
+                }
+                return accumulator.toConsolidatedPrice();
+            } finally {
+                readLock.unlock();
+            }
+        }
+
+        /**
+         * Index of the first tick whose timestamp is not before 'from'. Only valid when timeOrdered.
+         */
+        private int lowerBound(Instant from) {
+            int low = 0;
+            int high = ticks.size();
+            while (low < high) {
+                int mid = (low + high) >>> 1;
+                if (ticks.get(mid).timestamp().isBefore(from)) {
+                    low = mid + 1;
+                } else {
+                    high = mid;
+                }
+            }
+            return low;
+        }
+    }
+}
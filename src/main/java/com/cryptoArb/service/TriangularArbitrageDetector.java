@@ -0,0 +1,271 @@
+package com.cryptoArb.service;
+
+import com.cryptoArb.domain.ConsolidatedPrice;
+import com.cryptoArb.domain.CurrencyPair;
+import com.cryptoArb.domain.Exchange;
+import com.cryptoArb.domain.TriangularArbitrageOpportunity;
+
+import java.math.BigDecimal;
+import java.math.MathContext;
+import java.math.RoundingMode;
+import java.time.Instant;
+import java.util.*;
+
+/**
+ * Incremental detection of triangular arbitrage (e.g. USD -> BTC -> ETH -> USD) across pairs.
+ *
+ * {@link ArbitrageService} only compares bid and ask within one pair. Here every currency
+ * is a node and every pair gives two directed edges:
+ * - BASE -> QUOTE (sell the base at the best bid): rate = bestBid, weight log(bestBid)
+ * - QUOTE -> BASE (buy the base at the best ask):  rate = 1 / bestAsk, weight -log(bestAsk)
+ * A cycle is profitable when the product of its rates is above 1, i.e. when the sum of its
+ * log weights is above 0 (a negative cycle for the usual -log weights).
+ *
+ * Running Bellman-Ford over the whole graph on every tick does not scale to hundreds of pairs.
+ * Instead:
+ * 1. Every triangle is found ONCE, when the last of its three pairs is first seen,
+ *    and indexed under each of its pairs.
+ * 2. A price update rewrites the two cached log weights of its pair in place.
+ * 3. Only the triangles indexed under that pair are re-evaluated: three double additions per direction.
+ * 4. The exact BigDecimal product is computed only for cycles that pass the log check.
+ *
+ * Edges are keyed by (from, to) currency, so a pair and its inverse (BTC/USD and USD/BTC)
+ * would share edges and overwrite each other's quotes. The first of the two seen owns the
+ * edges; a price for the other is rejected with an IllegalArgumentException.
+ *
+ * Thread-safe: updates are serialized on the detector.
+ */
+public class TriangularArbitrageDetector {
+
+    private static final MathContext MC = new MathContext(20, RoundingMode.HALF_UP);
+
+    // currency -> (neighbour currency -> edge from currency to neighbour)
+    private final Map<String, Map<String, Edge>> graph = new HashMap<>();
+
+    // pair -> every triangle that uses it
+    private final Map<CurrencyPair, List<Triangle>> trianglesByPair = new HashMap<>();
+
+    private final BigDecimal minFinalAmount;
+    private final double minLogProfit;
+
+    /**
+     * Reports every cycle whose rate product is above 1.
+     */
+    public TriangularArbitrageDetector() {
+        this(BigDecimal.ZERO);
+    }
+
+    /**
+     * @param minProfitPercentage The smallest round-trip profit to report (e.g. 0.001 for 0.1%).
+     */
+    public TriangularArbitrageDetector(BigDecimal minProfitPercentage) {
+        this.minFinalAmount = BigDecimal.ONE.add(minProfitPercentage);
+        this.minLogProfit = Math.log1p(minProfitPercentage.doubleValue());
+    }
+
+    /**
+     * Applies a new consolidated price and re-evaluates only the triangles that use its pair.
+     *
+     * @param price The pair's latest consolidated price.
+     * @return The profitable cycles through this pair; an immutable empty list if none.
+     * @throws IllegalArgumentException if the inverse of the price's pair is already tracked.
+     */
+    public synchronized List<TriangularArbitrageOpportunity> onPrice(ConsolidatedPrice price) {
+        checkNotInverse(price.pair());
+
+        // 1. Update the pair's two edges in place
+        apply(price);
+
+        // 2. Re-evaluate only the triangles through this pair, in both directions
+        List<TriangularArbitrageOpportunity> result = List.of();
+        for (Triangle triangle : trianglesByPair.getOrDefault(price.pair(), List.of())) {
+            result = addIfProfitable(result, triangle.forward);
+            result = addIfProfitable(result, triangle.backward);
+        }
+        return result;
+    }
+
+    /**
+     * Applies a whole map of prices (e.g. the output of PriceService.aggregatePrices)
+     * and returns every profitable cycle through any of them, each cycle once.
+     *
+     * @throws IllegalArgumentException if the map holds an inverse of a tracked pair, or both
+     *                                  a pair and its inverse; no price is applied then.
+     */
+    public synchronized List<TriangularArbitrageOpportunity> onPrices(Map<CurrencyPair, ConsolidatedPrice> prices) {
+        // 1. Validate the whole batch first, so a rejected batch leaves the graph untouched
+        for (CurrencyPair pair : prices.keySet()) {
+            checkNotInverse(pair);
+            if (prices.containsKey(new CurrencyPair(pair.quote(), pair.base()))) {
+                throw new IllegalArgumentException("Both " + pair + " and its inverse are in the batch");
+            }
+        }
+
+        // 2. Apply, then re-evaluate the triangles touched
+        prices.values().forEach(this::apply);
+
+        Set<Triangle> touched = new LinkedHashSet<>();
+        for (CurrencyPair pair : prices.keySet()) {
+            touched.addAll(trianglesByPair.getOrDefault(pair, List.of()));
+        }
+        List<TriangularArbitrageOpportunity> result = List.of();
+        for (Triangle triangle : touched) {
+            result = addIfProfitable(result, triangle.forward);
+            result = addIfProfitable(result, triangle.backward);
+        }
+        return result;
+    }
+
+    /**
+     * @return The number of triangles indexed so far.
+     */
+    public synchronized int triangleCount() {
+        Set<Triangle> all = new HashSet<>();
+        trianglesByPair.values().forEach(all::addAll);
+        return all.size();
+    }
+
+    /**
+     * Rewrites a pair's two edges, creating them (and the triangles they close) the first time.
+     */
+    private void apply(ConsolidatedPrice price) {
+        CurrencyPair pair = price.pair();
+        Edge sellBase = edge(pair.base(), pair.quote());
+        if (sellBase == null) {
+            addPair(pair);
+            sellBase = edge(pair.base(), pair.quote());
+        }
+        Edge buyBase = edge(pair.quote(), pair.base());
+        sellBase.update(price.bestBid(), price.bestBidExchange(), price.timestamp());
+        buyBase.update(price.bestAsk(), price.bestAskExchange(), price.timestamp());
+    }
+
+    /**
+     * Rejects a pair whose currencies are already linked by its inverse pair.
+     */
+    private void checkNotInverse(CurrencyPair pair) {
+        Edge existing = edge(pair.base(), pair.quote());
+        if (existing != null && !existing.pair.equals(pair)) {
+            throw new IllegalArgumentException(
+                    "Cannot track " + pair + ": its inverse " + existing.pair + " is already tracked");
+        }
+    }
+
+    private Edge edge(String from, String to) {
+        Map<String, Edge> edges = graph.get(from);
+        return edges == null ? null : edges.get(to);
+    }
+
+    /**
+     * Adds a new pair's two edges, then every triangle it closes:
+     * for each currency Z already linked to both the base and the quote.
+     */
+    private void addPair(CurrencyPair pair) {
+        String base = pair.base();
+        String quote = pair.quote();
+        graph.computeIfAbsent(base, c -> new HashMap<>()).put(quote, new Edge(pair, base, quote, true));
+        graph.computeIfAbsent(quote, c -> new HashMap<>()).put(base, new Edge(pair, quote, base, false));
+
+        // Iterate the smaller neighbourhood and look each candidate up in the larger one
+        Map<String, Edge> baseNeighbours = graph.get(base);
+        Map<String, Edge> quoteNeighbours = graph.get(quote);
+        boolean baseSmaller = baseNeighbours.size() <= quoteNeighbours.size();
+        Map<String, Edge> smaller = baseSmaller ? baseNeighbours : quoteNeighbours;
+        Map<String, Edge> larger = baseSmaller ? quoteNeighbours : baseNeighbours;
+        for (String third : smaller.keySet()) {
+            if (!third.equals(base) && !third.equals(quote) && larger.containsKey(third)) {
+                registerTriangle(new Triangle(
+                        new Edge[]{edge(base, quote), edge(quote, third), edge(third, base)},
+                        new Edge[]{edge(base, third), edge(third, quote), edge(quote, base)}));
+            }
+        }
+    }
+
+    private void registerTriangle(Triangle triangle) {
+        for (Edge leg : triangle.forward) {
+            trianglesByPair.computeIfAbsent(leg.pair, p -> new ArrayList<>()).add(triangle);
+        }
+    }
+
+    private List<TriangularArbitrageOpportunity> addIfProfitable(List<TriangularArbitrageOpportunity> result,
+                                                                  Edge[] cycle) {
+        // 1. Cheap screen on cached log weights
+        double logSum = cycle[0].logRate + cycle[1].logRate + cycle[2].logRate;
+        if (!(logSum > minLogProfit)) {
+            return result;
+        }
+
+        // 2. Exact confirmation; the double sum may be off by a rounding error
+        BigDecimal amount = BigDecimal.ONE;
+        Instant latest = cycle[0].timestamp;
+        List<TriangularArbitrageOpportunity.Leg> legs = new ArrayList<>(3);
+        for (Edge edge : cycle) {
+            amount = edge.sellsBase
+                    ? amount.multiply(edge.price, MC)
+                    : amount.divide(edge.price, MC);
+            if (edge.timestamp.isAfter(latest)) {
+                latest = edge.timestamp;
+            }
+            legs.add(new TriangularArbitrageOpportunity.Leg(edge.pair, edge.from, edge.to, edge.exchange, edge.price));
+        }
+        if (amount.compareTo(minFinalAmount) <= 0) {
+            return result;
+        }
+
+        List<TriangularArbitrageOpportunity> mutable = result.isEmpty() ? new ArrayList<>() : result;
+        mutable.add(new TriangularArbitrageOpportunity(latest, legs, amount));
+        return mutable;
+    }
+
+
+    /**
+     * A directed conversion from one currency to another, updated in place on every price.
+     */
+    private static final class Edge {
+
+        private final CurrencyPair pair;
+        private final String from;
+        private final String to;
+        // true: base -> quote at the bid; false: quote -> base at the ask
+        private final boolean sellsBase;
+
+        private BigDecimal price;
+        private Exchange exchange;
+        private Instant timestamp;
+        private double logRate = Double.NEGATIVE_INFINITY; // never profitable until priced
+
+        Edge(CurrencyPair pair, String from, String to, boolean sellsBase) {
+            this.pair = pair;
+            this.from = from;
+            this.to = to;
+            this.sellsBase = sellsBase;
+        }
+
+        void update(BigDecimal price, Exchange exchange, Instant timestamp) {
+            this.price = price;
+            this.exchange = exchange;
+            this.timestamp = timestamp;
+            if (price.signum() <= 0) {
+                // A missing or broken quote can never be part of a profitable cycle
+                this.logRate = Double.NEGATIVE_INFINITY;
+            } else {
+                double log = Math.log(price.doubleValue());
+                this.logRate = sellsBase ? log : -log;
+            }
+        }
+    }
+
+    /**
+     * Three currencies linked pairwise, with its two directions pre-resolved to edges.
+     */
+    private static final class Triangle {
+
+        private final Edge[] forward;
+        private final Edge[] backward;
+
+        Triangle(Edge[] forward, Edge[] backward) {
+            this.forward = forward;
+            this.backward = backward;
+        }
+    }
+}
@@ -0,0 +1,63 @@
+package com.cryptoArb.serviceOld;
+
+import com.cryptoArb.domain.ArbitrageOpportunity;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * A service responsible for safely collecting
+ * arbitrage opportunities from concurrent threads.
+ *
+ * VERSION 5: Lock-free (STILL GREEN)
+ *
+ * VERSION 4 wrapped an ArrayList in a ReadWriteLock: every addOpportunity serialized
+ * on the write lock, and getOpportunityCount took the read lock just to read a size.
+ * Now:
+ * - opportunities are appended to a ConcurrentLinkedQueue (one CAS, no lock), which also
+ *   keeps the global arrival order that getOpportunities has always returned;
+ * - the count is a LongAdder, striped per thread, so writers never contend on it and
+ *   readers never block writers.
+ *
+ * Reads are weakly consistent: a snapshot or count taken while writers are running
+ * includes every opportunity whose add completed before the read started, and may
+ * or may not include ones added concurrently.
+ *
+ * Writers no longer block, but getOpportunities still copies the whole queue on every call.
+ * VERSION 6 serves O(1) immutable snapshots from versioned append-only segments.
+ */
+public class OpportunityAggregator_V5 {
+
+    private final Queue<ArbitrageOpportunity> opportunities = new ConcurrentLinkedQueue<>();
+
+    private final LongAdder count = new LongAdder();
+
+
+    /**
+     * Adds a found opportunity.
+     * Lock-free: concurrent writers never wait for each other or for readers.
+     */
+    public void addOpportunity(ArbitrageOpportunity opportunity) {
+        // 1. Publish the opportunity first...
+        this.opportunities.offer(opportunity);
+        // 2. ...then count it, so the count never runs ahead of what a snapshot can see
+        this.count.increment();
+    }
+
+    /**
+     * Returns a snapshot of all found opportunities, in the order they were added.
+     */
+    public List<ArbitrageOpportunity> getOpportunities() {
+        return new ArrayList<>(this.opportunities);
+    }
+
+    /**
+     * Sums the striped counter; never blocks.
+     */
+    public int getOpportunityCount() {
+        return this.count.intValue();
+    }
+}
@@ -8,6 +8,7 @@ import java.math.RoundingMode;
 import java.time.Instant;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
 
 class ArbitrageOpportunityTest {
 
@@ -71,4 +72,47 @@ class ArbitrageOpportunityTest {
                 actualProfit.setScale(8, RoundingMode.HALF_UP)
         );
     }
-}
\ No newline at end of file
+
+    @Test
+    @DisplayName("Should compute a missing profit percentage and reject one that contradicts the prices")
+    void givenCanonicalConstructor_whenProfitPercentageNullOrWrong_thenComputedOrRejected() {
+        // Given
+        CurrencyPair pair = new CurrencyPair("ETH", "USD");
+        Instant timestamp = Instant.now();
+        Exchange coinbase = new Exchange("coinbase");
+        Exchange kraken = new Exchange("kraken");
+        BigDecimal buyPrice = new BigDecimal("2000");
+        BigDecimal sellPrice = new BigDecimal("2010");
+
+        // When: null is computed, an equal value at another scale is accepted
+        ArbitrageOpportunity computed = new ArbitrageOpportunity(pair, timestamp, coinbase, buyPrice, kraken, sellPrice, null);
+        ArbitrageOpportunity given = new ArbitrageOpportunity(pair, timestamp, coinbase, buyPrice, kraken, sellPrice, new BigDecimal("0.00500"));
+
+        // Then
+        assertEquals(0, new BigDecimal("0.005").compareTo(computed.profitPercentage()));
+        assertEquals(0, computed.profitPercentage().compareTo(given.profitPercentage()));
+        assertThrows(IllegalArgumentException.class, () ->
+                new ArbitrageOpportunity(pair, timestamp, coinbase, buyPrice, kraken, sellPrice, new BigDecimal("0.5")));
+        assertThrows(IllegalArgumentException.class, () ->
+                new ArbitrageOpportunity(pair, timestamp, coinbase, buyPrice, kraken, sellPrice, new BigDecimal("0.00501")));
+    }
+
+    @Test
+    @DisplayName("Should accept a given percentage rounded to 10 digits, and reject a zero buy price")
+    void givenRoundedPercentageOrZeroBuyPrice_whenConstruct_thenAcceptedOrRejected() {
+        // Given: 1 / 2999 is not exact, so the given value is the rounded one
+        CurrencyPair pair = new CurrencyPair("ETH", "USD");
+        Instant timestamp = Instant.now();
+        Exchange coinbase = new Exchange("coinbase");
+        Exchange kraken = new Exchange("kraken");
+        BigDecimal rounded = ArbitrageOpportunity.calculateProfitPercentage(new BigDecimal("2999"), new BigDecimal("3000"));
+
+        // When
+        ArbitrageOpportunity opportunity = new ArbitrageOpportunity(pair, timestamp, coinbase, new BigDecimal("2999"), kraken, new BigDecimal("3000"), rounded);
+
+        // Then
+        assertEquals(rounded, opportunity.profitPercentage());
+        assertThrows(IllegalArgumentException.class, () ->
+                new ArbitrageOpportunity(pair, timestamp, coinbase, BigDecimal.ZERO, kraken, new BigDecimal("3000")));
+    }
+}
@@ -0,0 +1,95 @@
+package com.cryptoArb.domain;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.time.Instant;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class FixedPointPriceTest {
+
+    @Test
+    @DisplayName("Should convert a BigDecimal price to fixed point and back")
+    void givenBigDecimal_whenConvertedRoundTrip_thenValueIsKept() {
+        // Given
+        BigDecimal price = new BigDecimal("50000.5");
+
+        // When
+        long raw = FixedPointPrice.fromBigDecimal(price);
+
+        // Then
+        assertEquals(5_000_050_000_000L, raw);
+        assertEquals(0, price.compareTo(FixedPointPrice.toBigDecimal(raw)), "Round trip should keep the value");
+    }
+
+    @Test
+    @DisplayName("Should round digits beyond the 8th decimal place HALF_UP")
+    void givenMoreThanEightDecimals_whenConverted_thenRoundsHalfUp() {
+        assertEquals(1L, FixedPointPrice.fromBigDecimal(new BigDecimal("0.000000005")));
+        assertEquals(0L, FixedPointPrice.fromBigDecimal(new BigDecimal("0.000000004")));
+    }
+
+    @Test
+    @DisplayName("Should refuse prices that do not fit in a long")
+    void givenHugePrice_whenConverted_thenThrows() {
+        assertThrows(ArithmeticException.class,
+                () -> FixedPointPrice.fromBigDecimal(new BigDecimal("100000000000000")));
+    }
+
+    @Test
+    @DisplayName("Should accept prices up to MAX_PRICE and refuse the next one")
+    void givenPricesAroundMaxPrice_whenChecked_thenOnlyInRangeFit() {
+        // Given
+        BigDecimal max = FixedPointPrice.MAX_PRICE;
+        BigDecimal justAbove = max.add(new BigDecimal("0.00000001"));
+
+        // When / Then
+        assertTrue(FixedPointPrice.fits(max));
+        assertEquals(Long.MAX_VALUE, FixedPointPrice.fromBigDecimal(max));
+        assertTrue(FixedPointPrice.fits(FixedPointPrice.MIN_PRICE));
+        assertEquals(-Long.MAX_VALUE, FixedPointPrice.fromBigDecimal(FixedPointPrice.MIN_PRICE));
+        assertFalse(FixedPointPrice.fits(justAbove));
+        assertFalse(FixedPointPrice.fits(justAbove.negate()));
+        assertThrows(ArithmeticException.class, () -> FixedPointPrice.fromBigDecimal(justAbove));
+    }
+
+    @Test
+    @DisplayName("Should convert every scale the same way as setScale(8)")
+    void givenPricesOfEveryScale_whenConverted_thenMatchSetScale() {
+        // Given: negative scale, scale 0, up to 8 decimals, and more than 8 decimals
+        String[] prices = {"5E+3", "50000", "50000.5", "0.00000001", "123.45678901", "-42.125", "0.000000015"};
+
+        for (String text : prices) {
+            BigDecimal price = new BigDecimal(text);
+
+            // When
+            long raw = FixedPointPrice.fromBigDecimal(price);
+
+            // Then
+            long expected = price.setScale(FixedPointPrice.SCALE, RoundingMode.HALF_UP)
+                    .unscaledValue().longValueExact();
+            assertEquals(expected, raw, text);
+        }
+    }
+
+    @Test
+    @DisplayName("Should convert a PriceTick to a FixedPointTick and compute its spread")
+    void givenPriceTick_whenConvertedToFixedPoint_thenSpreadIsInteger() {
+        // Given
+        PriceTick tick = new PriceTick(new CurrencyPair("BTC", "USD"), new Exchange("coinbase"),
+                Instant.ofEpochMilli(1000L), new BigDecimal("50000.00"), new BigDecimal("50000.50"));
+
+        // When
+        FixedPointTick fixedPointTick = FixedPointTick.from(tick);
+
+        // Then
+        assertEquals(50_000_000L, fixedPointTick.spread(), "0.5 scaled by 10^8");
+        assertEquals(0, tick.askPrice().compareTo(fixedPointTick.toPriceTick().askPrice()));
+    }
+}
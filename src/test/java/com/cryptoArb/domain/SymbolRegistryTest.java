@@ -0,0 +1,61 @@
+package com.cryptoArb.domain;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SymbolRegistryTest {
+
+    @Test
+    @DisplayName("Should assign dense ids and return canonical instances")
+    void givenPairsAndExchanges_whenRegistered_thenIdsAreDense() {
+        // Given
+        SymbolRegistry registry = new SymbolRegistry();
+
+        // When
+        int btcUsd = registry.pairId(new CurrencyPair("BTC", "USD"));
+        int ethUsd = registry.pairId(new CurrencyPair("ETH", "USD"));
+        int btcUsdAgain = registry.pairId(new CurrencyPair("BTC", "USD"));
+        int coinbase = registry.exchangeId(new Exchange("coinbase"));
+
+        // Then
+        assertEquals(0, btcUsd);
+        assertEquals(1, ethUsd);
+        assertEquals(btcUsd, btcUsdAgain, "Equal pairs should share one id");
+        assertEquals(0, coinbase, "Exchanges have their own id space");
+        assertEquals(2, registry.pairCount());
+        assertSame(registry.pair(btcUsd), registry.intern(new CurrencyPair("BTC", "USD")));
+        assertEquals(-1, registry.findPairId(new CurrencyPair("LTC", "USD")), "find should not register");
+        assertEquals(2, registry.pairCount());
+    }
+
+    @Test
+    @DisplayName("Should give every concurrent caller the same id for the same value")
+    void givenConcurrentRegistration_whenSameValues_thenNoDuplicateIds() throws InterruptedException {
+        // Given
+        SymbolRegistry registry = new SymbolRegistry();
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+
+        // When: 8 threads register the same 100 exchanges
+        for (int t = 0; t < 8; t++) {
+            executor.submit(() -> {
+                for (int i = 0; i < 100; i++) {
+                    registry.exchangeId(new Exchange("exchange-" + i));
+                }
+            });
+        }
+        executor.shutdown();
+        assertTrue(executor.awaitTermination(10, TimeUnit.SECONDS));
+
+        // Then
+        assertEquals(100, registry.exchangeCount());
+        for (int id = 0; id < 100; id++) {
+            assertEquals(id, registry.exchangeId(registry.exchange(id)));
+        }
+    }
+}
@@ -0,0 +1,94 @@
+package com.cryptoArb.service;
+
+import com.cryptoArb.domain.CurrencyPair;
+import com.cryptoArb.domain.Exchange;
+import com.cryptoArb.domain.PriceTick;
+import com.cryptoArb.service.AggregationStrategySelector.Strategy;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class AggregationStrategySelectorTest {
+
+    private static List<PriceTick> ticks(int count, int pairCount) {
+        List<PriceTick> ticks = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            BigDecimal bid = BigDecimal.valueOf(50_000 + i % 7);
+            ticks.add(new PriceTick(
+                    new CurrencyPair("C" + (i % pairCount), "USD"),
+                    new Exchange("exchange-" + (i % 3)),
+                    Instant.ofEpochMilli(i),
+                    bid,
+                    bid.add(BigDecimal.ONE)));
+        }
+        return ticks;
+    }
+
+    @Test
+    @DisplayName("Should pick by size and pair cardinality, and count every decision")
+    void givenInputsOfDifferentShapes_whenSelect_thenPicksStrategyAndRecordsMetrics() {
+        try (ParallelConsolidationEngine engine = new ParallelConsolidationEngine(4)) {
+            // Given: fan out from 1,000 ticks, PARALLEL preferred for few pairs
+            AggregationStrategySelector selector = new AggregationStrategySelector(engine, 1_000, false);
+
+            // When / Then
+            assertEquals(Strategy.SEQUENTIAL, selector.select(ticks(999, 4)));
+            assertEquals(Strategy.PARALLEL, selector.select(ticks(5_000, 4)));
+            assertEquals(Strategy.SHARDED, selector.select(ticks(5_000, 200)));
+
+            assertEquals(1, selector.decisionCount(Strategy.SEQUENTIAL));
+            assertEquals(1, selector.decisionCount(Strategy.PARALLEL));
+            assertEquals(1, selector.decisionCount(Strategy.SHARDED));
+            assertEquals(999, selector.tickCount(Strategy.SEQUENTIAL));
+        }
+    }
+
+    @Test
+    @DisplayName("Should extrapolate a threshold instead of disabling fan-out when no calibrated size wins")
+    void givenFanOutNeverWins_whenExtrapolateThreshold_thenFiniteThreshold() {
+        // Given: sequential costs 0.1 per tick at every calibrated size, and no fan-out ever won
+        int[] sizes = {1_000, 4_000, 16_000, 64_000};
+        long[] sequential = {100, 400, 1_600, 6_400};
+
+        // When / Then: fan-out at 0.05 per tick and 3,200 behind at 64,000 catches up 64,000 ticks later
+        assertEquals(128_000, AggregationStrategySelector.extrapolateThreshold(sizes, sequential, new long[]{5_000, 5_000, 7_200, 9_600}));
+
+        // A far-off break-even is capped, so large batches still fan out
+        assertEquals(4 * 64_000, AggregationStrategySelector.extrapolateThreshold(sizes, sequential, new long[]{0, 0, 100_000, 104_000}));
+
+        // Fan-out that grows as fast as sequential falls back to the largest calibrated size
+        assertEquals(64_000, AggregationStrategySelector.extrapolateThreshold(sizes, sequential, new long[]{1_000, 1_300, 2_500, 7_300}));
+    }
+
+    @Test
+    @DisplayName("A single-worker engine should always aggregate sequentially")
+    void givenSingleWorker_whenCalibrate_thenAlwaysSequential() {
+        try (ParallelConsolidationEngine engine = new ParallelConsolidationEngine(1)) {
+            AggregationStrategySelector selector = AggregationStrategySelector.calibrate(engine);
+
+            assertEquals(Strategy.SEQUENTIAL, selector.select(ticks(100_000, 200)));
+        }
+    }
+
+    @Test
+    @DisplayName("Adaptive aggregation should give the same result whatever the strategy")
+    void givenSelector_whenAggregateAdaptive_thenMatchesSequentialResult() {
+        try (ParallelConsolidationEngine engine = new ParallelConsolidationEngine(2)) {
+            AggregationStrategySelector selector = AggregationStrategySelector.calibrate(engine);
+            assertTrue(selector.parallelThreshold() >= 1);
+
+            PriceService adaptive = new PriceService(selector);
+            PriceService sequential = new PriceService();
+            for (List<PriceTick> input : List.of(ticks(10, 2), ticks(100_000, 4), ticks(100_000, 300))) {
+                assertEquals(sequential.aggregatePrices(input), adaptive.aggregatePricesAdaptive(input));
+            }
+        }
+    }
+}
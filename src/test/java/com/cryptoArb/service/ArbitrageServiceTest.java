@@ -4,12 +4,14 @@ import com.cryptoArb.domain.ArbitrageOpportunity;
 import com.cryptoArb.domain.ConsolidatedPrice;
 import com.cryptoArb.domain.CurrencyPair;
 import com.cryptoArb.domain.Exchange;
+import com.cryptoArb.domain.PriceTick;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 
 import java.math.BigDecimal;
 import java.math.RoundingMode;
 import java.time.Instant;
+import java.util.ArrayList;
 import java.util.List;
 import java.util.Map;
 
@@ -118,4 +120,61 @@ class ArbitrageServiceTest {
         assertEquals(0, opportunities.size(), "Should find no opportunities");
     }
 
-}
\ No newline at end of file
+    @Test
+    @DisplayName("Should skip a pair with a zero quote and still report the other pairs")
+    void givenZeroAskOnOnePair_whenFindArbitrage_thenOtherPairsStillReported() {
+        // Given: ETH/USD has a broken zero ask (so it looks crossed), BTC/USD is really crossed
+        Instant now = Instant.now();
+        CurrencyPair btcUsd = new CurrencyPair("BTC", "USD");
+        CurrencyPair ethUsd = new CurrencyPair("ETH", "USD");
+        Map<CurrencyPair, ConsolidatedPrice> priceMap = Map.of(
+                btcUsd, new ConsolidatedPrice(btcUsd, now, new BigDecimal("50010"), new Exchange("kraken"),
+                        new BigDecimal("50000"), new Exchange("coinbase")),
+                ethUsd, new ConsolidatedPrice(ethUsd, now, new BigDecimal("3000"), new Exchange("kraken"),
+                        BigDecimal.ZERO, new Exchange("coinbase")));
+
+        // When
+        List<ArbitrageOpportunity> opportunities = new ArbitrageService().findArbitrageOpportunities(priceMap);
+        List<ArbitrageOpportunity> withEngine = new ArbitrageService(ProfitEngine.builder().build()).findArbitrageOpportunities(priceMap);
+
+        // Then
+        assertEquals(1, opportunities.size());
+        assertEquals(btcUsd, opportunities.get(0).pair());
+        assertEquals(1, withEngine.size());
+    }
+
+    @Test
+    @DisplayName("In push mode, should evaluate only the pair that changed and notify listeners")
+    void givenSubscribedBook_whenPairCrosses_thenListenerReceivesOpportunity() {
+        // --- Given ---
+        CurrencyPair ethUsd = new CurrencyPair("ETH", "USD");
+        CurrencyPair btcUsd = new CurrencyPair("BTC", "USD");
+        Exchange coinbase = new Exchange("coinbase");
+        Exchange kraken = new Exchange("kraken");
+        Instant now = Instant.ofEpochMilli(1000L);
+
+        ConsolidatedBook book = new ConsolidatedBook();
+        ArbitrageService arbitrageService = new ArbitrageService();
+        List<ArbitrageOpportunity> received = new ArrayList<>();
+        arbitrageService.addOpportunityListener(received::add);
+        arbitrageService.subscribeTo(book);
+
+        // --- When ---
+        // BTC/USD is never crossed; ETH/USD crosses once kraken bids above coinbase's ask
+        book.onTick(new PriceTick(btcUsd, coinbase, now, new BigDecimal("50000"), new BigDecimal("50001")));
+        book.onTick(new PriceTick(btcUsd, kraken, now, new BigDecimal("50000.5"), new BigDecimal("50002")));
+        book.onTick(new PriceTick(ethUsd, coinbase, now, new BigDecimal("2998"), new BigDecimal("2999")));
+        book.onTick(new PriceTick(ethUsd, kraken, now, new BigDecimal("3000"), new BigDecimal("3001")));
+
+        // --- Then ---
+        assertEquals(1, received.size());
+        assertEquals(ethUsd, received.get(0).pair());
+        assertEquals(coinbase, received.get(0).buyExchange());
+        assertEquals(kraken, received.get(0).sellExchange());
+
+        // After unsubscribing, changes are no longer evaluated
+        arbitrageService.unsubscribeFrom(book);
+        book.onTick(new PriceTick(ethUsd, kraken, now.plusMillis(1), new BigDecimal("3005"), new BigDecimal("3006")));
+        assertEquals(1, received.size());
+    }
+}
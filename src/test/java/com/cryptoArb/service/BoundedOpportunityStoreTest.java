@@ -0,0 +1,146 @@
+package com.cryptoArb.service;
+
+import com.cryptoArb.domain.ArbitrageOpportunity;
+import com.cryptoArb.domain.CurrencyPair;
+import com.cryptoArb.domain.Exchange;
+import com.cryptoArb.service.BoundedOpportunityStore.OverflowPolicy;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class BoundedOpportunityStoreTest {
+
+    private ArbitrageOpportunity opportunity(long seconds) {
+        return new ArbitrageOpportunity(
+                new CurrencyPair("BTC", "USD"),
+                Instant.ofEpochSecond(seconds),
+                new Exchange("buy-exchange"),
+                BigDecimal.valueOf(100),
+                new Exchange("sell-exchange"),
+                BigDecimal.valueOf(101)
+        );
+    }
+
+    private static List<Long> seconds(List<ArbitrageOpportunity> opportunities) {
+        return opportunities.stream().map(o -> o.timestamp().getEpochSecond()).toList();
+    }
+
+    @Test
+    @DisplayName("Should evict the oldest opportunities when full under OVERWRITE_OLDEST")
+    void givenOverwriteOldest_whenMoreThanCapacityAdded_thenKeepsNewest() {
+        // Given
+        BoundedOpportunityStore store = new BoundedOpportunityStore(3, OverflowPolicy.OVERWRITE_OLDEST);
+
+        // When
+        for (int i = 1; i <= 5; i++) {
+            assertTrue(store.addOpportunity(opportunity(i)));
+        }
+
+        // Then
+        assertEquals(List.of(3L, 4L, 5L), seconds(store.getOpportunities()));
+        assertEquals(2, store.overwrittenCount());
+        assertEquals(0, store.droppedCount());
+        assertEquals(5, store.addedCount());
+        assertEquals(1.0, store.occupancy());
+    }
+
+    @Test
+    @DisplayName("Should reject new opportunities when full under DROP_NEWEST")
+    void givenDropNewest_whenMoreThanCapacityAdded_thenKeepsOldestAndCountsDrops() {
+        // Given
+        BoundedOpportunityStore store = new BoundedOpportunityStore(3, OverflowPolicy.DROP_NEWEST);
+
+        // When
+        for (int i = 1; i <= 5; i++) {
+            store.addOpportunity(opportunity(i));
+        }
+
+        // Then
+        assertEquals(List.of(1L, 2L, 3L), seconds(store.getOpportunities()));
+        assertEquals(2, store.droppedCount());
+        assertEquals(0, store.overwrittenCount());
+    }
+
+    @Test
+    @DisplayName("Should poll oldest first and keep the ring order across wrap-around")
+    void givenWrappedRing_whenPollAndAdd_thenFifoOrderIsKept() {
+        // Given
+        BoundedOpportunityStore store = new BoundedOpportunityStore(3, OverflowPolicy.DROP_NEWEST);
+        store.addOpportunity(opportunity(1));
+        store.addOpportunity(opportunity(2));
+        store.addOpportunity(opportunity(3));
+
+        // When: free two slots, then write past the end of the array
+        assertEquals(1L, store.poll().timestamp().getEpochSecond());
+        assertEquals(2L, store.poll().timestamp().getEpochSecond());
+        store.addOpportunity(opportunity(4));
+        store.addOpportunity(opportunity(5));
+
+        // Then
+        assertEquals(List.of(3L, 4L, 5L), seconds(store.getOpportunities()));
+        assertEquals(3, store.getOpportunityCount());
+        store.poll();
+        store.poll();
+        store.poll();
+        assertNull(store.poll());
+        assertEquals(0.0, store.occupancy());
+    }
+
+    @Test
+    @DisplayName("Should block a producer until a consumer frees a slot under BLOCK")
+    void givenBlockPolicyAndFullStore_whenConsumerPolls_thenProducerProceeds() throws Exception {
+        // Given
+        BoundedOpportunityStore store = new BoundedOpportunityStore(1, OverflowPolicy.BLOCK);
+        store.addOpportunity(opportunity(1));
+        ExecutorService executor = Executors.newSingleThreadExecutor();
+        CountDownLatch producerStarted = new CountDownLatch(1);
+
+        // When
+        Future<Boolean> producer = executor.submit(() -> {
+            producerStarted.countDown();
+            return store.addOpportunity(opportunity(2));
+        });
+        producerStarted.await();
+        Thread.sleep(50);
+        assertFalse(producer.isDone(), "Producer should wait while the store is full");
+        store.poll();
+
+        // Then
+        assertTrue(producer.get(5, TimeUnit.SECONDS));
+        assertEquals(List.of(2L), seconds(store.getOpportunities()));
+        executor.shutdown();
+    }
+
+    @Test
+    @DisplayName("Should drop the opportunity when a BLOCK offer times out")
+    void givenBlockPolicyAndFullStore_whenOfferTimesOut_thenDropped() throws InterruptedException {
+        // Given
+        BoundedOpportunityStore store = new BoundedOpportunityStore(1, OverflowPolicy.BLOCK);
+        store.addOpportunity(opportunity(1));
+
+        // When
+        boolean stored = store.offer(opportunity(2), 10, TimeUnit.MILLISECONDS);
+
+        // Then
+        assertFalse(stored);
+        assertEquals(1, store.droppedCount());
+        assertEquals(List.of(1L), seconds(store.getOpportunities()));
+    }
+
+    @Test
+    @DisplayName("Should reject a non-positive capacity")
+    void givenZeroCapacity_whenCreated_thenThrows() {
+        assertThrows(IllegalArgumentException.class,
+                () -> new BoundedOpportunityStore(0, OverflowPolicy.DROP_NEWEST));
+    }
+}
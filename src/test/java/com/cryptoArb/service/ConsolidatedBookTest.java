@@ -0,0 +1,175 @@
+package com.cryptoArb.service;
+
+import com.cryptoArb.domain.ConsolidatedPrice;
+import com.cryptoArb.domain.CurrencyPair;
+import com.cryptoArb.domain.Exchange;
+import com.cryptoArb.domain.FixedPointPrice;
+import com.cryptoArb.domain.FixedPointTick;
+import com.cryptoArb.domain.PriceTick;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ConsolidatedBookTest {
+
+    private final Exchange coinbase = new Exchange("coinbase");
+    private final Exchange kraken = new Exchange("kraken");
+    private final Exchange binance = new Exchange("binance");
+    private final CurrencyPair btcUsd = new CurrencyPair("BTC", "USD");
+    private final CurrencyPair ethUsd = new CurrencyPair("ETH", "USD");
+
+    private ConsolidatedBook book;
+
+    @BeforeEach
+    void setUp() {
+        book = new ConsolidatedBook();
+    }
+
+    private PriceTick tick(CurrencyPair pair, Exchange exchange, long millis, String bid, String ask) {
+        return new PriceTick(pair, exchange, Instant.ofEpochMilli(millis), new BigDecimal(bid), new BigDecimal(ask));
+    }
+
+    @Test
+    @DisplayName("Should track best bid, best ask and latest timestamp across exchanges")
+    void givenTicksFromSeveralExchanges_whenApplied_thenBookHoldsBestPrices() {
+        // When
+        book.onTick(tick(btcUsd, coinbase, 1000L, "50000", "50001"));
+        book.onTick(tick(btcUsd, kraken, 1001L, "50002", "50003"));
+        book.onTick(tick(btcUsd, binance, 1002L, "49999", "49998"));
+
+        // Then
+        ConsolidatedPrice price = book.getConsolidatedPrice(btcUsd).orElseThrow();
+        assertEquals(new BigDecimal("50002"), price.bestBid());
+        assertEquals(kraken, price.bestBidExchange());
+        assertEquals(new BigDecimal("49998"), price.bestAsk());
+        assertEquals(binance, price.bestAskExchange());
+        assertEquals(Instant.ofEpochMilli(1002L), price.timestamp());
+    }
+
+    @Test
+    @DisplayName("Should fall back to the next best exchange when the best quote gets worse")
+    void givenBestExchangeWorsensQuote_whenApplied_thenNextBestTakesOver() {
+        // Given: kraken holds the best bid and the best ask
+        book.onTick(tick(btcUsd, coinbase, 1000L, "50000", "50005"));
+        book.onTick(tick(btcUsd, kraken, 1001L, "50002", "50003"));
+
+        // When: kraken pulls its quote back on both sides
+        book.onTick(tick(btcUsd, kraken, 1002L, "49990", "50010"));
+
+        // Then: coinbase is the best on both sides now
+        ConsolidatedPrice price = book.getConsolidatedPrice(btcUsd).orElseThrow();
+        assertEquals(new BigDecimal("50000"), price.bestBid());
+        assertEquals(coinbase, price.bestBidExchange());
+        assertEquals(new BigDecimal("50005"), price.bestAsk());
+        assertEquals(coinbase, price.bestAskExchange());
+    }
+
+    @Test
+    @DisplayName("Should ignore a tick older than the exchange's current quote")
+    void givenOutOfOrderTick_whenApplied_thenIgnored() {
+        // Given
+        book.onTick(tick(btcUsd, coinbase, 2000L, "50000", "50001"));
+
+        // When
+        boolean changed = book.onTick(tick(btcUsd, coinbase, 1000L, "60000", "60001"));
+
+        // Then
+        assertFalse(changed);
+        assertEquals(new BigDecimal("50000"), book.getConsolidatedPrice(btcUsd).orElseThrow().bestBid());
+    }
+
+    @Test
+    @DisplayName("Should reject and count a tick priced outside the fixed-point range")
+    void givenPriceAboveMaxPrice_whenApplied_thenRejectedAndCounted() {
+        // Given
+        book.onTick(tick(btcUsd, coinbase, 1000L, "50000", "50001"));
+        String tooHigh = FixedPointPrice.MAX_PRICE.add(BigDecimal.ONE).toPlainString();
+
+        // When
+        boolean changed = book.onTick(tick(btcUsd, kraken, 1001L, "50000", tooHigh));
+        boolean atMax = book.onTick(tick(ethUsd, kraken, 1001L, "1", FixedPointPrice.MAX_PRICE.toPlainString()));
+
+        // Then: no exception, the bad tick is counted and the book keeps working
+        assertFalse(changed);
+        assertTrue(atMax, "MAX_PRICE itself is in range");
+        assertEquals(1, book.rejectedTickCount());
+        assertEquals(coinbase, book.getConsolidatedPrice(btcUsd).orElseThrow().bestAskExchange());
+        assertEquals(FixedPointPrice.MAX_PRICE, book.getConsolidatedPrice(ethUsd).orElseThrow().bestAsk());
+    }
+
+    @Test
+    @DisplayName("Should report no change when a non-best exchange moves behind the best")
+    void givenNonBestQuoteMoves_whenApplied_thenReportsNoChange() {
+        // Given
+        book.onTick(tick(btcUsd, kraken, 1000L, "50002", "50003"));
+        book.onTick(tick(btcUsd, coinbase, 1001L, "50000", "50005"));
+
+        // When: coinbase moves but stays behind kraken, with the same timestamp as the latest
+        boolean changed = book.onTick(tick(btcUsd, coinbase, 1001L, "49999", "50006"));
+
+        // Then
+        assertFalse(changed);
+    }
+
+    @Test
+    @DisplayName("Should return empty for an unknown pair and a snapshot of known pairs")
+    void givenTwoPairs_whenSnapshot_thenContainsBoth() {
+        // Given
+        book.onTick(tick(btcUsd, coinbase, 1000L, "50000", "50001"));
+        book.onTick(tick(ethUsd, kraken, 1000L, "3000", "3001"));
+
+        // When
+        Map<CurrencyPair, ConsolidatedPrice> snapshot = book.snapshot();
+
+        // Then
+        assertEquals(2, snapshot.size());
+        assertTrue(book.getConsolidatedPrice(new CurrencyPair("LTC", "USD")).isEmpty());
+    }
+
+    @Test
+    @DisplayName("Should accept fixed-point ticks and convert to BigDecimal only on read")
+    void givenFixedPointTicks_whenApplied_thenReadReturnsBigDecimalPrices() {
+        // Given
+        book.onTick(new FixedPointTick(btcUsd, coinbase, Instant.ofEpochMilli(1000L),
+                FixedPointPrice.fromBigDecimal(new BigDecimal("50000")), FixedPointPrice.fromBigDecimal(new BigDecimal("50001"))));
+
+        // When: a regular tick from another exchange improves the bid
+        book.onTick(tick(btcUsd, kraken, 1001L, "50000.5", "50002"));
+
+        // Then
+        ConsolidatedPrice price = book.getConsolidatedPrice(btcUsd).orElseThrow();
+        assertEquals(new BigDecimal("50000.5"), price.bestBid(), "Original BigDecimal is returned as-is");
+        assertEquals(0, new BigDecimal("50001").compareTo(price.bestAsk()));
+        assertEquals(coinbase, price.bestAskExchange());
+    }
+
+    @Test
+    @DisplayName("Should push the new price to listeners only when a pair's price changes")
+    void givenListener_whenTicksApplied_thenNotifiedOnChangeOnly() {
+        // Given
+        List<ConsolidatedPrice> received = new ArrayList<>();
+        ConsolidatedPriceListener listener = received::add;
+        book.addListener(listener);
+
+        // When: a new best bid, then a quote that changes nothing visible
+        book.onTick(tick(btcUsd, kraken, 1000L, "50002", "50003"));
+        book.onTick(tick(btcUsd, coinbase, 1000L, "50000", "50004"));
+        book.onTick(tick(btcUsd, coinbase, 999L, "60000", "60001")); // out of order: ignored
+
+        // Then
+        assertEquals(1, received.size());
+        assertEquals(kraken, received.get(0).bestBidExchange());
+
+        book.removeListener(listener);
+        book.onTick(tick(btcUsd, kraken, 1001L, "50010", "50011"));
+        assertEquals(1, received.size());
+    }
+}
@@ -0,0 +1,98 @@
+package com.cryptoArb.service;
+
+import com.cryptoArb.domain.ConsolidatedPrice;
+import com.cryptoArb.domain.CurrencyPair;
+import com.cryptoArb.domain.Exchange;
+import com.cryptoArb.domain.PriceTick;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+class ConsolidatedPriceCollectorTest {
+
+    private final Exchange coinbase = new Exchange("coinbase");
+    private final Exchange kraken = new Exchange("kraken");
+    private final CurrencyPair btcUsd = new CurrencyPair("BTC", "USD");
+
+    @Test
+    @DisplayName("Should find best bid, best ask and latest timestamp in a single pass")
+    void givenTicksForOnePair_whenCollect_thenReturnsConsolidatedPrice() {
+        // Given
+        List<PriceTick> ticks = List.of(
+                new PriceTick(btcUsd, coinbase, Instant.ofEpochMilli(1000L), new BigDecimal("50000"), new BigDecimal("50001")),
+                new PriceTick(btcUsd, kraken, Instant.ofEpochMilli(1002L), new BigDecimal("50002"), new BigDecimal("50003")),
+                new PriceTick(btcUsd, coinbase, Instant.ofEpochMilli(1001L), new BigDecimal("50001"), new BigDecimal("50000"))
+        );
+
+        // When
+        ConsolidatedPrice price = ticks.stream().collect(ConsolidatedPriceCollector.toConsolidatedPrice());
+
+        // Then
+        assertEquals(new BigDecimal("50002"), price.bestBid());
+        assertEquals(kraken, price.bestBidExchange());
+        assertEquals(new BigDecimal("50000"), price.bestAsk());
+        assertEquals(coinbase, price.bestAskExchange());
+        assertEquals(Instant.ofEpochMilli(1002L), price.timestamp(), "Timestamp should be the latest, not the last");
+    }
+
+    @Test
+    @DisplayName("Should keep the first tick on ties, like Stream.max()/min()")
+    void givenTiedPrices_whenCollect_thenKeepsFirstExchange() {
+        // Given: both exchanges quote exactly the same prices
+        List<PriceTick> ticks = List.of(
+                new PriceTick(btcUsd, coinbase, Instant.ofEpochMilli(1000L), new BigDecimal("100"), new BigDecimal("101")),
+                new PriceTick(btcUsd, kraken, Instant.ofEpochMilli(1000L), new BigDecimal("100"), new BigDecimal("101"))
+        );
+
+        // When
+        ConsolidatedPrice price = ticks.stream().collect(ConsolidatedPriceCollector.toConsolidatedPrice());
+
+        // Then
+        assertEquals(coinbase, price.bestBidExchange());
+        assertEquals(coinbase, price.bestAskExchange());
+    }
+
+    @Test
+    @DisplayName("Should return null when no tick was collected")
+    void givenNoTicks_whenCollect_thenReturnsNull() {
+        assertNull(Stream.<PriceTick>empty().collect(ConsolidatedPriceCollector.toConsolidatedPrice()));
+    }
+
+    @Test
+    @DisplayName("Parallel collection should give exactly the same result as sequential")
+    void givenManyTicks_whenCollectInParallel_thenMatchesSequential() {
+        // Given: a large random batch across several pairs and exchanges
+        Random random = new Random(42);
+        List<CurrencyPair> pairs = List.of(btcUsd, new CurrencyPair("ETH", "USD"), new CurrencyPair("LTC", "USD"));
+        List<Exchange> exchanges = List.of(coinbase, kraken, new Exchange("binance"));
+        List<PriceTick> ticks = new ArrayList<>();
+        for (int i = 0; i < 100_000; i++) {
+            BigDecimal bid = BigDecimal.valueOf(random.nextInt(1_000));
+            ticks.add(new PriceTick(
+                    pairs.get(random.nextInt(pairs.size())),
+                    exchanges.get(random.nextInt(exchanges.size())),
+                    Instant.ofEpochMilli(random.nextInt(10_000)),
+                    bid,
+                    bid.add(BigDecimal.valueOf(random.nextInt(10)))));
+        }
+
+        // When
+        Map<CurrencyPair, ConsolidatedPrice> sequential = ticks.stream()
+                .collect(ConsolidatedPriceCollector.groupingByPair());
+        Map<CurrencyPair, ConsolidatedPrice> parallel = ticks.parallelStream()
+                .collect(ConsolidatedPriceCollector.groupingByPair());
+
+        // Then
+        assertEquals(sequential, parallel);
+    }
+}
@@ -3,6 +3,7 @@ package com.cryptoArb.service;
 import com.cryptoArb.domain.ArbitrageOpportunity;
 import com.cryptoArb.domain.CurrencyPair;
 import com.cryptoArb.domain.Exchange;
+import com.cryptoArb.domain.OpportunityLifecycleEvent;
 import com.cryptoArb.domain.PriceTick;
 import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.BeforeEach;
@@ -15,6 +16,7 @@ import org.testcontainers.junit.jupiter.Testcontainers;
 import java.math.BigDecimal;
 import java.sql.*;
 import java.time.Instant;
+import java.util.List;
 
 import static org.junit.jupiter.api.Assertions.*;
 
@@ -78,9 +80,26 @@ class DatabaseServiceTest {
             );
             """;
 
+        String createLifecycleTableSql = """
+            CREATE TABLE IF NOT EXISTS opportunity_lifecycle (
+                id SERIAL PRIMARY KEY,
+                base_currency VARCHAR(10) NOT NULL,
+                quote_currency VARCHAR(10) NOT NULL,
+                buy_exchange VARCHAR(50) NOT NULL,
+                sell_exchange VARCHAR(50) NOT NULL,
+                opened_at TIMESTAMPTZ NOT NULL,
+                closed_at TIMESTAMPTZ NOT NULL,
+                duration_ms BIGINT NOT NULL,
+                detections BIGINT NOT NULL,
+                peak_profit_percentage DECIMAL(10, 5) NOT NULL,
+                last_profit_percentage DECIMAL(10, 5) NOT NULL
+            );
+            """;
+
         try (Statement stmt = testConnection.createStatement()) {
             stmt.execute(createTableSql); // This one is from before
             stmt.execute(createArbTableSql); // This is the new one
+            stmt.execute(createLifecycleTableSql);
         }
     }
 
@@ -194,6 +213,79 @@ class DatabaseServiceTest {
         }
     }
 
+    @Test
+    @DisplayName("Should save an opportunity lifecycle to the database")
+    void givenClosedWindow_whenSaveOpportunityLifecycle_thenOneRowIsPersisted() throws SQLException {
+        // --- Given ---
+        ArbitrageOpportunity latest = new ArbitrageOpportunity(
+                new CurrencyPair("ETH", "USD"),
+                Instant.parse("2025-11-01T10:00:05Z"),
+                new Exchange("kraken"),
+                new BigDecimal("4000.10"),
+                new Exchange("binance"),
+                new BigDecimal("4005.15")
+        );
+        OpportunityLifecycleEvent closed = new OpportunityLifecycleEvent(
+                OpportunityLifecycleEvent.Type.CLOSE,
+                latest.pair(),
+                latest.buyExchange(),
+                latest.sellExchange(),
+                Instant.parse("2025-11-01T10:00:00Z"),
+                Instant.parse("2025-11-01T10:00:07Z"),
+                latest,
+                new BigDecimal("0.002"),
+                500
+        );
 
+        // --- When ---
+        databaseService.saveOpportunityLifecycle(closed);
 
-}
\ No newline at end of file
+        // --- Then ---
+        String verifySql = "SELECT * FROM opportunity_lifecycle WHERE buy_exchange = 'kraken'";
+        try (Statement stmt = testConnection.createStatement();
+             ResultSet rs = stmt.executeQuery(verifySql)) {
+
+            assertTrue(rs.next(), "No data was found in the opportunity_lifecycle table");
+            assertEquals("ETH", rs.getString("base_currency"));
+            assertEquals("USD", rs.getString("quote_currency"));
+            assertEquals("binance", rs.getString("sell_exchange"));
+            assertEquals(closed.openedAt(), rs.getTimestamp("opened_at").toInstant());
+            assertEquals(closed.eventTime(), rs.getTimestamp("closed_at").toInstant());
+            assertEquals(7000L, rs.getLong("duration_ms"));
+            assertEquals(500L, rs.getLong("detections"));
+            assertEquals(0, new BigDecimal("0.002").compareTo(rs.getBigDecimal("peak_profit_percentage")));
+            assertEquals(0, new BigDecimal("0.00126").compareTo(rs.getBigDecimal("last_profit_percentage")));
+
+            assertFalse(rs.next(), "More than one record was found");
+        }
+    }
+
+    @Test
+    @DisplayName("Should save a batch of ArbitrageOpportunities in one call")
+    void givenBatch_whenSaveOpportunities_thenAllRowsArePersisted() throws SQLException {
+        // --- Given ---
+        List<ArbitrageOpportunity> batch = List.of(
+                new ArbitrageOpportunity(new CurrencyPair("BTC", "USD"), Instant.parse("2025-11-01T10:00:00Z"),
+                        new Exchange("batch-buy"), new BigDecimal("60000"), new Exchange("binance"), new BigDecimal("60060")),
+                new ArbitrageOpportunity(new CurrencyPair("ETH", "USD"), Instant.parse("2025-11-01T10:00:01Z"),
+                        new Exchange("batch-buy"), new BigDecimal("4000"), new Exchange("kraken"), new BigDecimal("4004")),
+                new ArbitrageOpportunity(new CurrencyPair("SOL", "USD"), Instant.parse("2025-11-01T10:00:02Z"),
+                        new Exchange("batch-buy"), new BigDecimal("200"), new Exchange("coinbase"), new BigDecimal("201"))
+        );
+
+        // --- When ---
+        databaseService.saveOpportunities(batch);
+
+        // --- Then ---
+        String verifySql = "SELECT base_currency FROM arbitrage_opportunity WHERE buy_exchange = 'batch-buy' ORDER BY timestamp";
+        try (Statement stmt = testConnection.createStatement();
+             ResultSet rs = stmt.executeQuery(verifySql)) {
+
+            for (String base : List.of("BTC", "ETH", "SOL")) {
+                assertTrue(rs.next(), "Missing row for " + base);
+                assertEquals(base, rs.getString("base_currency"));
+            }
+            assertFalse(rs.next(), "More than three records were found");
+        }
+    }
+}
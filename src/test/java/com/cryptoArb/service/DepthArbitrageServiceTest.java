@@ -0,0 +1,129 @@
+package com.cryptoArb.service;
+
+import com.cryptoArb.domain.CurrencyPair;
+import com.cryptoArb.domain.DepthArbitrageOpportunity;
+import com.cryptoArb.domain.Exchange;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class DepthArbitrageServiceTest {
+
+    private final CurrencyPair btcUsd = new CurrencyPair("BTC", "USD");
+    private final Exchange kraken = new Exchange("kraken");
+    private final Exchange coinbase = new Exchange("coinbase");
+    private final Instant now = Instant.ofEpochMilli(1000L);
+
+    private DepthArbitrageService service;
+    private L2OrderBook krakenBook;
+    private L2OrderBook coinbaseBook;
+
+    @BeforeEach
+    void setUp() {
+        service = new DepthArbitrageService();
+        krakenBook = service.book(btcUsd, kraken);
+        coinbaseBook = service.book(btcUsd, coinbase);
+
+        // Kraken sells cheap...
+        krakenBook.updateAsk(new BigDecimal("100"), new BigDecimal("1"));
+        krakenBook.updateAsk(new BigDecimal("101"), new BigDecimal("2"));
+        krakenBook.updateAsk(new BigDecimal("103"), new BigDecimal("5"));
+        krakenBook.updateBid(new BigDecimal("98"), new BigDecimal("5"));
+
+        // ...Coinbase buys dear, but only for a little volume
+        coinbaseBook.updateBid(new BigDecimal("102"), new BigDecimal("1.5"));
+        coinbaseBook.updateBid(new BigDecimal("101.5"), new BigDecimal("1"));
+        coinbaseBook.updateBid(new BigDecimal("99"), new BigDecimal("10"));
+        coinbaseBook.updateAsk(new BigDecimal("104"), new BigDecimal("5"));
+    }
+
+    @Test
+    @DisplayName("Should size the opportunity by walking both books while they cross")
+    void givenCrossedBooks_whenEvaluate_thenComputesExecutableVolumeAndVwap() {
+        // When
+        DepthArbitrageOpportunity opportunity = DepthArbitrageService.evaluate(krakenBook, coinbaseBook, now);
+
+        // Then: 1 @ 100->102, 0.5 @ 101->102, 1 @ 101->101.5; the 99 bid no longer crosses
+        assertEquals(0, new BigDecimal("2.5").compareTo(opportunity.quantity()));
+        assertEquals(0, new BigDecimal("100.6").compareTo(opportunity.buyVwap()));
+        assertEquals(0, new BigDecimal("101.8").compareTo(opportunity.sellVwap()));
+        assertEquals(0, new BigDecimal("3").compareTo(opportunity.profit()));
+        assertEquals(kraken, opportunity.buyExchange());
+        assertEquals(coinbase, opportunity.sellExchange());
+        assertTrue(opportunity.profitPercentage().signum() > 0);
+    }
+
+    @Test
+    @DisplayName("Should only report the direction in which the books cross")
+    void givenBookUpdate_whenOnBookUpdate_thenChecksBothDirectionsForThatBook() {
+        List<DepthArbitrageOpportunity> opportunities = service.onBookUpdate(coinbaseBook, now);
+
+        assertEquals(1, opportunities.size());
+        assertEquals(kraken, opportunities.get(0).buyExchange());
+        assertNull(DepthArbitrageService.evaluate(coinbaseBook, krakenBook, now));
+        assertEquals(opportunities, service.findOpportunities(btcUsd, now));
+    }
+
+    @Test
+    @DisplayName("Should find nothing once the crossing level is removed")
+    void givenLevelsRemoved_whenOnBookUpdate_thenNoOpportunity() {
+        krakenBook.updateAsk(new BigDecimal("100"), BigDecimal.ZERO);
+        krakenBook.updateAsk(new BigDecimal("101"), BigDecimal.ZERO);
+
+        assertTrue(service.onBookUpdate(krakenBook, now).isEmpty());
+    }
+
+    @Test
+    @DisplayName("Should apply an update and check the updated book in one call")
+    void givenUpdate_whenApplyUpdate_thenBookChangedAndChecked() {
+        // When: Coinbase's crossing bids go away
+        List<DepthArbitrageOpportunity> opportunities = service.applyUpdate(coinbaseBook, book -> {
+            book.updateBid(new BigDecimal("102"), BigDecimal.ZERO);
+            book.updateBid(new BigDecimal("101.5"), BigDecimal.ZERO);
+        }, now);
+
+        // Then
+        assertEquals(1, coinbaseBook.bidDepth());
+        assertTrue(opportunities.isEmpty());
+    }
+
+    @Test
+    @DisplayName("Should never walk a book while another feed thread removes its levels")
+    void givenTwoFeedThreads_whenApplyUpdate_thenWalksNeverSeeAHalfUpdatedBook() throws Exception {
+        // Given: one thread churns Kraken's asks while another keeps checking Coinbase against it
+        ExecutorService executor = Executors.newFixedThreadPool(2);
+        try {
+            Future<?> kraken = executor.submit(() -> {
+                for (int i = 0; i < 20_000; i++) {
+                    BigDecimal quantity = i % 2 == 0 ? BigDecimal.ZERO : BigDecimal.ONE;
+                    service.applyUpdate(krakenBook, book -> {
+                        book.updateAsk(new BigDecimal("100"), quantity);
+                        book.updateAsk(new BigDecimal("101"), quantity);
+                    }, now);
+                }
+            });
+            Future<?> coinbase = executor.submit(() -> {
+                for (int i = 0; i < 20_000; i++) {
+                    service.applyUpdate(coinbaseBook, book -> book.updateBid(new BigDecimal("102"), new BigDecimal("1.5")), now);
+                }
+            });
+
+            // When / Then: neither side fails with an out-of-bounds read of a shrinking book
+            kraken.get();
+            coinbase.get();
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+}
@@ -0,0 +1,122 @@
+package com.cryptoArb.service;
+
+import com.cryptoArb.domain.CurrencyPair;
+import com.cryptoArb.domain.Exchange;
+import com.cryptoArb.domain.PriceTick;
+import com.cryptoArb.domain.SpreadRoute;
+import com.cryptoArb.domain.SymbolRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class ExchangeSpreadMatrixTest {
+
+    private final Exchange coinbase = new Exchange("coinbase");
+    private final Exchange kraken = new Exchange("kraken");
+    private final Exchange binance = new Exchange("binance");
+    private final CurrencyPair btcUsd = new CurrencyPair("BTC", "USD");
+    private final CurrencyPair ethUsd = new CurrencyPair("ETH", "USD");
+
+    private ExchangeSpreadMatrix matrix;
+
+    private PriceTick tick(CurrencyPair pair, Exchange exchange, long millis, String bid, String ask) {
+        return new PriceTick(pair, exchange, Instant.ofEpochMilli(millis), new BigDecimal(bid), new BigDecimal(ask));
+    }
+
+    @BeforeEach
+    void setUp() {
+        matrix = new ExchangeSpreadMatrix(new SymbolRegistry());
+        matrix.onTick(tick(btcUsd, coinbase, 1000L, "50000", "50001"));
+        matrix.onTick(tick(btcUsd, kraken, 1000L, "50010", "50011"));
+        matrix.onTick(tick(btcUsd, binance, 1000L, "50004", "50005"));
+        matrix.onTick(tick(ethUsd, coinbase, 1000L, "3000", "3001"));
+        matrix.onTick(tick(ethUsd, kraken, 1000L, "3003", "3004"));
+    }
+
+    private static void assertRoute(SpreadRoute route, Exchange buy, Exchange sell, String spread) {
+        assertEquals(buy, route.buyExchange());
+        assertEquals(sell, route.sellExchange());
+        assertEquals(0, new BigDecimal(spread).compareTo(route.spread()));
+    }
+
+    @Test
+    @DisplayName("Should rank routes of all pairs by spread, best first")
+    void givenQuotesOnSeveralExchanges_whenTopRoutes_thenRankedAcrossPairs() {
+        // When
+        List<SpreadRoute> top = matrix.topRoutes(3);
+
+        // Then: buy coinbase @50001 / sell kraken @50010, then binance -> kraken, then coinbase -> binance
+        assertEquals(3, top.size());
+        assertRoute(top.get(0), coinbase, kraken, "9");
+        assertRoute(top.get(1), binance, kraken, "5");
+        assertRoute(top.get(2), coinbase, binance, "3");
+        assertRoute(matrix.topRoutes(ethUsd, 1).get(0), coinbase, kraken, "2");
+        assertEquals(8, matrix.topRoutes(100).size()); // 3 * 2 BTC routes + 2 ETH routes
+    }
+
+    @Test
+    @DisplayName("Should re-rank only the updated exchange's routes, and offer alternatives without a venue")
+    void givenUpdateAndUnavailableVenue_whenTopRoutes_thenReRankedAlternatives() {
+        // When: kraken's bid drops below binance's
+        matrix.onTick(tick(btcUsd, kraken, 1001L, "50002", "50003"));
+
+        // Then
+        assertRoute(matrix.topRoutes(1).get(0), coinbase, binance, "3");
+
+        // And without binance, the alternatives are ETH coinbase -> kraken, then BTC coinbase -> kraken
+        List<SpreadRoute> withoutBinance = matrix.topRoutes(2, Set.of(binance));
+        assertRoute(withoutBinance.get(0), coinbase, kraken, "2");
+        assertEquals(ethUsd, withoutBinance.get(0).pair());
+        assertRoute(withoutBinance.get(1), coinbase, kraken, "1");
+        assertEquals(0, new BigDecimal("50001").compareTo(withoutBinance.get(1).buyPrice()));
+    }
+
+    @Test
+    @DisplayName("Should ignore out-of-order ticks and unknown routes")
+    void givenStaleTick_whenOnTick_thenIgnored() {
+        matrix.onTick(tick(btcUsd, kraken, 999L, "1", "2"));
+
+        assertRoute(matrix.route(btcUsd, coinbase, kraken).orElseThrow(), coinbase, kraken, "9");
+        assertTrue(matrix.route(btcUsd, coinbase, new Exchange("unknown")).isEmpty());
+        assertTrue(matrix.route(new CurrencyPair("LTC", "USD"), coinbase, kraken).isEmpty());
+    }
+
+    @Test
+    @DisplayName("Should keep every route when more exchanges arrive than the initial capacity")
+    void givenManyExchanges_whenOnTick_thenMatrixGrows() {
+        for (int i = 0; i < 10; i++) {
+            matrix.onTick(tick(ethUsd, new Exchange("venue-" + i), 1000L, Integer.toString(3000 + i), "3100"));
+        }
+
+        // 12 ETH exchanges -> 12 * 11 routes, plus the 6 BTC routes
+        assertEquals(12 * 11 + 6, matrix.topRoutes(1_000).size());
+        assertRoute(matrix.route(btcUsd, coinbase, kraken).orElseThrow(), coinbase, kraken, "9");
+        assertRoute(matrix.topRoutes(ethUsd, 1).get(0), coinbase, new Exchange("venue-9"), "8");
+    }
+
+    @Test
+    @DisplayName("Should serve a pair's top routes from its own index, kept in step with re-ranks")
+    void givenPairRankedBelowOthers_whenTopRoutesForPair_thenOwnRoutesInOrder() {
+        // Given: ETH's routes (spreads 2 and -4) rank below every BTC route with a better spread
+        // When: an ETH update flips the best ETH route
+        matrix.onTick(tick(ethUsd, coinbase, 1001L, "3010", "3011"));
+
+        // Then: kraken -> coinbase now earns 3010 - 3004 = 6, coinbase -> kraken 3003 - 3011 = -8
+        List<SpreadRoute> eth = matrix.topRoutes(ethUsd, 5);
+        assertEquals(2, eth.size());
+        assertRoute(eth.get(0), kraken, coinbase, "6");
+        assertRoute(eth.get(1), coinbase, kraken, "-8");
+        assertTrue(eth.stream().allMatch(route -> ethUsd.equals(route.pair())));
+        assertEquals(3, matrix.topRoutes(btcUsd, 3).size());
+        assertTrue(matrix.topRoutes(new CurrencyPair("LTC", "USD"), 3).isEmpty());
+        assertEquals(3, matrix.topRoutes(3, Set.of(new Exchange("unknown"))).size());
+    }
+}
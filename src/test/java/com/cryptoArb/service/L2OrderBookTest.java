@@ -0,0 +1,78 @@
+package com.cryptoArb.service;
+
+import com.cryptoArb.domain.CurrencyPair;
+import com.cryptoArb.domain.Exchange;
+import com.cryptoArb.domain.FixedPointPrice;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class L2OrderBookTest {
+
+    private final L2OrderBook book = new L2OrderBook(new CurrencyPair("BTC", "USD"), new Exchange("kraken"));
+
+    private static long fp(String value) {
+        return FixedPointPrice.fromBigDecimal(new BigDecimal(value));
+    }
+
+    @Test
+    @DisplayName("Should keep bids highest-first and asks lowest-first, whatever the update order")
+    void givenUnorderedLevels_whenUpdate_thenSidesAreSortedBestFirst() {
+        // Given / When
+        book.updateBid(fp("99"), fp("1"));
+        book.updateBid(fp("101"), fp("2"));
+        book.updateBid(fp("100"), fp("3"));
+        book.updateAsk(new BigDecimal("103"), new BigDecimal("1"));
+        book.updateAsk(new BigDecimal("102"), new BigDecimal("2"));
+
+        // Then
+        assertEquals(3, book.bidDepth());
+        assertEquals(fp("101"), book.bidPrice(0));
+        assertEquals(fp("100"), book.bidPrice(1));
+        assertEquals(fp("99"), book.bidPrice(2));
+        assertEquals(fp("3"), book.bidQuantity(1));
+        assertEquals(fp("102"), book.askPrice(0));
+        assertEquals(fp("103"), book.askPrice(1));
+    }
+
+    @Test
+    @DisplayName("Should replace a level's quantity, and remove the level when the quantity is 0")
+    void givenExistingLevel_whenUpdateOrZero_thenReplacedOrRemoved() {
+        // Given
+        book.updateAsk(fp("102"), fp("2"));
+        book.updateAsk(fp("103"), fp("1"));
+        book.updateAsk(fp("104"), fp("1"));
+
+        // When
+        book.updateAsk(fp("103"), fp("5"));
+        book.updateAsk(fp("102"), 0);
+        book.updateAsk(fp("150"), 0); // unknown level: no-op
+
+        // Then
+        assertEquals(2, book.askDepth());
+        assertEquals(fp("103"), book.askPrice(0));
+        assertEquals(fp("5"), book.askQuantity(0));
+        assertEquals(fp("104"), book.askPrice(1));
+    }
+
+    @Test
+    @DisplayName("Should grow past its initial capacity and reject invalid access")
+    void givenManyLevels_whenUpdate_thenGrowsAndChecksBounds() {
+        for (int i = 0; i < 100; i++) {
+            book.updateBid(fp(Integer.toString(1_000 + i)), fp("1"));
+        }
+
+        assertEquals(100, book.bidDepth());
+        assertEquals(fp("1099"), book.bidPrice(0));
+        assertEquals(fp("1000"), book.bidPrice(99));
+        assertThrows(IndexOutOfBoundsException.class, () -> book.bidPrice(100));
+        assertThrows(IllegalArgumentException.class, () -> book.updateBid(fp("1"), -1));
+
+        book.clear();
+        assertEquals(0, book.bidDepth());
+    }
+}
@@ -8,10 +8,16 @@ import org.junit.jupiter.api.Test;
 
 import java.math.BigDecimal;
 import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.CountDownLatch;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
 
 import static org.junit.jupiter.api.Assertions.*;
 
@@ -175,11 +181,312 @@ class OpportunityAggregatorTest {
     }
 
 
+    @Test
+    @DisplayName("Should return opportunities in the order they were added")
+    void givenSequentialAdds_whenGetOpportunities_thenArrivalOrderIsKept() {
+        // Given
+        opportunityAggregator = new OpportunityAggregator();
+        ArbitrageOpportunity first = createDummyOpportunity();
+        ArbitrageOpportunity second = createDummyOpportunity();
+
+        // When
+        opportunityAggregator.addOpportunity(first);
+        opportunityAggregator.addOpportunity(second);
+
+        // Then
+        List<ArbitrageOpportunity> snapshot = opportunityAggregator.getOpportunities();
+        assertSame(first, snapshot.get(0));
+        assertSame(second, snapshot.get(1));
+    }
+
+
+    @Test
+    @DisplayName("Should let readers run while writers add, without losing writes")
+    void givenConcurrentWritersAndReaders_whenAllDone_thenCountAndSnapshotAgree() throws Exception {
+        // Given
+        int numWriters = 8;
+        int addsPerWriter = 500;
+        opportunityAggregator = new OpportunityAggregator();
+        ExecutorService executor = Executors.newFixedThreadPool(numWriters + 1);
+        CountDownLatch writersDone = new CountDownLatch(numWriters);
+
+        // When: a reader keeps taking snapshots while the writers add
+        for (int i = 0; i < numWriters; i++) {
+            executor.submit(() -> {
+                for (int j = 0; j < addsPerWriter; j++) {
+                    opportunityAggregator.addOpportunity(createDummyOpportunity());
+                }
+                writersDone.countDown();
+            });
+        }
+        Future<Boolean> reader = executor.submit(() -> {
+            boolean consistent = true;
+            while (writersDone.getCount() > 0) {
+                // A snapshot never holds fewer opportunities than the count read before it
+                int countBefore = opportunityAggregator.getOpportunityCount();
+                consistent &= opportunityAggregator.getOpportunities().size() >= countBefore;
+            }
+            return consistent;
+        });
+        assertTrue(writersDone.await(10, TimeUnit.SECONDS), "Writers did not complete in time");
+        executor.shutdown();
+        assertTrue(executor.awaitTermination(10, TimeUnit.SECONDS));
+        assertTrue(reader.get(), "A snapshot missed opportunities that were already counted");
+
+        // Then
+        assertEquals(numWriters * addsPerWriter, opportunityAggregator.getOpportunityCount());
+        assertEquals(numWriters * addsPerWriter, opportunityAggregator.getOpportunities().size());
+    }
+
+
+    @Test
+    @DisplayName("Should not make a writer wait for an earlier writer that has not filled its slot")
+    void givenEarlierSlotNotFilled_whenAddOpportunity_thenReturnsAndPublishesOnceTheGapIsFilled() {
+        // Given: a writer claimed slot 0 and has not filled it yet
+        opportunityAggregator = new OpportunityAggregator();
+        ArbitrageOpportunity slow = createDummyOpportunity();
+        ArbitrageOpportunity fast = createDummyOpportunity();
+        long slot = opportunityAggregator.claimSlot();
+
+        // When: a later writer adds on the same thread (it would wait forever if it waited for slot 0)
+        opportunityAggregator.addOpportunity(fast);
+
+        // Then: slot 1 is filled but not visible before slot 0
+        assertEquals(0, opportunityAggregator.version());
+        assertTrue(opportunityAggregator.getOpportunities().isEmpty());
+
+        // And filling slot 0 publishes both, in slot order
+        opportunityAggregator.fillSlot(slot, slow);
+        assertEquals(2, opportunityAggregator.version());
+        assertSame(slow, opportunityAggregator.getOpportunities().get(0));
+        assertSame(fast, opportunityAggregator.getOpportunities().get(1));
+    }
+
+    @Test
+    @DisplayName("Should return a snapshot that later additions do not change")
+    void givenSnapshot_whenMoreOpportunitiesAdded_thenSnapshotIsUnchanged() {
+        // Given
+        opportunityAggregator = new OpportunityAggregator();
+        opportunityAggregator.addOpportunity(createDummyOpportunity());
+        opportunityAggregator.addOpportunity(createDummyOpportunity());
+        OpportunityAggregator.Snapshot snapshot = opportunityAggregator.snapshot();
+
+        // When
+        opportunityAggregator.addOpportunity(createDummyOpportunity());
+
+        // Then
+        assertEquals(2, snapshot.size());
+        assertEquals(2, snapshot.version());
+        assertEquals(3, opportunityAggregator.getOpportunityCount());
+        assertThrows(UnsupportedOperationException.class, () -> snapshot.add(createDummyOpportunity()));
+    }
+
+
+    @Test
+    @DisplayName("Should return only what was published since a version, across segment boundaries")
+    void givenPreviousVersion_whenGetOpportunitiesSince_thenOnlyNewOnesAreReturned() {
+        // Given: more than one segment's worth
+        opportunityAggregator = new OpportunityAggregator();
+        List<ArbitrageOpportunity> added = new ArrayList<>();
+        for (int i = 0; i < 1500; i++) {
+            ArbitrageOpportunity opportunity = createDummyOpportunity();
+            added.add(opportunity);
+            opportunityAggregator.addOpportunity(opportunity);
+        }
+        long version = opportunityAggregator.version();
+        for (int i = 0; i < 1000; i++) {
+            ArbitrageOpportunity opportunity = createDummyOpportunity();
+            added.add(opportunity);
+            opportunityAggregator.addOpportunity(opportunity);
+        }
+
+        // When
+        OpportunityAggregator.Snapshot increment = opportunityAggregator.getOpportunitiesSince(version);
+
+        // Then
+        assertEquals(1000, increment.size());
+        assertEquals(2500, increment.version());
+        for (int i = 0; i < increment.size(); i++) {
+            assertSame(added.get(1500 + i), increment.get(i));
+        }
+        assertEquals(0, opportunityAggregator.getOpportunitiesSince(increment.version()).size());
+        assertEquals(added, opportunityAggregator.getOpportunities());
+    }
+
+
+    @Test
+    @DisplayName("Should reject a version from the future")
+    void givenUnknownVersion_whenGetOpportunitiesSince_thenThrows() {
+        opportunityAggregator = new OpportunityAggregator();
+        opportunityAggregator.addOpportunity(createDummyOpportunity());
+
+        assertThrows(IllegalArgumentException.class, () -> opportunityAggregator.getOpportunitiesSince(2));
+    }
+
+
+    @Test
+    @DisplayName("Should drain at most maxBatch opportunities, each only once")
+    void givenPublishedOpportunities_whenDrainTo_thenBatchesAreDisjointAndInOrder() {
+        // Given
+        opportunityAggregator = new OpportunityAggregator();
+        for (int i = 0; i < 5; i++) {
+            opportunityAggregator.addOpportunity(createDummyOpportunity());
+        }
+        List<ArbitrageOpportunity> all = opportunityAggregator.getOpportunities();
+
+        // When
+        List<ArbitrageOpportunity> firstBatch = new ArrayList<>();
+        List<ArbitrageOpportunity> secondBatch = new ArrayList<>();
+        int firstCount = opportunityAggregator.drainTo(firstBatch, 3);
+        int secondCount = opportunityAggregator.drainTo(secondBatch, 3);
+
+        // Then
+        assertEquals(3, firstCount);
+        assertEquals(2, secondCount);
+        assertEquals(all.subList(0, 3), firstBatch);
+        assertEquals(all.subList(3, 5), secondBatch);
+        assertEquals(0, opportunityAggregator.pendingCount());
+        assertEquals(0, opportunityAggregator.drainTo(new ArrayList<>(), 3));
+        // Draining does not remove anything from snapshots
+        assertEquals(5, opportunityAggregator.getOpportunities().size());
+    }
+
+
+    @Test
+    @DisplayName("Should hand every opportunity to exactly one of several concurrent consumers while they succeed")
+    void givenConcurrentProducersAndConsumers_whenDrainBatches_thenExactlyOnceHandoff() throws Exception {
+        // Given
+        int numProducers = 4;
+        int addsPerProducer = 2_000;
+        int total = numProducers * addsPerProducer;
+        opportunityAggregator = new OpportunityAggregator();
+        ExecutorService executor = Executors.newFixedThreadPool(numProducers + 2);
+        CountDownLatch producersDone = new CountDownLatch(numProducers);
+        Set<ArbitrageOpportunity> received = ConcurrentHashMap.newKeySet();
+        AtomicInteger handedOff = new AtomicInteger();
+
+        // When: two consumers drain in batches of 64 while four producers add
+        for (int i = 0; i < numProducers; i++) {
+            executor.submit(() -> {
+                for (int j = 0; j < addsPerProducer; j++) {
+                    opportunityAggregator.addOpportunity(createDummyOpportunity());
+                }
+                producersDone.countDown();
+            });
+        }
+        List<Future<?>> consumers = new ArrayList<>();
+        for (int i = 0; i < 2; i++) {
+            consumers.add(executor.submit(() -> {
+                while (producersDone.getCount() > 0 || opportunityAggregator.pendingCount() > 0) {
+                    opportunityAggregator.drainBatches(batch -> {
+                        assertTrue(batch.size() <= 64);
+                        handedOff.addAndGet(batch.size());
+                        received.addAll(batch);
+                    }, 64);
+                }
+            }));
+        }
+        assertTrue(producersDone.await(10, TimeUnit.SECONDS), "Producers did not complete in time");
+        for (Future<?> consumer : consumers) {
+            consumer.get(10, TimeUnit.SECONDS);
+        }
+        executor.shutdown();
 
+        // Then: no opportunity lost, none handed out twice
+        assertEquals(total, handedOff.get());
+        assertEquals(total, received.size());
+    }
 
 
+    @Test
+    @DisplayName("Should hand a batch out again when its consumer fails")
+    void givenConsumerThrows_whenDrainBatches_thenBatchIsRedelivered() {
+        // Given
+        opportunityAggregator = new OpportunityAggregator();
+        for (int i = 0; i < 5; i++) {
+            opportunityAggregator.addOpportunity(createDummyOpportunity());
+        }
+        List<ArbitrageOpportunity> all = opportunityAggregator.getOpportunities();
+        List<ArbitrageOpportunity> saved = new ArrayList<>();
+
+        // When: the first batch is saved, the second save fails
+        assertThrows(IllegalStateException.class, () -> opportunityAggregator.drainBatches(batch -> {
+            if (!saved.isEmpty()) {
+                throw new IllegalStateException("database down");
+            }
+            saved.addAll(batch);
+        }, 3));
+
+        // Then: only the saved batch left the pending range, and a retry gets the rest
+        assertEquals(all.subList(0, 3), saved);
+        assertEquals(2, opportunityAggregator.pendingCount());
+        assertEquals(2, opportunityAggregator.drainBatches(saved::addAll, 3));
+        assertEquals(all, saved);
+        assertEquals(0, opportunityAggregator.pendingCount());
+    }
 
+    @Test
+    @DisplayName("Should drop what is both released and drained, segments and index entries alike")
+    void givenReleasedAndDrained_whenTrimmed_thenOnlyNewerOpportunitiesAreRetained() {
+        // Given: three segments' worth of opportunities, a snapshot over all of them
+        opportunityAggregator = new OpportunityAggregator();
+        for (int i = 0; i < 2500; i++) {
+            opportunityAggregator.addOpportunity(createDummyOpportunity());
+        }
+        List<ArbitrageOpportunity> all = opportunityAggregator.getOpportunities();
+        ArbitrageOpportunity oldest = all.get(0);
+        List<ArbitrageOpportunity> drained = new ArrayList<>();
+        opportunityAggregator.drainTo(drained, 1);
+
+        // When: readers release up to 2100, but only 1500 are drained
+        opportunityAggregator.release(2100);
+        assertEquals(1, opportunityAggregator.retainedFrom());
+        assertEquals(1499, opportunityAggregator.drainTo(drained, 1499));
+
+        // Then: the floor is min(1500, 2100); the first segment is gone, the index was trimmed with it
+        assertEquals(1500, opportunityAggregator.retainedFrom());
+        assertEquals(1000, opportunityAggregator.getOpportunityCount());
+        assertEquals(all.subList(1500, 2500), opportunityAggregator.getOpportunities());
+        assertEquals(1000, opportunityAggregator.getTopOpportunities(5000).size());
+        assertThrows(IllegalArgumentException.class, () -> opportunityAggregator.getOpportunitiesSince(1499));
+        // And the snapshot taken before the release is still whole
+        assertSame(oldest, all.get(0));
+        assertEquals(2500, all.size());
+        assertSame(all.get(1500), opportunityAggregator.getOpportunitiesSince(1500).get(0));
+
+        // And draining the rest moves the floor to the released version
+        opportunityAggregator.drainTo(new ArrayList<>(), 5000);
+        assertEquals(2100, opportunityAggregator.retainedFrom());
+        assertThrows(IllegalArgumentException.class, () -> opportunityAggregator.release(2501));
+    }
 
+    @Test
+    @DisplayName("Should let release alone free memory while no drain consumer is attached")
+    void givenNoDrainConsumer_whenRelease_thenReleasedOpportunitiesAreDropped() {
+        // Given
+        opportunityAggregator = new OpportunityAggregator();
+        for (int i = 0; i < 1500; i++) {
+            opportunityAggregator.addOpportunity(createDummyOpportunity());
+        }
+        OpportunityAggregator.Snapshot held = opportunityAggregator.snapshot();
+
+        // When
+        opportunityAggregator.release(1200);
+
+        // Then: the floor follows the release, and the held view is unaffected
+        assertEquals(1200, opportunityAggregator.retainedFrom());
+        assertEquals(300, opportunityAggregator.getOpportunityCount());
+        assertEquals(300, opportunityAggregator.pendingCount());
+        assertEquals(1500, held.size());
+        assertSame(held.get(1499), opportunityAggregator.snapshot().get(299));
+        assertNotNull(held.get(0));
+    }
 
+    @Test
+    @DisplayName("Should reject a non-positive batch size")
+    void givenZeroBatch_whenDrainTo_thenThrows() {
+        opportunityAggregator = new OpportunityAggregator();
 
-}
\ No newline at end of file
+        assertThrows(IllegalArgumentException.class, () -> opportunityAggregator.drainTo(new ArrayList<>(), 0));
+    }
+}
@@ -0,0 +1,110 @@
+package com.cryptoArb.service;
+
+import com.cryptoArb.domain.ArbitrageOpportunity;
+import com.cryptoArb.domain.CurrencyPair;
+import com.cryptoArb.domain.Exchange;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class OpportunityIndexTest {
+
+    private final Exchange coinbase = new Exchange("coinbase");
+    private final Exchange kraken = new Exchange("kraken");
+    private final Exchange binance = new Exchange("binance");
+    private final CurrencyPair btcUsd = new CurrencyPair("BTC", "USD");
+    private final CurrencyPair ethUsd = new CurrencyPair("ETH", "USD");
+
+    // Profits: 1%, 2%, 0.5%, 2% (tie with 'second'), 3%
+    private final ArbitrageOpportunity first = opportunity(btcUsd, 10, coinbase, kraken, "101");
+    private final ArbitrageOpportunity second = opportunity(ethUsd, 20, kraken, binance, "102");
+    private final ArbitrageOpportunity third = opportunity(btcUsd, 20, binance, coinbase, "100.5");
+    private final ArbitrageOpportunity fourth = opportunity(ethUsd, 30, coinbase, binance, "102");
+    private final ArbitrageOpportunity fifth = opportunity(btcUsd, 40, kraken, coinbase, "103");
+
+    private OpportunityIndex index;
+
+    private static ArbitrageOpportunity opportunity(CurrencyPair pair, long seconds, Exchange buy, Exchange sell, String sellPrice) {
+        return new ArbitrageOpportunity(pair, Instant.ofEpochSecond(seconds), buy, new BigDecimal("100"), sell, new BigDecimal(sellPrice));
+    }
+
+    @BeforeEach
+    void setUp() {
+        index = new OpportunityIndex();
+        for (ArbitrageOpportunity opportunity : List.of(first, second, third, fourth, fifth)) {
+            index.add(opportunity);
+        }
+    }
+
+    @Test
+    @DisplayName("Should return a pair's opportunities in arrival order")
+    void givenSeveralPairs_whenByPair_thenOnlyThatPairInArrivalOrder() {
+        assertEquals(List.of(first, third, fifth), index.byPair(btcUsd));
+        assertEquals(List.of(second, fourth), index.byPair(ethUsd));
+        assertEquals(List.of(), index.byPair(new CurrencyPair("SOL", "USD")));
+    }
+
+    @Test
+    @DisplayName("Should return every opportunity that buys or sells on an exchange")
+    void givenSeveralExchanges_whenByExchange_thenBothSidesAreMatched() {
+        assertEquals(List.of(first, third, fourth, fifth), index.byExchange(coinbase));
+        assertEquals(List.of(second, third, fourth), index.byExchange(binance));
+    }
+
+    @Test
+    @DisplayName("Should return a half-open time range, keeping opportunities with the same timestamp")
+    void givenSameTimestamps_whenBetween_thenRangeIsInclusiveExclusive() {
+        // When / Then: [20s, 40s) holds both 20s opportunities and the 30s one, not the 40s one
+        assertEquals(List.of(second, third, fourth), index.between(Instant.ofEpochSecond(20), Instant.ofEpochSecond(40)));
+        assertTrue(index.between(Instant.ofEpochSecond(40), Instant.ofEpochSecond(40)).isEmpty());
+    }
+
+    @Test
+    @DisplayName("Should return the top N by profit, earlier first on ties")
+    void givenProfitTie_whenTopByProfit_thenBestFirstAndTiesInArrivalOrder() {
+        assertEquals(List.of(fifth, second, fourth), index.topByProfit(3));
+        assertEquals(5, index.topByProfit(10).size());
+        assertEquals(List.of(), index.topByProfit(0));
+    }
+
+    @Test
+    @DisplayName("Should drop every entry below a sequence from every slice")
+    void givenRemoveBefore_whenQueried_thenOlderEntriesAreGoneEverywhere() {
+        // When: the first three arrivals are dropped
+        index.removeBefore(3);
+
+        // Then
+        assertEquals(2, index.size());
+        assertEquals(List.of(fifth), index.byPair(btcUsd));
+        assertEquals(List.of(fourth), index.byExchange(binance));
+        assertEquals(List.of(fourth), index.between(Instant.ofEpochSecond(0), Instant.ofEpochSecond(40)));
+        assertEquals(List.of(fifth, fourth), index.topByProfit(10));
+
+        // And a late add below the floor does not come back
+        index.add(first, 0);
+        assertEquals(2, index.size());
+    }
+
+    @Test
+    @DisplayName("Should serve the same slices through OpportunityAggregator")
+    void givenAggregator_whenQueried_thenIndexedSlicesAreReturned() {
+        // Given
+        OpportunityAggregator aggregator = new OpportunityAggregator();
+        for (ArbitrageOpportunity opportunity : List.of(first, second, third, fourth, fifth)) {
+            aggregator.addOpportunity(opportunity);
+        }
+
+        // Then
+        assertEquals(List.of(first, third, fifth), aggregator.getOpportunitiesForPair(btcUsd));
+        assertEquals(List.of(first, second, fifth), aggregator.getOpportunitiesForExchange(kraken));
+        assertEquals(List.of(first), aggregator.getOpportunitiesBetween(Instant.ofEpochSecond(0), Instant.ofEpochSecond(20)));
+        assertEquals(List.of(fifth), aggregator.getTopOpportunities(1));
+    }
+}
@@ -0,0 +1,173 @@
+package com.cryptoArb.service;
+
+import com.cryptoArb.domain.ArbitrageOpportunity;
+import com.cryptoArb.domain.ConsolidatedPrice;
+import com.cryptoArb.domain.CurrencyPair;
+import com.cryptoArb.domain.Exchange;
+import com.cryptoArb.domain.OpportunityLifecycleEvent;
+import com.cryptoArb.domain.OpportunityLifecycleEvent.Type;
+import com.cryptoArb.domain.PriceTick;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class OpportunityLifecycleTrackerTest {
+
+    private final Exchange coinbase = new Exchange("coinbase");
+    private final Exchange kraken = new Exchange("kraken");
+    private final Exchange binance = new Exchange("binance");
+    private final CurrencyPair btcUsd = new CurrencyPair("BTC", "USD");
+    private final Instant t0 = Instant.parse("2025-11-01T10:00:00Z");
+
+    private OpportunityLifecycleTracker tracker;
+    private List<OpportunityLifecycleEvent> events;
+
+    @BeforeEach
+    void setUp() {
+        // A material change of 0.001 (0.1%)
+        tracker = new OpportunityLifecycleTracker(new BigDecimal("0.001"));
+        events = new ArrayList<>();
+        tracker.addListener(events::add);
+    }
+
+    private ArbitrageOpportunity opportunity(long seconds, Exchange buy, String ask, Exchange sell, String bid) {
+        return new ArbitrageOpportunity(btcUsd, t0.plusSeconds(seconds), buy, new BigDecimal(ask), sell, new BigDecimal(bid));
+    }
+
+    private ConsolidatedPrice noCrossing(long seconds) {
+        return new ConsolidatedPrice(btcUsd, t0.plusSeconds(seconds),
+                new BigDecimal("10000"), coinbase, new BigDecimal("10001"), kraken);
+    }
+
+    @Test
+    @DisplayName("Should coalesce repeated detections of one route into a single OPEN")
+    void givenSameRouteDetectedManyTimes_whenNoMaterialChange_thenOnlyOneOpenEvent() {
+        // When: 500 detections of coinbase -> kraken at the same 1% profit
+        for (int i = 0; i < 500; i++) {
+            tracker.onOpportunity(opportunity(i, coinbase, "10000", kraken, "10100"));
+        }
+
+        // Then
+        assertEquals(1, events.size());
+        assertEquals(Type.OPEN, events.get(0).type());
+        assertEquals(1, tracker.openCount());
+    }
+
+    @Test
+    @DisplayName("Should emit UPDATE only when the profit moves by the material change")
+    void givenProfitMoves_whenBelowAndAboveMaterialChange_thenOnlyMaterialMovesAreUpdates() {
+        // Given: opened at 1%
+        tracker.onOpportunity(opportunity(0, coinbase, "10000", kraken, "10100"));
+
+        // When: 1.05% (a 0.0005 move, ignored), then 1.2% (a 0.002 move from the last reported 1%)
+        tracker.onOpportunity(opportunity(1, coinbase, "10000", kraken, "10105"));
+        tracker.onOpportunity(opportunity(2, coinbase, "10000", kraken, "10120"));
+
+        // Then
+        assertEquals(2, events.size());
+        OpportunityLifecycleEvent update = events.get(1);
+        assertEquals(Type.UPDATE, update.type());
+        assertEquals(3, update.detections());
+        assertEquals(0, new BigDecimal("0.012").compareTo(update.peakProfitPercentage()));
+        assertEquals(Duration.ofSeconds(2), update.duration());
+    }
+
+    @Test
+    @DisplayName("Should CLOSE with duration and peak profit when the crossing disappears")
+    void givenOpenWindow_whenNoOpportunity_thenCloseCarriesDurationAndPeak() {
+        // Given: peak at 2%, then back to 1%
+        tracker.onOpportunity(opportunity(0, coinbase, "10000", kraken, "10100"));
+        tracker.onOpportunity(opportunity(3, coinbase, "10000", kraken, "10200"));
+        tracker.onOpportunity(opportunity(5, coinbase, "10000", kraken, "10100"));
+
+        // When
+        tracker.onNoOpportunity(noCrossing(9));
+
+        // Then
+        OpportunityLifecycleEvent close = events.get(events.size() - 1);
+        assertEquals(Type.CLOSE, close.type());
+        assertEquals(t0, close.openedAt());
+        assertEquals(Duration.ofSeconds(9), close.duration());
+        assertEquals(3, close.detections());
+        assertEquals(0, new BigDecimal("0.02").compareTo(close.peakProfitPercentage()));
+        assertEquals(0, new BigDecimal("0.01").compareTo(close.latest().profitPercentage()));
+        assertEquals(0, tracker.openCount());
+    }
+
+    @Test
+    @DisplayName("Should close the previous route when the best route switches while the pair stays crossed")
+    void givenOpenWindow_whenBestRouteSwitchesWhileCrossed_thenPreviousRouteClosedAtTheSwitch() {
+        // Given
+        tracker.onOpportunity(opportunity(0, coinbase, "10000", kraken, "10100"));
+        tracker.onOpportunity(opportunity(2, coinbase, "10000", kraken, "10100"));
+
+        // When: the best bid moves to binance at 4s, and the pair only uncrosses at 30s
+        tracker.onOpportunity(opportunity(4, coinbase, "10000", binance, "10150"));
+        tracker.onNoOpportunity(noCrossing(30));
+
+        // Then: kraken's window ends at the switch, not when the pair uncrosses
+        assertEquals(List.of(Type.OPEN, Type.CLOSE, Type.OPEN, Type.CLOSE),
+                events.stream().map(OpportunityLifecycleEvent::type).toList());
+        assertEquals(kraken, events.get(1).sellExchange());
+        assertEquals(Duration.ofSeconds(4), events.get(1).duration());
+        assertEquals(2, events.get(1).detections());
+        assertEquals(binance, events.get(3).sellExchange());
+        assertEquals(Duration.ofSeconds(26), events.get(3).duration());
+        assertEquals(0, tracker.openCount());
+    }
+
+    @Test
+    @DisplayName("Should close one route on request, leaving the pair free to open another")
+    void givenOpenRoute_whenCloseRoute_thenOnlyThatRouteClosed() {
+        // Given
+        tracker.onOpportunity(opportunity(0, coinbase, "10000", kraken, "10100"));
+
+        // When: coinbase -> kraken goes away; an unknown route is ignored
+        tracker.closeRoute(btcUsd, coinbase, kraken, t0.plusSeconds(4));
+        tracker.closeRoute(btcUsd, binance, kraken, t0.plusSeconds(5));
+        tracker.onOpportunity(opportunity(6, binance, "10000", kraken, "10100"));
+
+        // Then
+        assertEquals(List.of(Type.OPEN, Type.CLOSE, Type.OPEN), events.stream().map(OpportunityLifecycleEvent::type).toList());
+        assertEquals(Duration.ofSeconds(4), events.get(1).duration());
+        assertEquals(binance, events.get(2).buyExchange());
+        assertEquals(1, tracker.openCount());
+    }
+
+    @Test
+    @DisplayName("Should ignore 'no opportunity' for a pair without an open window")
+    void givenNoOpenWindow_whenNoOpportunity_thenNoEvent() {
+        // When
+        tracker.onNoOpportunity(noCrossing(1));
+
+        // Then
+        assertEquals(0, events.size());
+    }
+
+    @Test
+    @DisplayName("Should receive OPEN and CLOSE from a pushing ArbitrageService")
+    void givenTrackerSubscribedToService_whenCrossingAppearsAndDisappears_thenOpenAndClose() {
+        // Given
+        ConsolidatedBook book = new ConsolidatedBook();
+        ArbitrageService arbitrageService = new ArbitrageService();
+        arbitrageService.subscribeTo(book);
+        arbitrageService.addOpportunityListener(tracker);
+
+        // When: kraken's bid crosses coinbase's ask, then falls back
+        book.onTick(new PriceTick(btcUsd, coinbase, t0, new BigDecimal("10000"), new BigDecimal("10001")));
+        book.onTick(new PriceTick(btcUsd, kraken, t0.plusSeconds(1), new BigDecimal("10100"), new BigDecimal("10101")));
+        book.onTick(new PriceTick(btcUsd, kraken, t0.plusSeconds(6), new BigDecimal("9999"), new BigDecimal("10000.5")));
+
+        // Then
+        assertEquals(List.of(Type.OPEN, Type.CLOSE), events.stream().map(OpportunityLifecycleEvent::type).toList());
+        assertEquals(Duration.ofSeconds(5), events.get(1).duration());
+    }
+}
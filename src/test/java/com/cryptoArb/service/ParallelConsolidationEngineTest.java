@@ -0,0 +1,76 @@
+package com.cryptoArb.service;
+
+import com.cryptoArb.domain.ConsolidatedPrice;
+import com.cryptoArb.domain.CurrencyPair;
+import com.cryptoArb.domain.Exchange;
+import com.cryptoArb.domain.PriceTick;
+import com.cryptoArb.domain.SymbolRegistry;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class ParallelConsolidationEngineTest {
+
+    private final PriceService priceService = new PriceService();
+
+    private static List<PriceTick> randomTicks(int count, int pairCount, int exchangeCount) {
+        // Few distinct prices, so ties are common and tie-breaking is exercised
+        Random random = new Random(7);
+        List<PriceTick> ticks = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            BigDecimal bid = BigDecimal.valueOf(50_000 + random.nextInt(20));
+            ticks.add(new PriceTick(
+                    new CurrencyPair("C" + random.nextInt(pairCount), "USD"),
+                    new Exchange("exchange-" + random.nextInt(exchangeCount)),
+                    Instant.ofEpochMilli(random.nextInt(1_000)),
+                    bid,
+                    bid.add(BigDecimal.valueOf(1 + random.nextInt(5)))));
+        }
+        return ticks;
+    }
+
+    @Test
+    @DisplayName("Sharded aggregation should give exactly the sequential result, ties included")
+    void givenManyTicks_whenAggregate_thenMatchesSequentialAggregation() {
+        // Given: small shards, so the input really is split across workers
+        List<PriceTick> ticks = randomTicks(50_000, 37, 6);
+
+        // When
+        Map<CurrencyPair, ConsolidatedPrice> sharded;
+        try (ParallelConsolidationEngine engine = new ParallelConsolidationEngine(4, new SymbolRegistry(), 1_000)) {
+            sharded = engine.aggregate(ticks);
+        }
+
+        // Then
+        assertEquals(priceService.aggregatePrices(ticks), sharded);
+        assertEquals(37, sharded.size());
+    }
+
+    @Test
+    @DisplayName("Small and empty inputs should be aggregated on the calling thread")
+    void givenSmallInput_whenAggregate_thenMatchesSequentialAggregation() {
+        List<PriceTick> ticks = randomTicks(100, 3, 2);
+
+        try (ParallelConsolidationEngine engine = new ParallelConsolidationEngine(4)) {
+            assertEquals(4, engine.parallelism());
+            assertEquals(priceService.aggregatePrices(ticks), engine.aggregate(ticks));
+            assertTrue(engine.aggregate(List.of()).isEmpty());
+        }
+    }
+
+    @Test
+    @DisplayName("Should reject a parallelism below 1")
+    void givenZeroParallelism_whenCreate_thenThrows() {
+        assertThrows(IllegalArgumentException.class, () -> new ParallelConsolidationEngine(0));
+    }
+}
@@ -330,4 +330,49 @@ class PriceServiceTest {
         assertTrue(freshTimestamps.contains(ts6), "Missing ts6 tick");
     }
 
-}
\ No newline at end of file
+    @Test
+    @DisplayName("Lazy filters should feed aggregation directly and match the list-based results")
+    void givenTicks_whenFilterStreamIntoAggregate_thenMatchesListBasedPipeline() {
+        // GIVEN: the fresh ticks as a lazy stream (ts4, ts5, ts6 are ETH/USD)
+        Instant currentTime = Instant.ofEpochMilli(1005L);
+        Duration maxAge = Duration.ofMillis(2);
+
+        // WHEN: we aggregate the stream without materializing the filtered list
+        Map<CurrencyPair, ConsolidatedPrice> lazy =
+                priceService.aggregatePrices(priceService.filterStaleTicksStream(allTicks, currentTime, maxAge));
+
+        // THEN: the result matches the eager pipeline
+        Map<CurrencyPair, ConsolidatedPrice> eager =
+                priceService.aggregatePrices(priceService.filterStaleTicks(allTicks, currentTime, maxAge));
+        assertEquals(eager, lazy);
+        assertEquals(Set.of(ethUsd), lazy.keySet());
+    }
+
+    @Test
+    @DisplayName("Lazy filters should only test as many ticks as the caller consumes")
+    void givenTicks_whenFindFirstOnFilterStream_thenStopsEarly() {
+        // GIVEN: a predicate that counts how often it runs
+        int[] evaluated = {0};
+        Predicate<PriceTick> countingKraken = tick -> {
+            evaluated[0]++;
+            return "kraken".equals(tick.exchange().id());
+        };
+
+        // WHEN: we only need the first match
+        Optional<PriceTick> first = priceService.filterStream(allTicks, countingKraken).findFirst();
+
+        // THEN: the scan stopped at tick 2, the first Kraken tick
+        assertEquals(ts2, first.orElseThrow().timestamp());
+        assertEquals(2, evaluated[0]);
+    }
+
+    @Test
+    @DisplayName("Streamed Coinbase filter should return the same ticks as the list version")
+    void givenTicks_whenFilterCoinbaseTicksStream_thenMatchesListVersion() {
+        // WHEN
+        List<PriceTick> streamed = priceService.filterCoinbaseTicksStream(allTicks).collect(Collectors.toList());
+
+        // THEN
+        assertEquals(priceService.filterCoinbaseTicks(allTicks), streamed);
+    }
+}
@@ -0,0 +1,127 @@
+package com.cryptoArb.service;
+
+import com.cryptoArb.domain.ArbitrageOpportunity;
+import com.cryptoArb.domain.ConsolidatedPrice;
+import com.cryptoArb.domain.CurrencyPair;
+import com.cryptoArb.domain.Exchange;
+import com.cryptoArb.domain.FixedPointPrice;
+import com.cryptoArb.domain.SymbolRegistry;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.time.Instant;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ProfitEngineTest {
+
+    private final Exchange coinbase = new Exchange("coinbase");
+    private final Exchange kraken = new Exchange("kraken");
+    private final CurrencyPair ethUsd = new CurrencyPair("ETH", "USD");
+
+    // Buy at 2999 on coinbase, sell at 3000 on kraken: +0.0333% before costs
+    private final ConsolidatedPrice ethPrice = new ConsolidatedPrice(
+            ethUsd, Instant.ofEpochMilli(1000L),
+            new BigDecimal("3000"), kraken,
+            new BigDecimal("2999"), coinbase);
+
+    private static long fp(String value) {
+        return FixedPointPrice.fromBigDecimal(new BigDecimal(value));
+    }
+
+    @Test
+    @DisplayName("Should reject a crossing that loses money after taker fees")
+    void givenTakerFees_whenEvaluateThinCrossing_thenRejected() {
+        // Given: 0.1% on each side eats the 0.0333% spread
+        ProfitEngine engine = ProfitEngine.builder()
+                .registry(new SymbolRegistry())
+                .takerFee(coinbase, new BigDecimal("0.001"))
+                .takerFee(kraken, new BigDecimal("0.001"))
+                .build();
+
+        // When / Then
+        assertNull(engine.evaluate(ethPrice));
+        assertTrue(new ArbitrageService(engine).findArbitrageOpportunities(Map.of(ethUsd, ethPrice)).isEmpty());
+        assertEquals(1, new ArbitrageService().findArbitrageOpportunities(Map.of(ethUsd, ethPrice)).size());
+    }
+
+    @Test
+    @DisplayName("Should accept a crossing without costs, unless the pair's minimum profit is higher")
+    void givenNoFees_whenEvaluate_thenPairThresholdDecides() {
+        ProfitEngine noCosts = ProfitEngine.builder().registry(new SymbolRegistry()).build();
+        ProfitEngine strict = ProfitEngine.builder()
+                .registry(new SymbolRegistry())
+                .minProfit(ethUsd, new BigDecimal("0.0005"))
+                .build();
+
+        ArbitrageOpportunity opportunity = noCosts.evaluate(ethPrice);
+        assertNotNull(opportunity);
+        assertEquals(coinbase, opportunity.buyExchange());
+        assertEquals(0, BigDecimal.ZERO.compareTo(noCosts.netProfitPercentage(opportunity)
+                .subtract(opportunity.profitPercentage()).setScale(8, RoundingMode.HALF_UP)));
+        assertNull(strict.evaluate(ethPrice));
+    }
+
+    @Test
+    @DisplayName("Should evaluate prices beyond the fixed-point range in BigDecimal instead of throwing")
+    void givenPricesAboveMaxPrice_whenEvaluate_thenFallsBackToBigDecimal() {
+        // Given: both prices are above ~92 billion, 0.0333% apart
+        BigDecimal ask = new BigDecimal("299900000000");
+        BigDecimal bid = new BigDecimal("300000000000");
+        ConsolidatedPrice huge = new ConsolidatedPrice(ethUsd, Instant.ofEpochMilli(1000L), bid, kraken, ask, coinbase);
+        ProfitEngine noCosts = ProfitEngine.builder().registry(new SymbolRegistry()).build();
+        ProfitEngine withFees = ProfitEngine.builder()
+                .registry(new SymbolRegistry())
+                .defaultTakerFee(new BigDecimal("0.001"))
+                .build();
+
+        // When
+        ArbitrageOpportunity opportunity = noCosts.evaluate(huge);
+
+        // Then: same decisions as the fixed-point path
+        assertFalse(FixedPointPrice.fits(bid));
+        assertNotNull(opportunity);
+        assertEquals(ask, opportunity.buyPrice());
+        assertNull(withFees.evaluate(huge));
+    }
+
+    @Test
+    @DisplayName("Should treat a crossing that exactly breaks even after costs as unprofitable")
+    void givenBreakEvenAfterWithdrawal_whenIsProfitable_thenFalse() {
+        // 101 * (1 - 0) == 100 * (1 + 0 + 0.01)
+        ProfitEngine engine = ProfitEngine.builder()
+                .registry(new SymbolRegistry())
+                .withdrawalCost(coinbase, new BigDecimal("0.01"))
+                .build();
+
+        assertFalse(engine.isProfitable(ethUsd, coinbase, fp("100"), kraken, fp("101")));
+        assertTrue(engine.isProfitable(ethUsd, coinbase, fp("100"), kraken, fp("101.00000001")));
+        // Costs apply to the buy side's withdrawal only
+        assertTrue(engine.isProfitable(ethUsd, kraken, fp("100"), coinbase, fp("100.5")));
+    }
+
+    @Test
+    @DisplayName("Should compare products exactly even when they overflow a long")
+    void givenLargeValues_whenCompare128_thenExact() {
+        long big = Long.MAX_VALUE / 3;
+
+        assertEquals(0, ProfitEngine.compare128(big, 6, big * 2, 3));
+        assertTrue(ProfitEngine.compare128(big, 7, big * 2, 3) > 0);
+        assertTrue(ProfitEngine.compare128(fp("90000"), fp("0.999"), fp("89999"), fp("1.001")) < 0);
+        assertThrows(IllegalArgumentException.class,
+                () -> ProfitEngine.builder().takerFee(kraken, BigDecimal.ONE).build());
+    }
+
+    @Test
+    @DisplayName("The profit percentage should be computed once, at creation")
+    void givenOpportunity_whenProfitPercentage_thenSameCachedInstance() {
+        List<ArbitrageOpportunity> found = new ArbitrageService().findArbitrageOpportunities(Map.of(ethUsd, ethPrice));
+
+        ArbitrageOpportunity opportunity = found.get(0);
+        assertSame(opportunity.profitPercentage(), opportunity.profitPercentage());
+    }
+}
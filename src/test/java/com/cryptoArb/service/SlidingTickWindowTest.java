@@ -0,0 +1,139 @@
+package com.cryptoArb.service;
+
+import com.cryptoArb.domain.ConsolidatedPrice;
+import com.cryptoArb.domain.CurrencyPair;
+import com.cryptoArb.domain.Exchange;
+import com.cryptoArb.domain.PriceTick;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SlidingTickWindowTest {
+
+    private final Exchange coinbase = new Exchange("coinbase");
+    private final Exchange kraken = new Exchange("kraken");
+    private final CurrencyPair btcUsd = new CurrencyPair("BTC", "USD");
+
+    private SlidingTickWindow window;
+
+    @BeforeEach
+    void setUp() {
+        window = new SlidingTickWindow(Duration.ofMillis(2));
+    }
+
+    private PriceTick tick(Exchange exchange, long millis, String bid, String ask) {
+        return new PriceTick(btcUsd, exchange, Instant.ofEpochMilli(millis), new BigDecimal(bid), new BigDecimal(ask));
+    }
+
+    @Test
+    @DisplayName("Should evict ticks older than maxAge as time advances")
+    void givenTicks_whenTimeAdvances_thenStaleTicksAreEvicted() {
+        // Given
+        window.add(tick(coinbase, 1000L, "100", "101"));
+        window.add(tick(kraken, 1001L, "99", "100"));
+        window.add(tick(coinbase, 1003L, "98", "102"));
+
+        // When: at 1003 with maxAge 2ms, the tick at 1000 is 3ms old
+        window.advanceTo(Instant.ofEpochMilli(1003L));
+
+        // Then
+        assertEquals(2, window.size(btcUsd));
+        assertEquals(Instant.ofEpochMilli(1001L), window.freshTicks(btcUsd).get(0).timestamp());
+    }
+
+    @Test
+    @DisplayName("Should fall back to the next best price when the best tick expires")
+    void givenBestTickExpires_whenConsolidate_thenNextBestIsUsed() {
+        // Given: the oldest tick holds the best bid
+        window.add(tick(coinbase, 1000L, "105", "110"));
+        window.add(tick(kraken, 1001L, "101", "104"));
+        window.add(tick(coinbase, 1002L, "102", "106"));
+
+        ConsolidatedPrice before = window.getConsolidatedPrice(btcUsd).orElseThrow();
+        assertEquals(new BigDecimal("105"), before.bestBid());
+
+        // When
+        window.advanceTo(Instant.ofEpochMilli(1003L));
+
+        // Then
+        ConsolidatedPrice after = window.getConsolidatedPrice(btcUsd).orElseThrow();
+        assertEquals(new BigDecimal("102"), after.bestBid());
+        assertEquals(new BigDecimal("104"), after.bestAsk());
+        assertEquals(kraken, after.bestAskExchange());
+        assertEquals(Instant.ofEpochMilli(1002L), after.timestamp());
+    }
+
+    @Test
+    @DisplayName("Should reject stale ticks only")
+    void givenStaleTick_whenAdd_thenRejected() {
+        window.advanceTo(Instant.ofEpochMilli(1010L));
+
+        assertFalse(window.add(tick(coinbase, 1000L, "1", "2")), "Already stale");
+        assertTrue(window.add(tick(coinbase, 1009L, "1", "2")));
+        assertTrue(window.add(tick(kraken, 1008L, "1", "2")), "Fresh, only 1 ms behind coinbase's clock");
+        assertTrue(window.getConsolidatedPrice(new CurrencyPair("ETH", "USD")).isEmpty());
+    }
+
+    @Test
+    @DisplayName("Should keep a fresh tick that arrives behind another exchange's clock, in time order")
+    void givenClockSkew_whenOlderFreshTickArrives_thenInsertedAndUsed() {
+        // Given
+        window.add(tick(coinbase, 1000L, "100", "103"));
+        window.add(tick(coinbase, 1002L, "101", "104"));
+
+        // When: kraken's tick is stamped 1001 but arrives after coinbase's 1002, with the best prices
+        assertTrue(window.add(tick(kraken, 1001L, "102", "102.5")));
+
+        // Then: it is in time order and wins both sides
+        assertEquals(List.of(1000L, 1001L, 1002L),
+                window.freshTicks(btcUsd).stream().map(t -> t.timestamp().toEpochMilli()).toList());
+        ConsolidatedPrice price = window.getConsolidatedPrice(btcUsd).orElseThrow();
+        assertEquals(kraken, price.bestBidExchange());
+        assertEquals(kraken, price.bestAskExchange());
+        assertEquals(Instant.ofEpochMilli(1002L), price.timestamp());
+
+        // And it expires at its own time, before coinbase's 1002 tick
+        window.advanceTo(Instant.ofEpochMilli(1004L));
+        ConsolidatedPrice later = window.getConsolidatedPrice(btcUsd).orElseThrow();
+        assertEquals(coinbase, later.bestBidExchange());
+        assertEquals(new BigDecimal("101"), later.bestBid());
+    }
+
+    @Test
+    @DisplayName("Should match filterStaleTicks + aggregatePrices on a long random feed")
+    void givenRandomFeed_whenWindowSlides_thenMatchesFullRescan() {
+        // Given
+        Random random = new Random(7);
+        PriceService priceService = new PriceService();
+        Duration maxAge = Duration.ofMillis(50);
+        SlidingTickWindow slidingWindow = new SlidingTickWindow(maxAge);
+        List<PriceTick> history = new ArrayList<>();
+
+        for (int i = 0; i < 5_000; i++) {
+            // When: a new tick arrives and the clock moves with it
+            BigDecimal bid = BigDecimal.valueOf(random.nextInt(100));
+            PriceTick tick = new PriceTick(btcUsd, random.nextBoolean() ? coinbase : kraken,
+                    Instant.ofEpochMilli(i), bid, bid.add(BigDecimal.valueOf(1 + random.nextInt(5))));
+            history.add(tick);
+            slidingWindow.advanceTo(tick.timestamp());
+            slidingWindow.add(tick);
+
+            // Then: same answer as re-scanning the whole history
+            if (i % 97 == 0) {
+                List<PriceTick> fresh = priceService.filterStaleTicks(history, tick.timestamp(), maxAge);
+                assertEquals(fresh, slidingWindow.freshTicks(btcUsd));
+                assertEquals(priceService.aggregatePrices(fresh).get(btcUsd),
+                        slidingWindow.getConsolidatedPrice(btcUsd).orElseThrow());
+            }
+        }
+    }
+}
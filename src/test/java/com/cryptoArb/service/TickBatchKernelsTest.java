@@ -0,0 +1,90 @@
+package com.cryptoArb.service;
+
+import com.cryptoArb.domain.ConsolidatedPrice;
+import com.cryptoArb.domain.CurrencyPair;
+import com.cryptoArb.domain.Exchange;
+import com.cryptoArb.domain.FixedPointPrice;
+import com.cryptoArb.domain.PriceTick;
+import com.cryptoArb.domain.TickBatch;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.util.BitSet;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class TickBatchKernelsTest {
+
+    private final Exchange coinbase = new Exchange("coinbase");
+    private final Exchange kraken = new Exchange("kraken");
+    private final CurrencyPair btcUsd = new CurrencyPair("BTC", "USD");
+    private final CurrencyPair ethUsd = new CurrencyPair("ETH", "USD");
+
+    private List<PriceTick> allTicks;
+    private TickBatch batch;
+
+    @BeforeEach
+    void setUp() {
+        allTicks = List.of(
+                new PriceTick(btcUsd, coinbase, Instant.ofEpochMilli(1000L), new BigDecimal("50000"), new BigDecimal("50001")),
+                new PriceTick(btcUsd, kraken, Instant.ofEpochMilli(1001L), new BigDecimal("50002"), new BigDecimal("50003")),
+                new PriceTick(btcUsd, coinbase, Instant.ofEpochMilli(1002L), new BigDecimal("50001"), new BigDecimal("50000")),
+                new PriceTick(ethUsd, kraken, Instant.ofEpochMilli(1003L), new BigDecimal("3000"), new BigDecimal("3002")),
+                new PriceTick(ethUsd, coinbase, Instant.ofEpochMilli(1004L), new BigDecimal("2999"), new BigDecimal("3001")),
+                new PriceTick(ethUsd, coinbase, Instant.ofEpochMilli(1005L), new BigDecimal("2998"), new BigDecimal("3003"))
+        );
+        batch = TickBatch.of(allTicks);
+    }
+
+    @Test
+    @DisplayName("Columnar aggregation should match the stream-based aggregation")
+    void givenBatch_whenAggregate_thenMatchesPriceService() {
+        // When
+        Map<CurrencyPair, ConsolidatedPrice> columnar = TickBatchKernels.aggregate(batch);
+        Map<CurrencyPair, ConsolidatedPrice> streams = new PriceService().aggregatePrices(allTicks);
+
+        // Then: same winners (prices compared numerically, the batch uses scale 8)
+        assertEquals(streams.keySet(), columnar.keySet());
+        for (CurrencyPair pair : streams.keySet()) {
+            ConsolidatedPrice expected = streams.get(pair);
+            ConsolidatedPrice actual = columnar.get(pair);
+            assertEquals(0, expected.bestBid().compareTo(actual.bestBid()));
+            assertEquals(expected.bestBidExchange(), actual.bestBidExchange());
+            assertEquals(0, expected.bestAsk().compareTo(actual.bestAsk()));
+            assertEquals(expected.bestAskExchange(), actual.bestAskExchange());
+            assertEquals(expected.timestamp(), actual.timestamp());
+        }
+    }
+
+    @Test
+    @DisplayName("Should find argmax bid / argmin ask rows and global extremes")
+    void givenBatch_whenArgMaxArgMin_thenReturnsRows() {
+        int btc = batch.pairId(btcUsd);
+
+        assertEquals(1, TickBatchKernels.argMaxBid(batch, btc));
+        assertEquals(2, TickBatchKernels.argMinAsk(batch, btc));
+        assertEquals(-1, TickBatchKernels.argMaxBid(batch, batch.pairCount()), "No row has an unassigned pair id");
+        assertEquals(FixedPointPrice.fromBigDecimal(new BigDecimal("50002")), TickBatchKernels.maxBid(batch));
+        assertEquals(FixedPointPrice.fromBigDecimal(new BigDecimal("3001")), TickBatchKernels.minAsk(batch));
+    }
+
+    @Test
+    @DisplayName("Should select rows by exchange and by freshness")
+    void givenBatch_whenSelect_thenReturnsMatchingRows() {
+        assertArrayEquals(new int[]{1, 3}, TickBatchKernels.selectExchange(batch, batch.exchangeId(kraken)));
+
+        BitSet krakenOrCoinbase = new BitSet();
+        krakenOrCoinbase.set(batch.exchangeId(kraken));
+        krakenOrCoinbase.set(batch.exchangeId(coinbase));
+        assertEquals(6, TickBatchKernels.selectExchanges(batch, krakenOrCoinbase).length);
+        assertArrayEquals(new int[]{3, 4, 5},
+                TickBatchKernels.selectNotOlderThan(batch, TickBatch.toEpochNanos(Instant.ofEpochMilli(1003L))));
+        assertEquals(allTicks.get(3).pair(), batch.tickAt(3).pair());
+    }
+}
@@ -0,0 +1,154 @@
+package com.cryptoArb.service;
+
+import com.cryptoArb.domain.CurrencyPair;
+import com.cryptoArb.domain.Exchange;
+import com.cryptoArb.domain.PriceTick;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class TickJournalTest {
+
+    @TempDir
+    Path journalDir;
+
+    private final CurrencyPair btcUsd = new CurrencyPair("BTC", "USD");
+    private final Exchange coinbase = new Exchange("coinbase");
+
+    private PriceTick tick(long millis) {
+        return new PriceTick(btcUsd, coinbase, Instant.ofEpochMilli(millis),
+                new BigDecimal("50000.12345678"), new BigDecimal("50001.5"));
+    }
+
+    private List<PriceTick> readAll(Iterator<PriceTick> reader) {
+        List<PriceTick> result = new ArrayList<>();
+        reader.forEachRemaining(result::add);
+        return result;
+    }
+
+    @Test
+    @DisplayName("Should read back every appended tick in order")
+    void givenAppendedTicks_whenRead_thenSameTicksInOrder() {
+        // Given
+        try (TickJournal journal = TickJournal.open(journalDir)) {
+            for (int i = 0; i < 100; i++) {
+                journal.append(tick(1000L + i));
+            }
+
+            // When
+            List<PriceTick> ticks;
+            try (TickJournal.TickJournalReader reader = journal.reader()) {
+                ticks = readAll(reader);
+            }
+
+            // Then
+            assertEquals(100, ticks.size());
+            assertEquals(Instant.ofEpochMilli(1000L), ticks.get(0).timestamp());
+            assertEquals(btcUsd, ticks.get(99).pair());
+            assertEquals(coinbase, ticks.get(99).exchange());
+            assertEquals(0, new BigDecimal("50000.12345678").compareTo(ticks.get(99).bidPrice()));
+            assertEquals(0, new BigDecimal("50001.5").compareTo(ticks.get(99).askPrice()));
+        }
+    }
+
+    @Test
+    @DisplayName("Should roll to new segments and seek by time across them")
+    void givenSmallSegments_whenAppendMany_thenRollsAndSeeks() throws IOException {
+        // Given: segments that hold only a few records each
+        try (TickJournal journal = TickJournal.open(journalDir, 256)) {
+            for (int i = 0; i < 50; i++) {
+                journal.append(tick(1000L + i));
+            }
+
+            // When
+            List<PriceTick> fromMiddle = readAll(journal.reader(Instant.ofEpochMilli(1040L)));
+
+            // Then
+            try (Stream<Path> files = Files.list(journalDir)) {
+                assertTrue(files.count() > 1, "Journal should have rolled to several segments");
+            }
+            assertEquals(10, fromMiddle.size());
+            assertEquals(Instant.ofEpochMilli(1040L), fromMiddle.get(0).timestamp());
+            assertEquals(50, readAll(journal.reader()).size());
+        }
+    }
+
+    @Test
+    @DisplayName("Should continue appending after the existing data when reopened")
+    void givenExistingJournal_whenReopened_thenAppendsAfterExistingTicks() {
+        // Given
+        try (TickJournal journal = TickJournal.open(journalDir, 256)) {
+            for (int i = 0; i < 7; i++) {
+                journal.append(tick(1000L + i));
+            }
+        }
+
+        // When
+        try (TickJournal reopened = TickJournal.open(journalDir, 256)) {
+            reopened.append(tick(2000L));
+
+            // Then
+            List<PriceTick> ticks = readAll(reopened.reader());
+            assertEquals(8, ticks.size());
+            assertEquals(Instant.ofEpochMilli(2000L), ticks.get(7).timestamp());
+        }
+    }
+
+    @Test
+    @DisplayName("Should not read leftovers of a torn record after reopening and appending a shorter one")
+    void givenTornRecord_whenReopenedAndShorterTickAppended_thenOnlyCompleteTicksAreRead() throws IOException {
+        // Given: one complete tick, then a torn one (body written, length never written)
+        try (TickJournal journal = TickJournal.open(journalDir, 4096)) {
+            journal.append(tick(1000L));
+        }
+        Path segment;
+        try (Stream<Path> files = Files.list(journalDir)) {
+            segment = files.findFirst().orElseThrow();
+        }
+        int end = 4 + 8 + 4 + 8 + 8 + 1 + 3 + 1 + 3 + 1 + coinbase.id().length();
+        try (FileChannel channel = FileChannel.open(segment, StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+            MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_WRITE, 0, 4096);
+            buffer.position(end + 4);
+            buffer.putLong(Instant.ofEpochMilli(1001L).getEpochSecond()).putInt(1_000_000);
+            buffer.putLong(1L).putLong(2L);
+            byte[] longExchange = "x".repeat(40).getBytes(StandardCharsets.UTF_8);
+            buffer.put((byte) 3).put("BTC".getBytes(StandardCharsets.UTF_8));
+            buffer.put((byte) 3).put("USD".getBytes(StandardCharsets.UTF_8));
+            buffer.put((byte) longExchange.length).put(longExchange);
+            buffer.force();
+        }
+
+        // When: reopen and append a tick with a shorter exchange id
+        PriceTick kraken = new PriceTick(btcUsd, new Exchange("kraken"), Instant.ofEpochMilli(1002L),
+                new BigDecimal("50000"), new BigDecimal("50001"));
+        List<PriceTick> ticks;
+        try (TickJournal journal = TickJournal.open(journalDir, 4096)) {
+            journal.append(kraken);
+            try (TickJournal.TickJournalReader reader = journal.reader()) {
+                ticks = readAll(reader);
+            }
+        }
+
+        // Then
+        assertEquals(2, ticks.size());
+        assertEquals(coinbase, ticks.get(0).exchange());
+        assertEquals(kraken.exchange(), ticks.get(1).exchange());
+        assertEquals(kraken.timestamp(), ticks.get(1).timestamp());
+    }
+}
@@ -0,0 +1,119 @@
+package com.cryptoArb.service;
+
+import com.cryptoArb.domain.CurrencyPair;
+import com.cryptoArb.domain.Exchange;
+import com.cryptoArb.domain.FixedPointTick;
+import com.cryptoArb.domain.PriceTick;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class TickQueryTest {
+
+    private final Exchange coinbase = new Exchange("coinbase");
+    private final Exchange kraken = new Exchange("kraken");
+    private final Exchange binance = new Exchange("binance");
+    private final CurrencyPair btcUsd = new CurrencyPair("BTC", "USD");
+    private final CurrencyPair ethUsd = new CurrencyPair("ETH", "USD");
+
+    private List<PriceTick> allTicks;
+
+    @BeforeEach
+    void setUp() {
+        allTicks = List.of(
+                new PriceTick(btcUsd, coinbase, Instant.ofEpochMilli(1000L), new BigDecimal("50000"), new BigDecimal("50001")),
+                new PriceTick(btcUsd, kraken, Instant.ofEpochMilli(1001L), new BigDecimal("50002"), new BigDecimal("50005")),
+                new PriceTick(btcUsd, binance, Instant.ofEpochMilli(1002L), new BigDecimal("50001"), new BigDecimal("50004")),
+                new PriceTick(ethUsd, kraken, Instant.ofEpochMilli(1003L), new BigDecimal("3000"), new BigDecimal("3002")),
+                new PriceTick(ethUsd, coinbase, Instant.ofEpochMilli(1004L), new BigDecimal("2999"), new BigDecimal("3001"))
+        );
+    }
+
+    @Test
+    @DisplayName("Should match the same ticks as the equivalent chain of filters")
+    void givenCombinedConditions_whenExecute_thenMatchesChainedFilters() {
+        // Given
+        TickQuery query = TickQuery.builder()
+                .exchanges(kraken, binance)
+                .pairs(btcUsd)
+                .between(Instant.ofEpochMilli(1000L), Instant.ofEpochMilli(1003L))
+                .minSpread(new BigDecimal("3"))
+                .build();
+
+        // When
+        List<PriceTick> fused = query.execute(allTicks);
+
+        // Then: same as three chained PriceService.filter calls
+        PriceService priceService = new PriceService();
+        List<PriceTick> chained = priceService.filter(
+                priceService.filter(
+                        priceService.filter(allTicks, t -> t.exchange().equals(kraken) || t.exchange().equals(binance)),
+                        t -> t.pair().equals(btcUsd)),
+                t -> t.askPrice().subtract(t.bidPrice()).compareTo(new BigDecimal("3")) >= 0);
+        assertEquals(chained, fused);
+        assertEquals(2, fused.size());
+    }
+
+    @Test
+    @DisplayName("An empty query should match every tick and work as a Predicate")
+    void givenEmptyQuery_whenExecute_thenMatchesEverything() {
+        TickQuery query = TickQuery.builder().build();
+
+        assertEquals(allTicks, query.execute(allTicks));
+        assertEquals(5, new PriceService().filter(allTicks, query).size());
+    }
+
+    @Test
+    @DisplayName("Should only visit the partitions and time range it needs in a TickStore")
+    void givenTickStore_whenExecute_thenUsesPartitionsAndTimeRange() {
+        // Given
+        TickStore store = new TickStore();
+        store.appendAll(allTicks);
+        TickQuery query = TickQuery.builder()
+                .pairs(ethUsd)
+                .from(Instant.ofEpochMilli(1004L))
+                .maxSpread(new BigDecimal("2"))
+                .build();
+
+        // When
+        List<PriceTick> result = query.execute(store);
+
+        // Then
+        assertEquals(1, result.size());
+        assertEquals(coinbase, result.get(0).exchange());
+        assertEquals(query.count(allTicks), result.size());
+        assertTrue(TickQuery.builder().pairs(new CurrencyPair("LTC", "USD")).build().execute(store).isEmpty());
+    }
+
+    @Test
+    @DisplayName("Should match fixed-point ticks exactly like their BigDecimal twins")
+    void givenSpreadBounds_whenTestFixedPointTicks_thenSameMatchesAsBigDecimal() {
+        // Given: spreads are 1, 3, 3, 2 and 2; keep [2, 3]
+        TickQuery query = TickQuery.builder()
+                .pairs(btcUsd, ethUsd)
+                .minSpread(new BigDecimal("2"))
+                .maxSpread(new BigDecimal("3.0"))
+                .build();
+
+        // When / Then
+        for (PriceTick tick : allTicks) {
+            assertEquals(query.test(tick), query.test(FixedPointTick.from(tick)), tick.toString());
+        }
+        assertEquals(4, allTicks.stream().map(FixedPointTick::from).filter(query::test).count());
+    }
+
+    @Test
+    @DisplayName("Should refuse a spread bound that has no fixed-point value")
+    void givenHugeSpreadBound_whenBuild_thenThrows() {
+        assertThrows(IllegalArgumentException.class,
+                () -> TickQuery.builder().maxSpread(new BigDecimal("1E+20")).build());
+    }
+}
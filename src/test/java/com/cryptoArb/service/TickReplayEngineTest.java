@@ -0,0 +1,92 @@
+package com.cryptoArb.service;
+
+import com.cryptoArb.domain.ArbitrageOpportunity;
+import com.cryptoArb.domain.CurrencyPair;
+import com.cryptoArb.domain.Exchange;
+import com.cryptoArb.domain.PriceTick;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.math.BigDecimal;
+import java.nio.file.Path;
+import java.time.Instant;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class TickReplayEngineTest {
+
+    private final Exchange coinbase = new Exchange("coinbase");
+    private final Exchange kraken = new Exchange("kraken");
+    private final CurrencyPair btcUsd = new CurrencyPair("BTC", "USD");
+
+    private TickReplayEngine replayEngine;
+    private List<PriceTick> recording;
+
+    @BeforeEach
+    void setUp() {
+        replayEngine = new TickReplayEngine(new ArbitrageService());
+        recording = List.of(
+                // Normal market
+                new PriceTick(btcUsd, coinbase, Instant.ofEpochMilli(1000L), new BigDecimal("100"), new BigDecimal("101")),
+                new PriceTick(btcUsd, kraken, Instant.ofEpochMilli(1010L), new BigDecimal("100"), new BigDecimal("101")),
+                // Kraken's bid jumps above coinbase's ask -> opportunity
+                new PriceTick(btcUsd, kraken, Instant.ofEpochMilli(1020L), new BigDecimal("102"), new BigDecimal("103")),
+                // Coinbase catches up -> no more opportunity
+                new PriceTick(btcUsd, coinbase, Instant.ofEpochMilli(1030L), new BigDecimal("102"), new BigDecimal("103"))
+        );
+    }
+
+    @Test
+    @DisplayName("Should replay ticks as fast as possible and report the opportunities")
+    void givenRecording_whenReplayFast_thenReportsOpportunities() {
+        // When
+        TickReplayEngine.ReplayReport report = replayEngine.replay(recording.iterator());
+
+        // Then
+        assertEquals(4, report.ticksReplayed());
+        assertEquals(1, report.opportunities().size());
+        ArbitrageOpportunity opportunity = report.opportunities().get(0);
+        assertEquals(coinbase, opportunity.buyExchange());
+        assertEquals(kraken, opportunity.sellExchange());
+        assertTrue(report.ticksPerSecond() > 0);
+    }
+
+    @Test
+    @DisplayName("Should respect the original timing, scaled by the speed multiplier")
+    void givenRecording_whenReplayPaced_thenTakesScaledTime() {
+        // When: 30ms of recording at half speed should take at least 60ms
+        TickReplayEngine.ReplayReport report = replayEngine.replay(recording.iterator(), 0.5);
+
+        // Then
+        assertTrue(report.elapsedNanos() >= TimeUnit.MILLISECONDS.toNanos(60),
+                "Replay was too fast: " + report.elapsedNanos() + "ns");
+        assertEquals(1, report.opportunities().size(), "Pacing must not change the result");
+    }
+
+    @Test
+    @DisplayName("Should replay a tick journal deterministically")
+    void givenJournal_whenReplayedTwice_thenSameResult(@TempDir Path journalDir) {
+        // Given
+        try (TickJournal journal = TickJournal.open(journalDir)) {
+            recording.forEach(journal::append);
+
+            // When
+            TickReplayEngine.ReplayReport first = replayEngine.replay(journal);
+            TickReplayEngine.ReplayReport second = replayEngine.replay(journal);
+
+            // Then
+            assertEquals(4, first.ticksReplayed());
+            assertEquals(first.opportunities(), second.opportunities());
+        }
+    }
+
+    @Test
+    @DisplayName("Should reject a non-positive speed multiplier")
+    void givenZeroSpeed_whenReplay_thenThrows() {
+        assertThrows(IllegalArgumentException.class, () -> replayEngine.replay(recording.iterator(), 0));
+    }
+}
@@ -0,0 +1,87 @@
+package com.cryptoArb.service;
+
+import com.cryptoArb.domain.ConsolidatedPrice;
+import com.cryptoArb.domain.CurrencyPair;
+import com.cryptoArb.domain.Exchange;
+import com.cryptoArb.domain.PriceTick;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class TickStoreTest {
+
+    private final Exchange coinbase = new Exchange("coinbase");
+    private final Exchange kraken = new Exchange("kraken");
+    private final CurrencyPair btcUsd = new CurrencyPair("BTC", "USD");
+    private final CurrencyPair ethUsd = new CurrencyPair("ETH", "USD");
+
+    private TickStore store;
+    private List<PriceTick> allTicks;
+
+    @BeforeEach
+    void setUp() {
+        store = new TickStore();
+        allTicks = List.of(
+                new PriceTick(btcUsd, coinbase, Instant.ofEpochMilli(1000L), new BigDecimal("50000"), new BigDecimal("50001")),
+                new PriceTick(btcUsd, kraken, Instant.ofEpochMilli(1001L), new BigDecimal("50002"), new BigDecimal("50003")),
+                new PriceTick(btcUsd, coinbase, Instant.ofEpochMilli(1002L), new BigDecimal("50001"), new BigDecimal("50000")),
+                new PriceTick(ethUsd, kraken, Instant.ofEpochMilli(1003L), new BigDecimal("3000"), new BigDecimal("3002")),
+                new PriceTick(ethUsd, coinbase, Instant.ofEpochMilli(1004L), new BigDecimal("2999"), new BigDecimal("3001"))
+        );
+        store.appendAll(allTicks);
+    }
+
+    @Test
+    @DisplayName("Should partition ticks by currency pair")
+    void givenMixedTicks_whenAppended_thenPartitionedByPair() {
+        assertEquals(3, store.size(btcUsd));
+        assertEquals(2, store.size(ethUsd));
+        assertEquals(0, store.size(new CurrencyPair("LTC", "USD")));
+        assertTrue(store.getTicks(btcUsd).stream().allMatch(t -> t.pair().equals(btcUsd)));
+    }
+
+    @Test
+    @DisplayName("Should return only the ticks of a pair inside [from, to)")
+    void givenTimeRange_whenGetTicks_thenReturnsTicksInRange() {
+        // When
+        List<PriceTick> ticks = store.getTicks(btcUsd, Instant.ofEpochMilli(1001L), Instant.ofEpochMilli(1002L));
+
+        // Then: 1001 is included, 1002 is excluded
+        assertEquals(1, ticks.size());
+        assertEquals(kraken, ticks.get(0).exchange());
+    }
+
+    @Test
+    @DisplayName("Should still answer range queries after an out-of-order append")
+    void givenOutOfOrderAppend_whenGetTicks_thenFallsBackToScan() {
+        // Given: a late tick arrives for BTC/USD
+        store.append(new PriceTick(btcUsd, kraken, Instant.ofEpochMilli(500L), new BigDecimal("1"), new BigDecimal("2")));
+
+        // When
+        List<PriceTick> ticks = store.getTicks(btcUsd, Instant.ofEpochMilli(0L), Instant.ofEpochMilli(1001L));
+
+        // Then
+        assertEquals(2, ticks.size());
+    }
+
+    @Test
+    @DisplayName("Should consolidate a single pair the same way as PriceService")
+    void givenStore_whenGetConsolidatedPrice_thenMatchesPriceService() {
+        // When
+        ConsolidatedPrice fromStore = store.getConsolidatedPrice(btcUsd).orElseThrow();
+        Map<CurrencyPair, ConsolidatedPrice> all = store.aggregatePrices();
+
+        // Then
+        PriceService priceService = new PriceService();
+        assertEquals(priceService.aggregatePrices(allTicks).get(btcUsd), fromStore);
+        assertEquals(priceService.aggregatePrices(allTicks), all);
+        assertTrue(store.getConsolidatedPrice(new CurrencyPair("LTC", "USD")).isEmpty());
+    }
+}
@@ -0,0 +1,113 @@
+package com.cryptoArb.service;
+
+import com.cryptoArb.domain.ConsolidatedPrice;
+import com.cryptoArb.domain.CurrencyPair;
+import com.cryptoArb.domain.Exchange;
+import com.cryptoArb.domain.TriangularArbitrageOpportunity;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.time.Instant;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class TriangularArbitrageDetectorTest {
+
+    private final Exchange coinbase = new Exchange("coinbase");
+    private final Exchange kraken = new Exchange("kraken");
+    private final CurrencyPair btcUsd = new CurrencyPair("BTC", "USD");
+    private final CurrencyPair ethBtc = new CurrencyPair("ETH", "BTC");
+    private final CurrencyPair ethUsd = new CurrencyPair("ETH", "USD");
+
+    private TriangularArbitrageDetector detector;
+
+    private ConsolidatedPrice price(CurrencyPair pair, long millis, String bid, String ask) {
+        return new ConsolidatedPrice(pair, Instant.ofEpochMilli(millis),
+                new BigDecimal(bid), kraken, new BigDecimal(ask), coinbase);
+    }
+
+    @BeforeEach
+    void setUp() {
+        detector = new TriangularArbitrageDetector();
+        // Fairly priced: 50000 * 0.07 = 3500
+        detector.onPrice(price(btcUsd, 1000L, "50000", "50010"));
+        detector.onPrice(price(ethBtc, 1001L, "0.07", "0.0701"));
+    }
+
+    @Test
+    @DisplayName("Should find nothing while the cross rate is consistent")
+    void givenConsistentPrices_whenOnPrice_thenNoOpportunity() {
+        List<TriangularArbitrageOpportunity> result = detector.onPrice(price(ethUsd, 1002L, "3500", "3501"));
+
+        assertTrue(result.isEmpty());
+        assertEquals(1, detector.triangleCount());
+    }
+
+    @Test
+    @DisplayName("Should find USD -> BTC -> ETH -> USD when ETH/USD is bid above the cross rate")
+    void givenEthUsdBidAboveCrossRate_whenOnPrice_thenFindsTheCycle() {
+        // When: 1 USD buys 1/50010 BTC, then 1/(50010 * 0.0701) ETH, sold at 3600
+        List<TriangularArbitrageOpportunity> result = detector.onPrice(price(ethUsd, 1002L, "3600", "3601"));
+
+        // Then
+        assertEquals(1, result.size());
+        TriangularArbitrageOpportunity opportunity = result.get(0);
+        Set<String> conversions = opportunity.legs().stream()
+                .map(leg -> leg.fromCurrency() + "->" + leg.toCurrency())
+                .collect(Collectors.toSet());
+        assertEquals(Set.of("USD->BTC", "BTC->ETH", "ETH->USD"), conversions);
+
+        BigDecimal expected = new BigDecimal("3600").divide(new BigDecimal("3505.701"), 10, RoundingMode.HALF_UP);
+        assertEquals(0, expected.compareTo(opportunity.finalAmount().setScale(10, RoundingMode.HALF_UP)));
+        assertTrue(opportunity.profitPercentage().signum() > 0);
+        assertEquals(Instant.ofEpochMilli(1002L), opportunity.timestamp());
+    }
+
+    @Test
+    @DisplayName("Should only re-evaluate triangles through the updated pair, and honour the minimum profit")
+    void givenUnrelatedPairOrHighThreshold_whenOnPrice_thenNoOpportunity() {
+        // Given: the mispriced cycle exists
+        assertEquals(1, detector.onPrice(price(ethUsd, 1002L, "3600", "3601")).size());
+
+        // When: a pair outside every triangle moves
+        List<TriangularArbitrageOpportunity> unrelated =
+                detector.onPrice(price(new CurrencyPair("LTC", "EUR"), 1003L, "80", "81"));
+
+        // Then
+        assertTrue(unrelated.isEmpty());
+
+        // And a 5% minimum profit filters the ~2.7% cycle out
+        TriangularArbitrageDetector strict = new TriangularArbitrageDetector(new BigDecimal("0.05"));
+        List<TriangularArbitrageOpportunity> batch = strict.onPrices(Map.of(
+                btcUsd, price(btcUsd, 1000L, "50000", "50010"),
+                ethBtc, price(ethBtc, 1001L, "0.07", "0.0701"),
+                ethUsd, price(ethUsd, 1002L, "3600", "3601")));
+        assertTrue(batch.isEmpty());
+    }
+
+    @Test
+    @DisplayName("Should reject the inverse of a tracked pair instead of overwriting its quotes")
+    void givenTrackedPair_whenInversePairPriced_thenRejectedAndEdgesUntouched() {
+        // Given: the cycle through BTC/USD is mispriced
+        assertEquals(1, detector.onPrice(price(ethUsd, 1002L, "3600", "3601")).size());
+        CurrencyPair usdBtc = new CurrencyPair("USD", "BTC");
+
+        // When / Then: USD/BTC would share BTC/USD's edges
+        assertThrows(IllegalArgumentException.class, () -> detector.onPrice(price(usdBtc, 1003L, "0.00002", "0.0000201")));
+        assertThrows(IllegalArgumentException.class, () -> new TriangularArbitrageDetector().onPrices(Map.of(
+                btcUsd, price(btcUsd, 1000L, "50000", "50010"),
+                usdBtc, price(usdBtc, 1000L, "0.00002", "0.0000201"))));
+
+        // And BTC/USD's quotes were not replaced: the same cycle is still found
+        assertEquals(1, detector.onPrice(price(ethUsd, 1004L, "3600", "3601")).size());
+    }
+}